@@ -0,0 +1,45 @@
+package com.smaato.switchgear;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.smaato.switchgear.model.Outcome;
+
+/**
+ * Iterates over outcomes in the order their executions complete, blocking until the next outcome is available.
+ */
+class CompletionOrderIterator<T> implements Iterator<Outcome<T>> {
+
+    private static final String INTERRUPTED_ERROR = "Interrupted while waiting for the next outcome";
+
+    private final BlockingQueue<Outcome<T>> completedOutcomes = new LinkedBlockingQueue<>();
+    private int remainingOutcomes;
+
+    void add(final CompletionStage<Outcome<T>> outcomeStage) {
+        remainingOutcomes++;
+        outcomeStage.thenAccept(completedOutcomes::add);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remainingOutcomes > 0;
+    }
+
+    @Override
+    public Outcome<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            final Outcome<T> outcome = completedOutcomes.take();
+            remainingOutcomes--;
+            return outcome;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(INTERRUPTED_ERROR, e);
+        }
+    }
+}
@@ -3,15 +3,26 @@ package com.smaato.switchgear;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
 
+import com.smaato.switchgear.cache.ResultCacheSize;
+import com.smaato.switchgear.circuitbreaker.HashedWheelTimer;
 import com.smaato.switchgear.circuitbreaker.state.Strategy;
 import com.smaato.switchgear.concurrent.ThreadFactoryBuilder;
+import com.smaato.switchgear.concurrent.VirtualThreads;
+import com.smaato.switchgear.isolation.BulkheadFullException;
+import com.smaato.switchgear.isolation.ConcurrencyLimit;
+import com.smaato.switchgear.isolation.ThreadPoolSize;
+import com.smaato.switchgear.latency.AdaptiveTimeoutPolicy;
+import com.smaato.switchgear.ratelimit.RateLimit;
 import com.smaato.switchgear.model.Action;
 import com.smaato.switchgear.model.Outcome;
 
@@ -25,8 +36,15 @@ public class Configuration {
     private static final int DEFAULT_THROTTLING_PERCENTAGE = 80;
     private static final int DEFAULT_WINDOW_SIZE = 100;
     private static final int DEFAULT_CIRCUIT_OPEN_TIME_IN_MILLIS = 1000;
+    private static final int DEFAULT_SLOW_CALL_THRESHOLD_PERCENTAGE = 50;
+    private static final int DEFAULT_SLOW_CALLS_PERCENTAGE = 50;
+    private static final int DEFAULT_TIMEOUT_TICK_IN_MILLIS = 1;
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+    private static final int DEFAULT_HEDGE_BUDGET_PERCENTAGE = 5;
+    private static final int DEFAULT_RETRY_BUDGET_PERCENTAGE = 10;
     private static final String DEFAULT_ISOLATION_THREAD_NAME = "switchgear-isolation";
     private static final String DEFAULT_STATE_MANAGER_THREAD_NAME = "switchgear-state-manager";
+    private static final String DEFAULT_TIMEOUT_THREAD_NAME = "switchgear-timeout";
     private static final ThreadFactory ISOLATION_THREAD_FACTORY = ThreadFactoryBuilder.builder()
                                                                                       .withName(DEFAULT_ISOLATION_THREAD_NAME)
                                                                                       .isDaemon()
@@ -35,9 +53,14 @@ public class Configuration {
                                                                                           .withName(DEFAULT_STATE_MANAGER_THREAD_NAME)
                                                                                           .isDaemon()
                                                                                           .build();
+    private static final ThreadFactory TIMEOUT_THREAD_FACTORY = ThreadFactoryBuilder.builder()
+                                                                                    .withName(DEFAULT_TIMEOUT_THREAD_NAME)
+                                                                                    .isDaemon()
+                                                                                    .build();
 
     private final Executor executor;
     private final ScheduledExecutorService scheduledExecutor;
+    private final HashedWheelTimer timeoutTimer;
     private final boolean circuitBreakerEnabled;
     private final int timeoutInMillis;
     private final int maxConsecutiveFailuresAllowed;
@@ -45,12 +68,29 @@ public class Configuration {
     private final int minimumWindowSize;
     private final int throttlingPercentage;
     private final int circuitOpenTimeInMillis;
+    private final int slowCallThresholdPercentage;
+    private final int acceptableSlowCallsPercentage;
     private final Integer bucketLengthInMillis;
     private final Set<Class<? extends Exception>> recognizedExceptions;
     private final Strategy stateManagerStrategy;
+    private final Integer maxConcurrentCallsPerGroup;
+    private final Map<String, Integer> maxConcurrentCallsByGroup;
+    private final ThreadPoolSize threadPoolSizePerGroup;
+    private final Map<String, ThreadPoolSize> threadPoolSizesByGroup;
+    private final int hedgeBudgetPercentage;
+    private final int retryBudgetPercentage;
+    private final ResultCacheSize resultCacheSizePerGroup;
+    private final Map<String, ResultCacheSize> resultCacheSizesByGroup;
+    private final ConcurrencyLimit adaptiveConcurrencyLimit;
+    private final AdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
+    private final RateLimit rateLimitPerGroup;
+    private final Map<String, RateLimit> rateLimitsByGroup;
+    private final Integer maxInFlightCalls;
+    private final boolean earliestDeadlineFirst;
 
     private Configuration(final Executor executor,
                           final ScheduledExecutorService scheduledExecutor,
+                          final HashedWheelTimer timeoutTimer,
                           final boolean circuitBreakerEnabled,
                           final int timeoutInMillis,
                           final int maxConsecutiveFailuresAllowed,
@@ -58,11 +98,28 @@ public class Configuration {
                           final int minimumWindowSize,
                           final int throttlingPercentage,
                           final int circuitOpenTimeInMillis,
+                          final int slowCallThresholdPercentage,
+                          final int acceptableSlowCallsPercentage,
                           final Integer bucketLengthInMillis,
                           final Set<Class<? extends Exception>> recognizedExceptions,
-                          final Strategy stateManagerStrategy) {
+                          final Strategy stateManagerStrategy,
+                          final Integer maxConcurrentCallsPerGroup,
+                          final Map<String, Integer> maxConcurrentCallsByGroup,
+                          final ThreadPoolSize threadPoolSizePerGroup,
+                          final Map<String, ThreadPoolSize> threadPoolSizesByGroup,
+                          final int hedgeBudgetPercentage,
+                          final int retryBudgetPercentage,
+                          final ResultCacheSize resultCacheSizePerGroup,
+                          final Map<String, ResultCacheSize> resultCacheSizesByGroup,
+                          final ConcurrencyLimit adaptiveConcurrencyLimit,
+                          final AdaptiveTimeoutPolicy adaptiveTimeoutPolicy,
+                          final RateLimit rateLimitPerGroup,
+                          final Map<String, RateLimit> rateLimitsByGroup,
+                          final Integer maxInFlightCalls,
+                          final boolean earliestDeadlineFirst) {
         this.executor = executor;
         this.scheduledExecutor = scheduledExecutor;
+        this.timeoutTimer = timeoutTimer;
         this.circuitBreakerEnabled = circuitBreakerEnabled;
         this.timeoutInMillis = timeoutInMillis;
         this.maxConsecutiveFailuresAllowed = maxConsecutiveFailuresAllowed;
@@ -70,9 +127,25 @@ public class Configuration {
         this.minimumWindowSize = minimumWindowSize;
         this.throttlingPercentage = throttlingPercentage;
         this.circuitOpenTimeInMillis = circuitOpenTimeInMillis;
+        this.slowCallThresholdPercentage = slowCallThresholdPercentage;
+        this.acceptableSlowCallsPercentage = acceptableSlowCallsPercentage;
         this.bucketLengthInMillis = bucketLengthInMillis;
         this.recognizedExceptions = recognizedExceptions;
         this.stateManagerStrategy = stateManagerStrategy;
+        this.maxConcurrentCallsPerGroup = maxConcurrentCallsPerGroup;
+        this.maxConcurrentCallsByGroup = maxConcurrentCallsByGroup;
+        this.threadPoolSizePerGroup = threadPoolSizePerGroup;
+        this.threadPoolSizesByGroup = threadPoolSizesByGroup;
+        this.hedgeBudgetPercentage = hedgeBudgetPercentage;
+        this.retryBudgetPercentage = retryBudgetPercentage;
+        this.resultCacheSizePerGroup = resultCacheSizePerGroup;
+        this.resultCacheSizesByGroup = resultCacheSizesByGroup;
+        this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+        this.adaptiveTimeoutPolicy = adaptiveTimeoutPolicy;
+        this.rateLimitPerGroup = rateLimitPerGroup;
+        this.rateLimitsByGroup = rateLimitsByGroup;
+        this.maxInFlightCalls = maxInFlightCalls;
+        this.earliestDeadlineFirst = earliestDeadlineFirst;
     }
 
     public Executor getExecutor() {
@@ -83,6 +156,13 @@ public class Configuration {
         return scheduledExecutor;
     }
 
+    /**
+     * @return timing wheel for timeout events, or null if timeouts are scheduled on {@link #getScheduledExecutor()}.
+     */
+    public HashedWheelTimer getTimeoutTimer() {
+        return timeoutTimer;
+    }
+
     public Integer getTimeoutInMillis() {
         return timeoutInMillis;
     }
@@ -107,6 +187,14 @@ public class Configuration {
         return circuitOpenTimeInMillis;
     }
 
+    public int getSlowCallThresholdPercentage() {
+        return slowCallThresholdPercentage;
+    }
+
+    public int getAcceptableSlowCallsPercentage() {
+        return acceptableSlowCallsPercentage;
+    }
+
     public Integer getBucketLengthInMillis() {
         return bucketLengthInMillis;
     }
@@ -123,6 +211,83 @@ public class Configuration {
         return throttlingPercentage;
     }
 
+    /**
+     * @return max concurrent calls of a group without an override, or null if the calls are not limited.
+     */
+    public Integer getMaxConcurrentCallsPerGroup() {
+        return maxConcurrentCallsPerGroup;
+    }
+
+    public Map<String, Integer> getMaxConcurrentCallsByGroup() {
+        return maxConcurrentCallsByGroup;
+    }
+
+    /**
+     * @return size of the dedicated thread pool of a group without an override, or null if such groups share {@link #getExecutor()}.
+     */
+    public ThreadPoolSize getThreadPoolSizePerGroup() {
+        return threadPoolSizePerGroup;
+    }
+
+    public Map<String, ThreadPoolSize> getThreadPoolSizesByGroup() {
+        return threadPoolSizesByGroup;
+    }
+
+    public int getHedgeBudgetPercentage() {
+        return hedgeBudgetPercentage;
+    }
+
+    public int getRetryBudgetPercentage() {
+        return retryBudgetPercentage;
+    }
+
+    /**
+     * @return size of the result cache of a group without an override, or null if such groups do not cache results.
+     */
+    public ResultCacheSize getResultCacheSizePerGroup() {
+        return resultCacheSizePerGroup;
+    }
+
+    public Map<String, ResultCacheSize> getResultCacheSizesByGroup() {
+        return resultCacheSizesByGroup;
+    }
+
+    /**
+     * @return adaptive concurrency limit of groups without a fixed limit, or null if their calls are not limited adaptively.
+     */
+    public ConcurrencyLimit getAdaptiveConcurrencyLimit() {
+        return adaptiveConcurrencyLimit;
+    }
+
+    /**
+     * @return policy deriving timeouts from the observed latency, or null if the requested timeouts are applied as they are.
+     */
+    public AdaptiveTimeoutPolicy getAdaptiveTimeoutPolicy() {
+        return adaptiveTimeoutPolicy;
+    }
+
+    /**
+     * @return rate limit of a group without an override, or null if the rate of such groups is not limited.
+     */
+    public RateLimit getRateLimitPerGroup() {
+        return rateLimitPerGroup;
+    }
+
+    public Map<String, RateLimit> getRateLimitsByGroup() {
+        return rateLimitsByGroup;
+    }
+
+    /**
+     * @return max number of in-flight calls of all groups, or null if calls are not shed under load.
+     */
+    public Integer getMaxInFlightCalls() {
+        return maxInFlightCalls;
+    }
+
+    public boolean isEarliestDeadlineFirst() {
+        return earliestDeadlineFirst;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -130,6 +295,7 @@ public class Configuration {
     @SuppressWarnings("ClassWithTooManyMethods")
     public static class Builder {
         private Executor executor;
+        private boolean virtualThreadsEnabled;
         private ScheduledExecutorService scheduledExecutor;
         private int defaultTimeoutInMillis = DEFAULT_TIMEOUT_IN_MILLIS;
         private boolean circuitBreakerEnabled = ENABLED_BY_DEFAULT;
@@ -137,10 +303,28 @@ public class Configuration {
         private int failuresPercentage = DEFAULT_FAILURES_PERCENTAGE;
         private int minimumWindowSize = DEFAULT_WINDOW_SIZE;
         private int circuitOpenTimeInMillis = DEFAULT_CIRCUIT_OPEN_TIME_IN_MILLIS;
+        private int slowCallThresholdPercentage = DEFAULT_SLOW_CALL_THRESHOLD_PERCENTAGE;
+        private int slowCallsPercentage = DEFAULT_SLOW_CALLS_PERCENTAGE;
         private int throttlingPercentage = DEFAULT_THROTTLING_PERCENTAGE;
+        private boolean timingWheelEnabled = ENABLED_BY_DEFAULT;
+        private int timeoutTickInMillis = DEFAULT_TIMEOUT_TICK_IN_MILLIS;
         private Integer bucketLengthInMillis;
         private Set<Class<? extends Exception>> recognizedExceptions = Collections.emptySet();
         private Strategy stateManagerStrategy = Strategy.CONSECUTIVE_FAILURES;
+        private Integer maxConcurrentCallsPerGroup;
+        private final Map<String, Integer> maxConcurrentCallsByGroup = new HashMap<>();
+        private ThreadPoolSize threadPoolSizePerGroup;
+        private final Map<String, ThreadPoolSize> threadPoolSizesByGroup = new HashMap<>();
+        private int hedgeBudgetPercentage = DEFAULT_HEDGE_BUDGET_PERCENTAGE;
+        private int retryBudgetPercentage = DEFAULT_RETRY_BUDGET_PERCENTAGE;
+        private ResultCacheSize resultCacheSizePerGroup;
+        private final Map<String, ResultCacheSize> resultCacheSizesByGroup = new HashMap<>();
+        private ConcurrencyLimit adaptiveConcurrencyLimit;
+        private AdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
+        private RateLimit rateLimitPerGroup;
+        private final Map<String, RateLimit> rateLimitsByGroup = new HashMap<>();
+        private Integer maxInFlightCalls;
+        private boolean earliestDeadlineFirst;
 
         /**
          * @param executor for thread level isolation of {@link Action} executions.
@@ -154,13 +338,30 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Executes every {@link Action#getCall()} in a new virtual thread instead of the default cached thread pool.
+         * <p>
+         * Virtual threads are cheap to create and to block, so the number of concurrent blocking calls is no longer bound to
+         * the number of platform threads. An executor set with {@link #withExecutor(Executor)} takes precedence.
+         * </p>
+         * <p>Requires Java 21 or later.</p>
+         * @throws UnsupportedOperationException if the running JVM does not support virtual threads.
+         */
+        public Builder withVirtualThreads() {
+            if (!VirtualThreads.isSupported()) {
+                throw new UnsupportedOperationException(VirtualThreads.UNSUPPORTED_ERROR);
+            }
+            virtualThreadsEnabled = true;
+            return this;
+        }
+
         /**
          * @param scheduledExecutor for timeout handler events.
          * <p>
-         * Circuit breaker internally is using {@link ScheduledExecutorService} to schedule timeout events
-         * and manage its internal state.
+         * Circuit breaker internally is using {@link ScheduledExecutorService} to manage its internal state.
+         * Timeout events are only scheduled on it when the timing wheel is disabled.
          * </p>
-         * <p>Uses {@link Executors#newSingleThreadScheduledExecutor()} by default.</p>
+         * <p>Uses a single thread {@link ScheduledThreadPoolExecutor} which removes cancelled tasks by default.</p>
          * @throws NullPointerException if scheduledExecutor is null.
          */
         public Builder withScheduledExecutor(final ScheduledExecutorService scheduledExecutor) {
@@ -169,6 +370,63 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * @param timingWheelEnabled feature toggle for the timing wheel used to fire timeout events.
+         * <p>
+         * When disabled, every timeout event is scheduled on the scheduled executor instead. Every configuration has its own
+         * timing wheel, which is shared by the {@link Switchgear} instances created from it and stopped once all of them are
+         * closed.
+         * </p>
+         * <p>
+         * Timed out calls are completed by the single worker thread of the timing wheel, so their fallbacks and dependent
+         * stages run on it unless they are asynchronous, and must not block.
+         * </p>
+         * <p>Is enabled by default.</p>
+         */
+        public Builder withTimingWheelEnabled(final boolean timingWheelEnabled) {
+            this.timingWheelEnabled = timingWheelEnabled;
+            return this;
+        }
+
+        /**
+         * @param timeoutTickInMillis resolution of the timing wheel used to fire timeout events.
+         * <p>A timeout event fires at most one tick later than requested.</p>
+         * <p>Default value is 1.</p>
+         * @throws IllegalArgumentException if timeoutTickInMillis less or equal to zero.
+         */
+        public Builder withTimeoutTickInMillis(final int timeoutTickInMillis) {
+            if (timeoutTickInMillis <= 0) {
+                throw new IllegalArgumentException();
+            }
+            this.timeoutTickInMillis = timeoutTickInMillis;
+            return this;
+        }
+
+        /**
+         * Enables adaptive timeouts: the timeout of a call is derived from the latency observed per group and timeout bucket,
+         * as the given latency percentile multiplied by the multiplier and clamped between the min and the max timeout.
+         * <p>
+         * The adaptive timeout never exceeds the timeout of the {@link Action} or the default timeout, which is also used
+         * until enough latencies of the group have been observed. Timed out calls are observed with the time they took, so
+         * the timeout grows again when it is too short for the latency percentile.
+         * </p>
+         *
+         * @param percentile of the observed latency, in the range of (0, 100).
+         * @param multiplier applied to the latency percentile, at least 1.
+         * @param minTimeoutInMillis lower bound of the adaptive timeout.
+         * @param maxTimeoutInMillis upper bound of the adaptive timeout.
+         * <p>Disabled by default.</p>
+         * @throws IllegalArgumentException if percentile is not in the range of (0, 100), multiplier is less than 1,
+         * minTimeoutInMillis less or equal to zero or greater than maxTimeoutInMillis.
+         */
+        public Builder withAdaptiveTimeouts(final double percentile,
+                                            final double multiplier,
+                                            final int minTimeoutInMillis,
+                                            final int maxTimeoutInMillis) {
+            adaptiveTimeoutPolicy = new AdaptiveTimeoutPolicy(percentile, multiplier, minTimeoutInMillis, maxTimeoutInMillis);
+            return this;
+        }
+
         /**
          * @param defaultTimeoutInMillis timeout for {@link Action#getCall()} in milliseconds.
          * <p>
@@ -210,7 +468,8 @@ public class Configuration {
         }
 
         /**
-         * @param failuresPercentage configuration parameter for circuit breaker based on {@link Strategy#FREQUENT_FAILURES}.
+         * @param failuresPercentage configuration parameter for circuit breaker based on {@link Strategy#FREQUENT_FAILURES},
+         * {@link Strategy#SLIDING_WINDOW}, {@link Strategy#SLIDING_COUNT} and {@link Strategy#SLOW_CALL_RATE}.
          * <p>
          * Sets the threshold for the percentage of failures, if the amount of failures exceeds this threshold
          * circuit breaker will block following calls.
@@ -227,8 +486,10 @@ public class Configuration {
         }
 
         /**
-         * @param minimumWindowSize configuration parameter for circuit breaker based on {@link Strategy#FREQUENT_FAILURES}.
+         * @param minimumWindowSize configuration parameter for circuit breaker based on {@link Strategy#FREQUENT_FAILURES},
+         * {@link Strategy#SLIDING_WINDOW}, {@link Strategy#SLIDING_COUNT} and {@link Strategy#SLOW_CALL_RATE}.
          * <p>Sets the minimum number of calls to be able to calculate the percentage of failures.</p>
+         * <p>In case of {@link Strategy#SLIDING_COUNT} and {@link Strategy#SLOW_CALL_RATE} it is the number of last calls the percentage is calculated over.</p>
          * <p>Default value is 100.</p>
          * @throws IllegalArgumentException if minimumWindowSize less or equal to zero.
          */
@@ -241,7 +502,8 @@ public class Configuration {
         }
 
         /**
-         * @param throttlingPercentage configuration parameter for circuit breaker based on {@link Strategy#FREQUENT_FAILURES}.
+         * @param throttlingPercentage configuration parameter for circuit breaker based on {@link Strategy#FREQUENT_FAILURES},
+         * {@link Strategy#SLIDING_WINDOW}, {@link Strategy#SLIDING_COUNT} and {@link Strategy#SLOW_CALL_RATE}.
          * <p>Sets the percentage of call that will be blocked by circuit breaker.</p>
          * <p>Default value is 80.</p>
          * @throws IllegalArgumentException if throttlingPercentage is not in the range of [1, 100]
@@ -258,6 +520,8 @@ public class Configuration {
          * @param circuitOpenTimeInMillis configuration parameter for circuit breaker.
          * <p>Defines after how many milliseconds to half-open the circuit in case of {@link Strategy#CONSECUTIVE_FAILURES}</p>
          * <p>In case of {@link Strategy#FREQUENT_FAILURES} it defines the period over which failure percentage is being calculated.</p>
+         * <p>In case of {@link Strategy#SLIDING_WINDOW} it defines the length of the sliding window and how long the circuit stays open.</p>
+         * <p>In case of {@link Strategy#SLIDING_COUNT} and {@link Strategy#SLOW_CALL_RATE} it defines after how many milliseconds to half-open the circuit.</p>
          * <p>Default value is 1000.</p>
          * @throws IllegalArgumentException if circuitOpenTimeInMillis less or equal to zero.
          */
@@ -269,6 +533,40 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * @param slowCallThresholdPercentage configuration parameter for circuit breaker based on {@link Strategy#SLOW_CALL_RATE}.
+         * <p>
+         * Sets the slow call threshold as a percentage of the timeout requested for the call. Calls taking longer than this,
+         * measured from their submission until their completion, count as slow calls.
+         * </p>
+         * <p>Default value is 50.</p>
+         * @throws IllegalArgumentException if slowCallThresholdPercentage is not in the range of [1, 100]
+         */
+        public Builder withSlowCallThresholdPercentage(final int slowCallThresholdPercentage) {
+            if ((slowCallThresholdPercentage < 1) || (slowCallThresholdPercentage > 100)) {
+                throw new IllegalArgumentException();
+            }
+            this.slowCallThresholdPercentage = slowCallThresholdPercentage;
+            return this;
+        }
+
+        /**
+         * @param slowCallsPercentage configuration parameter for circuit breaker based on {@link Strategy#SLOW_CALL_RATE}.
+         * <p>
+         * Sets the threshold for the percentage of slow calls, if the amount of slow calls exceeds this threshold circuit
+         * breaker will block following calls. It is independent of the percentage of failures.
+         * </p>
+         * <p>Default value is 50.</p>
+         * @throws IllegalArgumentException if slowCallsPercentage is not in the range of [1, 100]
+         */
+        public Builder withSlowCallsPercentage(final int slowCallsPercentage) {
+            if ((slowCallsPercentage < 1) || (slowCallsPercentage > 100)) {
+                throw new IllegalArgumentException();
+            }
+            this.slowCallsPercentage = slowCallsPercentage;
+            return this;
+        }
+
         /**
          * @param bucketLengthInMillis configuration parameter for circuit breaker.
          * <p>Setting bucketLengthInMillis enables a multi bucket circuit breaker of the given size.</p>
@@ -303,10 +601,227 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * @param maxConcurrentCallsPerGroup configuration parameter for the bulkhead of every group.
+         * <p>
+         * Sets the number of concurrent calls of a group. Calls exceeding it are not queued, they are rejected right away
+         * with the circuit breaker fallback of the {@link Action}, getting {@link BulkheadFullException} as its argument.
+         * </p>
+         * <p>Not limited by default.</p>
+         * @throws IllegalArgumentException if maxConcurrentCallsPerGroup less or equal to zero.
+         */
+        public Builder withMaxConcurrentCallsPerGroup(final int maxConcurrentCallsPerGroup) {
+            if (maxConcurrentCallsPerGroup <= 0) {
+                throw new IllegalArgumentException();
+            }
+            this.maxConcurrentCallsPerGroup = maxConcurrentCallsPerGroup;
+            return this;
+        }
+
+        /**
+         * Enables an adaptive bulkhead for every group: the number of concurrent calls of a group is limited by a limit which
+         * shrinks when the latency of the calls rises and grows while it is stable, so an overloaded group is relieved before
+         * its calls time out. Calls exceeding it are rejected like with {@link #withMaxConcurrentCallsPerGroup(int)}.
+         * <p>
+         * A fixed limit set with {@link #withMaxConcurrentCallsPerGroup(int)} or {@link #withMaxConcurrentCalls(String, int)}
+         * takes precedence.
+         * </p>
+         *
+         * @param initialLimit concurrent calls of a group permitted before any latency has been observed.
+         * @param maxLimit upper bound of the adaptive limit of a group.
+         * <p>Disabled by default.</p>
+         * @throws IllegalArgumentException if initialLimit less or equal to zero or greater than maxLimit.
+         */
+        public Builder withAdaptiveConcurrencyLimitPerGroup(final int initialLimit,
+                                                            final int maxLimit) {
+            adaptiveConcurrencyLimit = new ConcurrencyLimit(initialLimit, maxLimit);
+            return this;
+        }
+
+        /**
+         * @param groupName group name of the {@link Action}s to limit.
+         * @param maxConcurrentCalls overrides {@link #withMaxConcurrentCallsPerGroup(int)} for the given group.
+         * @throws NullPointerException if groupName is null.
+         * @throws IllegalArgumentException if maxConcurrentCalls less or equal to zero.
+         */
+        public Builder withMaxConcurrentCalls(final String groupName,
+                                              final int maxConcurrentCalls) {
+            requireNonNull(groupName);
+            if (maxConcurrentCalls <= 0) {
+                throw new IllegalArgumentException();
+            }
+            maxConcurrentCallsByGroup.put(groupName, maxConcurrentCalls);
+            return this;
+        }
+
+        /**
+         * Enables thread pool isolation: every group executes its {@link Action}s in a dedicated bounded thread pool
+         * instead of the shared executor, so a saturated group does not delay the calls of other groups.
+         *
+         * @param threads max number of threads of every group.
+         * @param queueCapacity max number of calls of every group waiting for a thread.
+         * <p>
+         * Calls exceeding the capacity of the pool fail with {@link java.util.concurrent.RejectedExecutionException}.
+         * </p>
+         * <p>Disabled by default.</p>
+         * @throws IllegalArgumentException if threads less or equal to zero or queueCapacity is negative.
+         */
+        public Builder withThreadPoolPerGroup(final int threads,
+                                              final int queueCapacity) {
+            threadPoolSizePerGroup = new ThreadPoolSize(threads, queueCapacity);
+            return this;
+        }
+
+        /**
+         * Dedicated thread pools of groups run the queued {@link Action}s in the order of their deadlines instead of their
+         * arrival, and drop the ones whose timeout passed while they were queued without running them, see
+         * {@link #withThreadPoolPerGroup(int, int)} and {@link #withThreadPool(String, int, int)}.
+         * <p>Disabled by default.</p>
+         */
+        public Builder withEarliestDeadlineFirst() {
+            earliestDeadlineFirst = true;
+            return this;
+        }
+
+        /**
+         * Executes the {@link Action}s of the given group in a dedicated bounded thread pool, overriding
+         * {@link #withThreadPoolPerGroup(int, int)} for the group.
+         *
+         * @param groupName group name of the {@link Action}s to isolate.
+         * @param threads max number of threads of the group.
+         * @param queueCapacity max number of calls of the group waiting for a thread.
+         * @throws NullPointerException if groupName is null.
+         * @throws IllegalArgumentException if threads less or equal to zero or queueCapacity is negative.
+         */
+        public Builder withThreadPool(final String groupName,
+                                      final int threads,
+                                      final int queueCapacity) {
+            requireNonNull(groupName);
+            threadPoolSizesByGroup.put(groupName, new ThreadPoolSize(threads, queueCapacity));
+            return this;
+        }
+
+        /**
+         * @param hedgeBudgetPercentage configuration parameter for {@link Action}s with hedging.
+         * <p>
+         * Sets the max number of backup calls of a group as percentage of its hedged calls, so hedging cannot amplify the
+         * load on a struggling group.
+         * </p>
+         * <p>Default value is 5.</p>
+         * @throws IllegalArgumentException if hedgeBudgetPercentage is not in the range of [1, 100]
+         */
+        public Builder withHedgeBudgetPercentage(final int hedgeBudgetPercentage) {
+            if ((hedgeBudgetPercentage < 1) || (hedgeBudgetPercentage > 100)) {
+                throw new IllegalArgumentException();
+            }
+            this.hedgeBudgetPercentage = hedgeBudgetPercentage;
+            return this;
+        }
+
+        /**
+         * @param retryBudgetPercentage configuration parameter for {@link Action}s with retries.
+         * <p>
+         * Sets the max number of retries of a group as percentage of its successful calls, so retries cannot cause a retry
+         * storm once most of the calls fail.
+         * </p>
+         * <p>Default value is 10.</p>
+         * @throws IllegalArgumentException if retryBudgetPercentage is not in the range of [1, 100]
+         */
+        public Builder withRetryBudgetPercentage(final int retryBudgetPercentage) {
+            if ((retryBudgetPercentage < 1) || (retryBudgetPercentage > 100)) {
+                throw new IllegalArgumentException();
+            }
+            this.retryBudgetPercentage = retryBudgetPercentage;
+            return this;
+        }
+
+        /**
+         * Enables result caching: every group caches the successful results of its {@link Action}s with a cache key,
+         * see {@link Action.Builder#withCacheKey(Object)}.
+         *
+         * @param ttlInMillis time after which a cached result of every group is not served anymore, unless the call fails.
+         * @param maxEntries max number of cached results of every group.
+         * <p>Disabled by default.</p>
+         * @throws IllegalArgumentException if ttlInMillis or maxEntries is less or equal to zero.
+         */
+        public Builder withResultCachePerGroup(final int ttlInMillis,
+                                               final int maxEntries) {
+            resultCacheSizePerGroup = new ResultCacheSize(ttlInMillis, maxEntries);
+            return this;
+        }
+
+        /**
+         * Caches the results of the given group, overriding {@link #withResultCachePerGroup(int, int)} for the group.
+         *
+         * @param groupName group name of the {@link Action}s to cache.
+         * @param ttlInMillis time after which a cached result is not served anymore, unless the call fails.
+         * @param maxEntries max number of cached results of the group.
+         * @throws NullPointerException if groupName is null.
+         * @throws IllegalArgumentException if ttlInMillis or maxEntries is less or equal to zero.
+         */
+        public Builder withResultCache(final String groupName,
+                                       final int ttlInMillis,
+                                       final int maxEntries) {
+            requireNonNull(groupName);
+            resultCacheSizesByGroup.put(groupName, new ResultCacheSize(ttlInMillis, maxEntries));
+            return this;
+        }
+
+        /**
+         * Limits the rate of calls of every group. Calls exceeding it are rejected before they reach the circuit breaker,
+         * resulting in the circuit breaker fallback with a {@link com.smaato.switchgear.ratelimit.RateLimitExceededException}.
+         *
+         * @param permitsPerSecond sustained rate of permitted calls of every group.
+         * @param burst max number of calls of every group permitted at once after the group has been idle.
+         * <p>Disabled by default.</p>
+         * @throws IllegalArgumentException if permitsPerSecond is not a positive number or burst is less or equal to zero.
+         */
+        public Builder withRateLimitPerGroup(final double permitsPerSecond,
+                                             final int burst) {
+            rateLimitPerGroup = new RateLimit(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * Limits the rate of calls of the given group, overriding {@link #withRateLimitPerGroup(double, int)} for the group.
+         *
+         * @param groupName group name of the {@link Action}s to limit.
+         * @param permitsPerSecond sustained rate of permitted calls.
+         * @param burst max number of calls permitted at once after the group has been idle.
+         * @throws NullPointerException if groupName is null.
+         * @throws IllegalArgumentException if permitsPerSecond is not a positive number or burst is less or equal to zero.
+         */
+        public Builder withRateLimit(final String groupName,
+                                     final double permitsPerSecond,
+                                     final int burst) {
+            requireNonNull(groupName);
+            rateLimitsByGroup.put(groupName, new RateLimit(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Sheds calls under load by their priority, see {@link Action.Builder#withPriority(com.smaato.switchgear.model.Priority)}.
+         * Calls of all groups which are queued or executed count as in flight. Low priority calls are shed once half of the
+         * limit is in flight, normal priority calls at 80% of it and high priority calls at the limit itself. Shed calls are
+         * rejected before they reach the circuit breaker, resulting in the circuit breaker fallback with a
+         * {@link com.smaato.switchgear.isolation.LoadShedException}.
+         *
+         * @param maxInFlightCalls max number of in-flight calls of all groups.
+         * <p>Disabled by default.</p>
+         * @throws IllegalArgumentException if maxInFlightCalls less or equal to zero.
+         */
+        public Builder withLoadShedding(final int maxInFlightCalls) {
+            if (maxInFlightCalls <= 0) {
+                throw new IllegalArgumentException();
+            }
+            this.maxInFlightCalls = maxInFlightCalls;
+            return this;
+        }
+
         public Configuration build() {
-            return new Configuration(getOrDefault(executor, Executors.newCachedThreadPool(ISOLATION_THREAD_FACTORY)),
-                                     getOrDefault(scheduledExecutor,
-                                                  Executors.newSingleThreadScheduledExecutor(STATE_MANAGER_THREAD_FACTORY)),
+            return new Configuration(getOrDefault(executor, newDefaultExecutor()),
+                                     getOrDefault(scheduledExecutor, newDefaultScheduledExecutor()),
+                                     timingWheelEnabled ? newTimeoutTimer(timeoutTickInMillis) : null,
                                      circuitBreakerEnabled,
                                      defaultTimeoutInMillis,
                                      maxConsecutiveFailuresAllowed,
@@ -314,9 +829,43 @@ public class Configuration {
                                      minimumWindowSize,
                                      throttlingPercentage,
                                      circuitOpenTimeInMillis,
+                                     slowCallThresholdPercentage,
+                                     slowCallsPercentage,
                                      bucketLengthInMillis,
                                      recognizedExceptions,
-                                     stateManagerStrategy);
+                                     stateManagerStrategy,
+                                     maxConcurrentCallsPerGroup,
+                                     Collections.unmodifiableMap(new HashMap<>(maxConcurrentCallsByGroup)),
+                                     threadPoolSizePerGroup,
+                                     Collections.unmodifiableMap(new HashMap<>(threadPoolSizesByGroup)),
+                                     hedgeBudgetPercentage,
+                                     retryBudgetPercentage,
+                                     resultCacheSizePerGroup,
+                                     Collections.unmodifiableMap(new HashMap<>(resultCacheSizesByGroup)),
+                                     adaptiveConcurrencyLimit,
+                                     adaptiveTimeoutPolicy,
+                                     rateLimitPerGroup,
+                                     Collections.unmodifiableMap(new HashMap<>(rateLimitsByGroup)),
+                                     maxInFlightCalls,
+                                     earliestDeadlineFirst);
+        }
+
+        private Executor newDefaultExecutor() {
+            if (virtualThreadsEnabled) {
+                return VirtualThreads.newVirtualThreadPerTaskExecutor(DEFAULT_ISOLATION_THREAD_NAME);
+            }
+            return Executors.newCachedThreadPool(ISOLATION_THREAD_FACTORY);
+        }
+
+        private static ScheduledExecutorService newDefaultScheduledExecutor() {
+            final ScheduledThreadPoolExecutor defaultScheduledExecutor = new ScheduledThreadPoolExecutor(1, STATE_MANAGER_THREAD_FACTORY);
+            // Cancelled tasks are removed from the work queue right away instead of piling up until their delay elapses.
+            defaultScheduledExecutor.setRemoveOnCancelPolicy(true);
+            return defaultScheduledExecutor;
+        }
+
+        private static HashedWheelTimer newTimeoutTimer(final int timeoutTickInMillis) {
+            return new HashedWheelTimer(TIMEOUT_THREAD_FACTORY, timeoutTickInMillis, DEFAULT_TICKS_PER_WHEEL);
         }
 
         private static <E> E getOrDefault(final E value,
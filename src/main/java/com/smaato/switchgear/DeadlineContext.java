@@ -0,0 +1,39 @@
+package com.smaato.switchgear;
+
+import com.smaato.switchgear.model.Deadline;
+
+/**
+ * Deadline of the isolated call executed by the current thread, inherited by nested {@link Switchgear} executions so they
+ * never outlive the call that started them.
+ */
+final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT_DEADLINE = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * @return deadline of the current thread, or null if it does not execute an isolated call.
+     */
+    static Deadline get() {
+        return CURRENT_DEADLINE.get();
+    }
+
+    /**
+     * @return previous deadline of the current thread, which has to be restored once the call returns.
+     */
+    static Deadline set(final Deadline deadline) {
+        final Deadline previousDeadline = CURRENT_DEADLINE.get();
+        CURRENT_DEADLINE.set(deadline);
+        return previousDeadline;
+    }
+
+    static void restore(final Deadline previousDeadline) {
+        if (previousDeadline == null) {
+            CURRENT_DEADLINE.remove();
+        } else {
+            CURRENT_DEADLINE.set(previousDeadline);
+        }
+    }
+}
@@ -1,40 +1,197 @@
 package com.smaato.switchgear;
 
-import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import com.smaato.switchgear.batching.Batcher;
+import com.smaato.switchgear.cache.ResultCacheHolder;
 import com.smaato.switchgear.circuitbreaker.CircuitBreakerHolder;
+import com.smaato.switchgear.coalescing.Coalescer;
+import com.smaato.switchgear.concurrent.CompletedFuture;
+import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
 import com.smaato.switchgear.concurrent.Utils;
+import com.smaato.switchgear.hedging.Hedger;
+import com.smaato.switchgear.isolation.Bulkhead;
+import com.smaato.switchgear.isolation.BulkheadFullException;
+import com.smaato.switchgear.isolation.BulkheadHolder;
+import com.smaato.switchgear.isolation.EarliestDeadlineFirstExecutor;
+import com.smaato.switchgear.isolation.ExecutorHolder;
+import com.smaato.switchgear.isolation.LoadShedException;
+import com.smaato.switchgear.isolation.LoadShedder;
+import com.smaato.switchgear.latency.AdaptiveTimeouts;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Batching;
+import com.smaato.switchgear.model.Deadline;
+import com.smaato.switchgear.model.Hedging;
+import com.smaato.switchgear.ratelimit.RateLimitExceededException;
+import com.smaato.switchgear.ratelimit.RateLimiter;
+import com.smaato.switchgear.ratelimit.RateLimiterHolder;
+import com.smaato.switchgear.retry.Retrier;
 
 class ExecutorService {
 
-    private final Executor executor;
+    private static final boolean DO_NOT_INTERRUPT = false;
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private final ExecutorHolder executorHolder;
     private final CircuitBreakerHolder circuitBreakerHolder;
+    private final BulkheadHolder bulkheadHolder;
+    private final RateLimiterHolder rateLimiterHolder;
+    private final LoadShedder loadShedder;
+    private final Hedger hedger;
+    private final Retrier retrier;
+    private final Coalescer coalescer;
+    private final Batcher batcher;
+    private final ResultCacheHolder resultCacheHolder;
+    private final AdaptiveTimeouts adaptiveTimeouts;
 
-    ExecutorService(final Executor executor,
-                    final CircuitBreakerHolder circuitBreakerHolder) {
-        this.executor = executor;
+    /**
+     * @param loadShedder null if calls are not shed under load.
+     * @param adaptiveTimeouts null if the requested timeouts are applied as they are.
+     */
+    ExecutorService(final ExecutorHolder executorHolder,
+                    final CircuitBreakerHolder circuitBreakerHolder,
+                    final BulkheadHolder bulkheadHolder,
+                    final RateLimiterHolder rateLimiterHolder,
+                    final LoadShedder loadShedder,
+                    final Hedger hedger,
+                    final Retrier retrier,
+                    final Coalescer coalescer,
+                    final Batcher batcher,
+                    final ResultCacheHolder resultCacheHolder,
+                    final AdaptiveTimeouts adaptiveTimeouts) {
+        this.executorHolder = executorHolder;
         this.circuitBreakerHolder = circuitBreakerHolder;
+        this.bulkheadHolder = bulkheadHolder;
+        this.rateLimiterHolder = rateLimiterHolder;
+        this.loadShedder = loadShedder;
+        this.hedger = hedger;
+        this.retrier = retrier;
+        this.coalescer = coalescer;
+        this.batcher = batcher;
+        this.resultCacheHolder = resultCacheHolder;
+        this.adaptiveTimeouts = adaptiveTimeouts;
+    }
+
+    void shutdown() {
+        executorHolder.shutdown();
+    }
+
+    /**
+     * @param timeoutInMillis time remaining until the deadline, as requested by the caller.
+     * @param deadline of the call, created when the call entered Switchgear.
+     */
+    <T> CompletableFuture<T> execute(final Action<T> action,
+                                     final int timeoutInMillis,
+                                     final Deadline deadline) {
+        if (action.getCacheKey().isPresent()) {
+            return resultCacheHolder.getFor(action.getGroupName())
+                                    .execute(action.getCacheKey().get(),
+                                             circuitBreakerFallback -> executeCoalesced(action, circuitBreakerFallback, timeoutInMillis, deadline),
+                                             action.getCircuitBreakerFallback());
+        }
+        return executeCoalesced(action, action.getCircuitBreakerFallback(), timeoutInMillis, deadline);
     }
 
-    <T> Future<T> execute(final Action<T> action,
-                          final int timeoutInMillis) {
+    private <T> CompletableFuture<T> executeCoalesced(final Action<T> action,
+                                                      final Function<Throwable, T> circuitBreakerFallback,
+                                                      final int timeoutInMillis,
+                                                      final Deadline deadline) {
+        if (action.getCoalescingKey().isPresent()) {
+            return coalescer.execute(action.getGroupName(),
+                                     action.getCoalescingKey().get(),
+                                     sharedCallFallback -> executeIsolated(action, sharedCallFallback, timeoutInMillis, deadline),
+                                     circuitBreakerFallback,
+                                     timeoutInMillis);
+        }
+        return executeIsolated(action, circuitBreakerFallback, timeoutInMillis, deadline);
+    }
 
-        final Supplier<CompletableFuture<T>> deferredExecution = wrapToDeferredExecution(action.getCall());
+    private <T> CompletableFuture<T> executeIsolated(final Action<T> action,
+                                                     final Function<Throwable, T> circuitBreakerFallback,
+                                                     final int timeoutInMillis,
+                                                     final Deadline deadline) {
+
+        final RateLimiter rateLimiter = rateLimiterHolder.getFor(action.getGroupName());
+        if (!rateLimiter.tryAcquire()) {
+            return reject(circuitBreakerFallback, new RateLimitExceededException(action.getGroupName()));
+        }
+
+        if ((loadShedder != null) && !loadShedder.tryAcquire(action.getPriority())) {
+            rateLimiter.release();
+            return reject(circuitBreakerFallback, new LoadShedException(action.getGroupName(), action.getPriority()));
+        }
+
+        final Bulkhead groupBulkhead = bulkheadHolder.getFor(action.getGroupName());
+        if (!groupBulkhead.tryAcquire()) {
+            if (loadShedder != null) {
+                loadShedder.release();
+            }
+            rateLimiter.release();
+            return reject(circuitBreakerFallback, new BulkheadFullException(action.getGroupName()));
+        }
+        // Both permits are released together, backup calls of hedging acquire both as well.
+        final Bulkhead bulkhead = (loadShedder == null) ? groupBulkhead : loadShedder.track(groupBulkhead, action.getPriority());
+
+        final int effectiveTimeoutInMillis = (adaptiveTimeouts == null) ? timeoutInMillis
+                                                                        : adaptiveTimeouts.getTimeoutInMillis(action.getGroupName(),
+                                                                                                              timeoutInMillis);
+        // An adaptive timeout shorter than the requested one ends the call before the deadline it entered with.
+        final Deadline effectiveDeadline = (effectiveTimeoutInMillis < timeoutInMillis)
+                                           ? deadline.earlierOf(Deadline.afterMillis(effectiveTimeoutInMillis))
+                                           : deadline;
+        final DeferredExecution<T> deferredExecution = new DeferredExecution<>(action,
+                                                                               executorHolder.getFor(action.getGroupName()),
+                                                                               bulkhead,
+                                                                               rateLimiter,
+                                                                               effectiveDeadline,
+                                                                               hedger,
+                                                                               retrier,
+                                                                               batcher);
+
+        final long startTime = System.nanoTime();
+        final CompletableFuture<T> future = getCompletableFutureSafely(() -> circuitBreakerHolder.getFor(action.getGroupName())
+                                                                                                 .execute(deferredExecution,
+                                                                                                          circuitBreakerFallback,
+                                                                                                          effectiveTimeoutInMillis,
+                                                                                                          timeoutInMillis));
+        if (!deferredExecution.isStarted()) {
+            // The circuit breaker does not start the execution when the circuit is open.
+            deferredExecution.release();
+            rateLimiter.release();
+            return future;
+        }
+        // The returned future is a dependent stage of the execution, so its cancellation has to be passed on.
+        future.whenComplete((value, failure) -> {
+            if (failure instanceof CancellationException) {
+                deferredExecution.cancel();
+            }
+        });
+        if (adaptiveTimeouts != null) {
+            future.whenComplete((value, failure) -> recordLatency(action.getGroupName(), timeoutInMillis, startTime, failure));
+        }
+        return future;
+    }
 
-        return getCompletableFutureSafely(() -> circuitBreakerHolder.getFor(action.getGroupName())
-                                                                    .execute(deferredExecution,
-                                                                             action.getCircuitBreakerFallback(),
-                                                                             timeoutInMillis));
+    private void recordLatency(final String groupName,
+                               final int timeoutInMillis,
+                               final long startTime,
+                               final Throwable failure) {
+        if ((failure == null) || (ExceptionUnwrapper.INSTANCE.unwrapAsyncExceptions(failure) instanceof TimeoutException)) {
+            adaptiveTimeouts.record(groupName, timeoutInMillis, System.nanoTime() - startTime);
+        }
     }
 
-    private <T> Supplier<CompletableFuture<T>> wrapToDeferredExecution(final Callable<T> callable) {
-        return () -> getCompletableFutureSafely(() -> CompletableFuture.supplyAsync(Utils.singleton().convertToSupplier(callable),
-                                                                                    executor));
+    private static <T> CompletableFuture<T> reject(final Function<Throwable, T> circuitBreakerFallback,
+                                                   final RuntimeException rejection) {
+        return new CompletedFuture<>(() -> circuitBreakerFallback.apply(rejection));
     }
 
     private static <T> CompletableFuture<T> getCompletableFutureSafely(final Supplier<CompletableFuture<T>> completableFutureSupplier) {
@@ -46,4 +203,319 @@ class ExecutorService {
             return exceptionFuture;
         }
     }
+
+    /**
+     * <p>Single attempt of a call in an isolation thread.</p>
+     * <p>
+     * The bulkhead permit is released exactly once: by the call when it returns, or right away when the future completes
+     * before the call started, for example when it is cancelled or times out waiting for a thread. When the future completes
+     * while the call is running, the call is abandoned: its thread may be interrupted, which never leaks into the next task
+     * of the thread because the call waits for the interruption to finish and clears it before it returns.
+     * </p>
+     */
+    private static final class IsolatedCall {
+
+        private static final int ST_NEW = 0;
+        private static final int ST_RUNNING = 1;
+        private static final int ST_DONE = 2;
+        private static final int ST_ABANDONING = 3;
+        private static final int ST_ABANDONED = 4;
+        private static final AtomicIntegerFieldUpdater<IsolatedCall> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(IsolatedCall.class,
+                                                                                                                         "state");
+
+        private volatile int state = ST_NEW;
+        private volatile Thread thread;
+        // Published by the state transition to abandoned.
+        private boolean interrupted;
+
+        private boolean start() {
+            thread = Thread.currentThread();
+            return STATE_UPDATER.compareAndSet(this, ST_NEW, ST_RUNNING);
+        }
+
+        private void finish() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_RUNNING, ST_DONE)) {
+                awaitAbandoned();
+            }
+            thread = null;
+        }
+
+        /**
+         * Parks until the abandoning thread is done with the interruption and the hook, which unparks the call thread.
+         */
+        private void awaitAbandoned() {
+            boolean interruptedWhileWaiting = false;
+            while (state == ST_ABANDONING) {
+                // Parking returns right away while the thread is interrupted, which the abandoning thread may just have done.
+                interruptedWhileWaiting |= Thread.interrupted();
+                LockSupport.park(this);
+            }
+            if (interrupted) {
+                // Clears the interruption of the abandoned call, it is not meant for the next task of the thread.
+                Thread.interrupted();
+            } else if (interruptedWhileWaiting) {
+                // Restores an interruption which does not come from abandoning the call.
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean abandonBeforeStart() {
+            return STATE_UPDATER.compareAndSet(this, ST_NEW, ST_DONE);
+        }
+
+        private boolean abandonWhileRunning() {
+            return STATE_UPDATER.compareAndSet(this, ST_RUNNING, ST_ABANDONING);
+        }
+
+        /**
+         * @return true once the future completed while the call was running, after which it is not retried anymore.
+         */
+        private boolean isAbandoned() {
+            final int currentState = state;
+            return (currentState == ST_ABANDONING) || (currentState == ST_ABANDONED);
+        }
+
+        private void interrupt() {
+            interrupted = true;
+            thread.interrupt();
+        }
+
+        private void abandoned() {
+            final Thread callThread = thread;
+            state = ST_ABANDONED;
+            LockSupport.unpark(callThread);
+        }
+    }
+
+    /**
+     * Execution in the isolation thread which holds the bulkhead permit until the call returns.
+     */
+    private static final class DeferredExecution<T> implements Supplier<CompletableFuture<T>> {
+
+        private final String groupName;
+        private final Supplier<T> call;
+        private final Hedging hedging;
+        private final int maxRetries;
+        private final Executor executor;
+        private final Bulkhead bulkhead;
+        private final RateLimiter rateLimiter;
+        private final Deadline deadline;
+        private final Hedger hedger;
+        private final Retrier retrier;
+        private final Batcher batcher;
+        private final Batching<Object, T> batching;
+        private final Object batchKey;
+        private final Supplier<CompletionStage<T>> asyncCall;
+        private final boolean interruptOnTimeout;
+        private final Runnable cancellationHook;
+        private boolean started;
+        private CompletableFuture<T> execution;
+
+        private DeferredExecution(final Action<T> action,
+                                  final Executor executor,
+                                  final Bulkhead bulkhead,
+                                  final RateLimiter rateLimiter,
+                                  final Deadline deadline,
+                                  final Hedger hedger,
+                                  final Retrier retrier,
+                                  final Batcher batcher) {
+            groupName = action.getGroupName();
+            call = Utils.singleton().convertToSupplier(action.getCall());
+            hedging = action.getHedging().orElse(null);
+            maxRetries = action.getMaxRetries();
+            batching = action.getBatching().orElse(null);
+            batchKey = action.getBatchKey();
+            asyncCall = action.getAsyncCall().orElse(null);
+            interruptOnTimeout = action.isInterruptOnTimeout();
+            cancellationHook = action.getCancellationHook().orElse(null);
+            this.executor = executor;
+            this.bulkhead = bulkhead;
+            this.rateLimiter = rateLimiter;
+            this.deadline = deadline;
+            this.hedger = hedger;
+            this.retrier = retrier;
+            this.batcher = batcher;
+        }
+
+        @Override
+        public CompletableFuture<T> get() {
+            started = true;
+            if (batching != null) {
+                execution = getCompletableFutureSafely(this::supplyBatched);
+            } else if (hedging == null) {
+                execution = getCompletableFutureSafely(this::supplyCall);
+            } else {
+                execution = hedger.execute(groupName,
+                                           hedging,
+                                           () -> getCompletableFutureSafely(this::supplyCall),
+                                           this::supplyBackup,
+                                           getBackupExecutor());
+            }
+            return execution;
+        }
+
+        /**
+         * Completes the execution, which abandons the call the same way as a timeout does.
+         */
+        private void cancel() {
+            execution.cancel(DO_NOT_INTERRUPT);
+        }
+
+        private CompletableFuture<T> supplyCall() {
+            return (asyncCall == null) ? supplyAsync() : callAsync();
+        }
+
+        /**
+         * The asynchronous call holds the permit until its stage completes. The returned future is a separate one, so
+         * timeouts and cancellations do not complete the stage of the caller, they abandon it instead.
+         */
+        private CompletableFuture<T> callAsync() {
+            final long startTime = System.nanoTime();
+            final CompletableFuture<T> stage;
+            try {
+                stage = asyncCall.get().toCompletableFuture();
+            } catch (final RuntimeException e) {
+                bulkhead.release();
+                throw e;
+            }
+
+            final CompletableFuture<T> future = new CompletableFuture<>();
+            stage.whenComplete((value, failure) -> {
+                bulkhead.release(System.nanoTime() - startTime);
+                if (failure == null) {
+                    future.complete(value);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            });
+            future.whenComplete((value, failure) -> abandon(stage));
+            return future;
+        }
+
+        private void abandon(final CompletableFuture<T> stage) {
+            if (stage.isDone()) {
+                return;
+            }
+            try {
+                if (interruptOnTimeout) {
+                    stage.cancel(true);
+                }
+                if (cancellationHook != null) {
+                    cancellationHook.run();
+                }
+            } catch (final RuntimeException ignored) {
+                // A failing hook must not fail the thread completing the future, for example the timeout thread.
+            }
+        }
+
+        /**
+         * The item holds the permit until its batch call returns or it completes on its own, for example when it times out.
+         */
+        private CompletableFuture<T> supplyBatched() {
+            final long startTime = System.nanoTime();
+            final CompletableFuture<T> future;
+            try {
+                future = batcher.add(groupName, batching, batchKey, executor);
+            } catch (final RuntimeException e) {
+                bulkhead.release();
+                throw e;
+            }
+            future.whenComplete((value, failure) -> bulkhead.release(System.nanoTime() - startTime));
+            return future;
+        }
+
+        /**
+         * A backup call is a request of its own, so it takes a permit of the rate limiter as well as of the bulkhead.
+         */
+        private CompletableFuture<T> supplyBackup() {
+            if (!rateLimiter.tryAcquire()) {
+                return rejectBackup(new RateLimitExceededException(groupName));
+            }
+            if (!bulkhead.tryAcquire()) {
+                rateLimiter.release();
+                return rejectBackup(new BulkheadFullException(groupName));
+            }
+            return getCompletableFutureSafely(this::supplyCall);
+        }
+
+        /**
+         * Starting an isolated call only submits it to the executor, while an asynchronous call runs the code of the caller,
+         * which must not run on the thread firing the hedges.
+         */
+        private Executor getBackupExecutor() {
+            return (asyncCall == null) ? DIRECT_EXECUTOR : getExecutor();
+        }
+
+        private CompletableFuture<T> rejectBackup(final RuntimeException rejection) {
+            final CompletableFuture<T> rejectedFuture = new CompletableFuture<>();
+            rejectedFuture.completeExceptionally(rejection);
+            return rejectedFuture;
+        }
+
+        private CompletableFuture<T> supplyAsync() {
+            final IsolatedCall isolatedCall = new IsolatedCall();
+            try {
+                final CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> callHoldingPermit(isolatedCall), getExecutor());
+                future.whenComplete((value, failure) -> abandon(isolatedCall));
+                return future;
+            } catch (final RuntimeException e) {
+                abandon(isolatedCall);
+                throw e;
+            }
+        }
+
+        private Executor getExecutor() {
+            if (executor instanceof EarliestDeadlineFirstExecutor) {
+                final Deadline callDeadline = deadline;
+                return task -> ((EarliestDeadlineFirstExecutor) executor).execute(task, callDeadline);
+            }
+            return executor;
+        }
+
+        private T callHoldingPermit(final IsolatedCall isolatedCall) {
+            if (!isolatedCall.start()) {
+                // The future completed while the call was starting, its permit is already released.
+                throw new CancellationException();
+            }
+            final long startTime = System.nanoTime();
+            final Deadline previousDeadline = DeadlineContext.set(deadline);
+            try {
+                return retrier.call(groupName, maxRetries, deadline, isolatedCall::isAbandoned, rateLimiter, call);
+            } finally {
+                DeadlineContext.restore(previousDeadline);
+                isolatedCall.finish();
+                bulkhead.release(System.nanoTime() - startTime);
+            }
+        }
+
+        /**
+         * Invoked once the future completed, which is after the call returned unless the future timed out or was cancelled.
+         */
+        private void abandon(final IsolatedCall isolatedCall) {
+            if (isolatedCall.abandonBeforeStart()) {
+                bulkhead.release();
+            } else if (isolatedCall.abandonWhileRunning()) {
+                try {
+                    if (interruptOnTimeout) {
+                        isolatedCall.interrupt();
+                    }
+                    if (cancellationHook != null) {
+                        cancellationHook.run();
+                    }
+                } catch (final RuntimeException ignored) {
+                    // A failing hook must not fail the thread completing the future, for example the timeout thread.
+                } finally {
+                    isolatedCall.abandoned();
+                }
+            }
+        }
+
+        private boolean isStarted() {
+            return started;
+        }
+
+        private void release() {
+            bulkhead.release();
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.smaato.switchgear;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import com.smaato.switchgear.model.Outcome;
+
+/**
+ * Accumulates outcomes in completion order until the completion condition is met or all the expected outcomes are there.
+ */
+class QuorumCollector<T> {
+
+    private final Predicate<Collection<Outcome<T>>> completionCondition;
+    private final int expectedOutcomes;
+    private final List<Outcome<T>> outcomes;
+    // Handed to the completion condition, which must not modify the outcomes.
+    private final Collection<Outcome<T>> outcomesView;
+    private final CompletableFuture<Collection<Outcome<T>>> result = new CompletableFuture<>();
+    // Not synchronized, so that threads waiting for the lock are not pinned when running on virtual threads.
+    private final Lock lock = new ReentrantLock();
+
+    QuorumCollector(final Predicate<Collection<Outcome<T>>> completionCondition,
+                    final int expectedOutcomes) {
+        this.completionCondition = completionCondition;
+        this.expectedOutcomes = expectedOutcomes;
+        outcomes = new ArrayList<>(expectedOutcomes);
+        outcomesView = Collections.unmodifiableList(outcomes);
+        if (expectedOutcomes == 0) {
+            result.complete(new ArrayList<>(outcomes));
+        }
+    }
+
+    void add(final Outcome<T> outcome) {
+        lock.lock();
+        try {
+            if (result.isDone()) {
+                return;
+            }
+            outcomes.add(outcome);
+            if ((outcomes.size() == expectedOutcomes) || completionCondition.test(outcomesView)) {
+                result.complete(new ArrayList<>(outcomes));
+            }
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    CompletableFuture<Collection<Outcome<T>>> getResult() {
+        return result;
+    }
+}
@@ -1,12 +1,14 @@
 package com.smaato.switchgear;
 
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.Function;
 
 import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Deadline;
 import com.smaato.switchgear.model.Outcome;
 
 class ResultCollector {
@@ -18,18 +20,29 @@ class ResultCollector {
 
     <T> Outcome<T> getOutcome(final Action<T> action,
                               final Future<T> future,
-                              final int timeoutInMillis) {
+                              final Deadline deadline) {
         try {
-            final T executionResult = future.get(timeoutInMillis, MILLISECONDS);
+            final T executionResult = future.get(deadline.getRemainingInNanos(), NANOSECONDS);
             return new Outcome<>(executionResult);
         } catch (final Exception e) {
-            final Throwable unwrapedFailure = exceptionUnwrapper.unwrapAsyncExceptions(e);
-            return action.getFailureFallback()
-                         .map(f -> getOutcomeFromFallback(f, unwrapedFailure))
-                         .orElse(new Outcome<>(unwrapedFailure));
+            return getOutcomeFromFailure(action, e);
         }
     }
 
+    <T> CompletableFuture<Outcome<T>> getOutcomeAsync(final Action<T> action,
+                                                      final CompletableFuture<T> future) {
+        return future.handle((executionResult, failure) -> (failure == null) ? new Outcome<>(executionResult)
+                                                                              : getOutcomeFromFailure(action, failure));
+    }
+
+    private <T> Outcome<T> getOutcomeFromFailure(final Action<T> action,
+                                                 final Throwable failure) {
+        final Throwable unwrapedFailure = exceptionUnwrapper.unwrapAsyncExceptions(failure);
+        return action.getFailureFallback()
+                     .map(f -> getOutcomeFromFallback(f, unwrapedFailure))
+                     .orElse(new Outcome<>(unwrapedFailure));
+    }
+
     private static <T> Outcome<T> getOutcomeFromFallback(final Function<Throwable, T> fallback,
                                                          final Throwable failure) {
         final T fallbackResult;
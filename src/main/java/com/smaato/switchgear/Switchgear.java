@@ -4,25 +4,43 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
+import com.smaato.switchgear.circuitbreaker.HashedWheelTimer;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Deadline;
 import com.smaato.switchgear.model.Outcome;
 
-public class Switchgear {
+public class Switchgear implements AutoCloseable {
+
+    private static final String DEADLINE_EXCEEDED_ERROR = "Deadline exceeded before execution";
+    private static final boolean DO_NOT_INTERRUPT = false;
 
     private final ExecutorService executorService;
     private final ResultCollector resultCollector;
     private final int defaultTimeoutInMillis;
+    private final HashedWheelTimer timeoutTimer;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
+    /**
+     * @param timeoutTimer timing wheel retained by this instance, or null if timeouts are scheduled on the scheduled executor.
+     */
     Switchgear(final ExecutorService executorService,
                final ResultCollector resultCollector,
-               final int defaultTimeoutInMillis) {
+               final int defaultTimeoutInMillis,
+               final HashedWheelTimer timeoutTimer) {
         this.executorService = executorService;
         this.resultCollector = resultCollector;
         this.defaultTimeoutInMillis = defaultTimeoutInMillis;
+        this.timeoutTimer = timeoutTimer;
     }
 
     /**
@@ -36,19 +54,33 @@ public class Switchgear {
         return SwitchgearFactory.INSTANCE.createFrom(configuration);
     }
 
+    /**
+     * <p>Deadline of the isolated call executed by the current thread.</p>
+     * <p>Executions started within an isolated call inherit its deadline: their timeout is limited by the time remaining
+     * until the deadline and they are not started at all once it has passed. It can be used to limit calls which are not
+     * executed by Switchgear as well.</p>
+     *
+     * @return deadline of the current isolated call, or empty if the current thread does not execute one.
+     */
+    public static Optional<Deadline> getCurrentDeadline() {
+        return Optional.ofNullable(DeadlineContext.get());
+    }
+
     /**
      * <p>Execute {@link Action#call} in a separate thread. Execution takes not more then timeout set for the {@link Action}.</p>
      *
      * @param action {@link Action} for isolated execution
      * @return {@link Outcome} with the result of execution or failure
      * @throws NullPointerException if action is null.
+     * @see #getCurrentDeadline()
      */
     public <T> Outcome<T> execute(final Action<T> action) {
         requireNonNull(action);
 
-        final int timeoutInMillis = getTimeoutInMillis(action);
-        final Future<T> future = executorService.execute(action, timeoutInMillis);
-        return resultCollector.getOutcome(action, future, timeoutInMillis);
+        final int timeoutInMillis = getTimeoutInMillis(action, null);
+        final Deadline deadline = Deadline.afterMillis(timeoutInMillis);
+        final Future<T> future = executeWithin(action, timeoutInMillis, deadline);
+        return resultCollector.getOutcome(action, future, deadline);
     }
 
     /**
@@ -62,23 +94,236 @@ public class Switchgear {
     public <T> Collection<Outcome<T>> executeInParallel(final Collection<Action<T>> actions) {
         requireNonNull(actions);
 
-        final Map<Action<T>, Future<T>> futures = new HashMap<>(actions.size());
+        return executeInParallelWithin(actions, null);
+    }
+
+    /**
+     * <p>Execute {@link Action#call} in a separate thread without blocking the caller.</p>
+     * <p>The returned stage completes with the same {@link Outcome} as {@link #execute(Action)} would return, including
+     * circuit breaker and failure fallbacks. The stage is completed by the thread that completes the execution, which is
+     * either the isolation thread or the timeout handler thread, hence dependent stages should not block.</p>
+     *
+     * @param action {@link Action} for isolated execution
+     * @return {@link CompletionStage} completed with the {@link Outcome} of execution or failure
+     * @throws NullPointerException if action is null.
+     */
+    public <T> CompletionStage<Outcome<T>> executeAsync(final Action<T> action) {
+        requireNonNull(action);
+
+        final CompletableFuture<T> future = executeWithin(action, getTimeoutInMillis(action, null));
+        return resultCollector.getOutcomeAsync(action, future);
+    }
+
+    /**
+     * <p>Execute all provided actions in parallel, all of them sharing one absolute deadline.</p>
+     * <p>Every {@link Action} is limited by its own timeout and additionally by the time remaining until the deadline, when
+     * the deadline passes the call returns right away. Actions which did not complete by then result in an {@link Outcome}
+     * failed with {@link TimeoutException}, subject to their failure fallback. Actions are not started at all once the
+     * deadline has passed, so the total time of this call does not exceed the deadline regardless of the number of actions.</p>
+     *
+     * @param actions collection of {@link Action}s for parallel execution
+     * @param deadline absolute deadline for all the executions
+     * @return outcomes in the iteration order of the given collection
+     * @throws NullPointerException if actions collection or deadline is null or any individual action is null
+     */
+    public <T> Collection<Outcome<T>> executeInParallel(final Collection<Action<T>> actions,
+                                                        final Deadline deadline) {
+        requireNonNull(actions);
+        requireNonNull(deadline);
+
+        return executeInParallelWithin(actions, deadline);
+    }
+
+    private <T> Collection<Outcome<T>> executeInParallelWithin(final Collection<Action<T>> actions,
+                                                               final Deadline deadline) {
+        final List<Deadline> deadlines = new ArrayList<>(actions.size());
+        final List<Future<T>> futures = new ArrayList<>(actions.size());
         for (final Action<T> action : actions) {
-            final int timeoutInMillis = getTimeoutInMillis(action);
-            futures.put(action, executorService.execute(action, timeoutInMillis));
+            final int timeoutInMillis = getTimeoutInMillis(action, deadline);
+            final Deadline actionDeadline = Deadline.afterMillis(timeoutInMillis);
+            deadlines.add(actionDeadline);
+            futures.add(executeWithin(action, timeoutInMillis, actionDeadline));
         }
 
         final Collection<Outcome<T>> outcomes = new ArrayList<>(actions.size());
+        int index = 0;
         for (final Action<T> action : actions) {
-            final Future<T> future = futures.get(action);
-            final int timeoutInMillis = getTimeoutInMillis(action);
-            final Outcome<T> outcome = resultCollector.getOutcome(action, future, timeoutInMillis);
-            outcomes.add(outcome);
+            outcomes.add(resultCollector.getOutcome(action, futures.get(index), deadlines.get(index)));
+            index++;
         }
         return outcomes;
     }
 
-    private <T> Integer getTimeoutInMillis(final Action<T> action) {
-        return action.getTimeoutInMillis().orElse(defaultTimeoutInMillis);
+    /**
+     * <p>Execute all provided actions in parallel until the given number of them succeeded. Every {@link Action} is using its
+     * timeout to limit the execution time.</p>
+     * <p>An {@link Outcome} without failure counts as success, including outcomes provided by fallbacks.</p>
+     *
+     * @param actions collection of {@link Action}s for parallel execution
+     * @param successes number of successful outcomes to wait for
+     * @param cancelRemaining whether to cancel the executions which are not complete when the call returns
+     * @return outcomes completed until the call returned, in completion order
+     * @throws NullPointerException if actions collection is null or any individual action is null
+     * @throws IllegalArgumentException if successes is not positive
+     * @see #executeInParallelUntil(Collection, Predicate, boolean)
+     */
+    public <T> Collection<Outcome<T>> executeInParallelUntilSuccesses(final Collection<Action<T>> actions,
+                                                                       final int successes,
+                                                                       final boolean cancelRemaining) {
+        if (successes <= 0) {
+            throw new IllegalArgumentException();
+        }
+        return executeInParallelUntil(actions, outcomes -> countSuccesses(outcomes) >= successes, cancelRemaining);
+    }
+
+    /**
+     * <p>Execute all provided actions in parallel until the completion condition is met by the outcomes completed so far.
+     * Every {@link Action} is using its timeout to limit the execution time.</p>
+     * <p>The condition is tested with the completed outcomes every time an execution completes, and the call returns right
+     * away once it is met or all the executions completed. Remaining executions are either left running in the background
+     * or cancelled, which abandons them the same way as a timeout: a running call is interrupted or its cancellation hook
+     * is run as configured by its {@link Action}. Executions shared by coalesced or cached actions are not cancelled.</p>
+     * <p>The outcomes handed to the completion condition must not be modified.</p>
+     *
+     * @param actions collection of {@link Action}s for parallel execution
+     * @param completionCondition tested with the outcomes completed so far, in completion order
+     * @param cancelRemaining whether to cancel the executions which are not complete when the call returns
+     * @return outcomes completed until the call returned, in completion order
+     * @throws NullPointerException if actions collection or completionCondition is null or any individual action is null
+     */
+    public <T> Collection<Outcome<T>> executeInParallelUntil(final Collection<Action<T>> actions,
+                                                             final Predicate<Collection<Outcome<T>>> completionCondition,
+                                                             final boolean cancelRemaining) {
+        requireNonNull(actions);
+        requireNonNull(completionCondition);
+
+        final QuorumCollector<T> quorumCollector = new QuorumCollector<>(completionCondition, actions.size());
+        final List<CompletableFuture<T>> futures = new ArrayList<>(actions.size());
+        for (final Action<T> action : actions) {
+            requireNonNull(action);
+            final CompletableFuture<T> future = executeWithin(action, getTimeoutInMillis(action, null));
+            futures.add(future);
+            resultCollector.getOutcomeAsync(action, future).thenAccept(quorumCollector::add);
+        }
+
+        final Collection<Outcome<T>> outcomes = quorumCollector.getResult().join();
+        if (cancelRemaining) {
+            for (final CompletableFuture<T> future : futures) {
+                future.cancel(DO_NOT_INTERRUPT);
+            }
+        }
+        return outcomes;
+    }
+
+    private static <T> long countSuccesses(final Collection<Outcome<T>> outcomes) {
+        return outcomes.stream()
+                       .filter(outcome -> !outcome.getFailure().isPresent())
+                       .count();
+    }
+
+    private <T> CompletableFuture<T> executeWithin(final Action<T> action,
+                                                   final int timeoutInMillis) {
+        return executeWithin(action, timeoutInMillis, Deadline.afterMillis(timeoutInMillis));
+    }
+
+    /**
+     * @param deadline of the execution, the timeout is the time remaining until it when the execution enters.
+     */
+    private <T> CompletableFuture<T> executeWithin(final Action<T> action,
+                                                   final int timeoutInMillis,
+                                                   final Deadline deadline) {
+        if (timeoutInMillis == 0) {
+            final CompletableFuture<T> timedOutFuture = new CompletableFuture<>();
+            timedOutFuture.completeExceptionally(new TimeoutException(DEADLINE_EXCEEDED_ERROR));
+            return timedOutFuture;
+        }
+        return executorService.execute(action, timeoutInMillis, deadline);
+    }
+
+    /**
+     * <p>Execute all provided actions in parallel without blocking the caller. Every {@link Action} is using its timeout
+     * to limit the execution time.</p>
+     * <p>The returned stage completes once all the actions have an {@link Outcome}, the outcomes are in the iteration
+     * order of the given collection.</p>
+     *
+     * @param actions collection of {@link Action}s for parallel execution
+     * @return {@link CompletionStage} completed with the {@link Outcome}s of all actions
+     * @throws NullPointerException if actions collection is null or any individual action is null
+     */
+    public <T> CompletionStage<Collection<Outcome<T>>> executeInParallelAsync(final Collection<Action<T>> actions) {
+        requireNonNull(actions);
+
+        final List<CompletableFuture<Outcome<T>>> outcomeFutures = new ArrayList<>(actions.size());
+        for (final Action<T> action : actions) {
+            outcomeFutures.add(executeAsync(action).toCompletableFuture());
+        }
+
+        return CompletableFuture.allOf(outcomeFutures.toArray(new CompletableFuture<?>[0]))
+                                .thenApply(ignored -> {
+                                    final Collection<Outcome<T>> outcomes = new ArrayList<>(outcomeFutures.size());
+                                    for (final CompletableFuture<Outcome<T>> outcomeFuture : outcomeFutures) {
+                                        outcomes.add(outcomeFuture.join());
+                                    }
+                                    return outcomes;
+                                });
+    }
+
+    /**
+     * <p>Execute all provided actions in parallel and hand over every {@link Outcome} as soon as its execution completes.
+     * Every {@link Action} is using its timeout to limit the execution time.</p>
+     * <p>The returned iterator yields exactly one outcome per action, in completion order. {@link Iterator#next()} blocks
+     * until the next outcome is available, so fast outcomes can be processed while slow executions are still running.
+     * The iterator is meant to be consumed by a single thread.</p>
+     *
+     * @param actions collection of {@link Action}s for parallel execution
+     * @return iterator over the {@link Outcome}s in completion order
+     * @throws NullPointerException if actions collection is null or any individual action is null
+     */
+    public <T> Iterator<Outcome<T>> executeInParallelInCompletionOrder(final Collection<Action<T>> actions) {
+        requireNonNull(actions);
+
+        final CompletionOrderIterator<T> outcomes = new CompletionOrderIterator<>();
+        for (final Action<T> action : actions) {
+            outcomes.add(executeAsync(action));
+        }
+        return outcomes;
+    }
+
+    /**
+     * <p>Shuts down the dedicated thread pools of the groups. Calls already queued are still executed, later calls of these
+     * groups are rejected.</p>
+     * <p>Releases the timing wheel of the {@link Configuration}, which is stopped once all instances created from the
+     * configuration are closed. The timeouts of the calls in flight still fire.</p>
+     * <p>The executors of the {@link Configuration} are not shut down, as they are provided by the caller or may be shared
+     * with other instances created from the same configuration.</p>
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        executorService.shutdown();
+        if (timeoutTimer != null) {
+            timeoutTimer.release();
+        }
+    }
+
+    /**
+     * @param deadline null if the action is only limited by its own timeout and the deadline of the current thread.
+     * @return timeout of the action, limited by the time remaining until the given deadline and the deadline of the current
+     * thread, zero once one of them has passed.
+     */
+    private <T> int getTimeoutInMillis(final Action<T> action,
+                                       final Deadline deadline) {
+        final int timeoutInMillis = action.getTimeoutInMillis().orElse(defaultTimeoutInMillis);
+        final Deadline inheritedDeadline = DeadlineContext.get();
+        Deadline earliestDeadline = deadline;
+        if (inheritedDeadline != null) {
+            earliestDeadline = (deadline == null) ? inheritedDeadline : deadline.earlierOf(inheritedDeadline);
+        }
+        if (earliestDeadline == null) {
+            return timeoutInMillis;
+        }
+        return Math.min(timeoutInMillis, earliestDeadline.getRemainingInMillis());
     }
 }
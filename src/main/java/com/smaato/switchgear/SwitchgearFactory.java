@@ -1,12 +1,39 @@
 package com.smaato.switchgear;
 
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
+import com.smaato.switchgear.batching.Batcher;
+import com.smaato.switchgear.cache.DummyResultCache;
+import com.smaato.switchgear.cache.ResultCache;
+import com.smaato.switchgear.cache.ResultCacheHolder;
+import com.smaato.switchgear.cache.ResultCacheSize;
+import com.smaato.switchgear.cache.TtlResultCache;
 import com.smaato.switchgear.circuitbreaker.CircuitBreaker;
 import com.smaato.switchgear.circuitbreaker.CircuitBreakerFactory;
 import com.smaato.switchgear.circuitbreaker.CircuitBreakerHolder;
-import com.smaato.switchgear.circuitbreaker.DummyCircuitBreaker;
+import com.smaato.switchgear.circuitbreaker.HashedWheelTimer;
+import com.smaato.switchgear.coalescing.Coalescer;
 import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
+import com.smaato.switchgear.hedging.Hedger;
+import com.smaato.switchgear.isolation.AdaptiveBulkhead;
+import com.smaato.switchgear.isolation.Bulkhead;
+import com.smaato.switchgear.isolation.BulkheadHolder;
+import com.smaato.switchgear.isolation.DummyBulkhead;
+import com.smaato.switchgear.isolation.ExecutorHolder;
+import com.smaato.switchgear.isolation.LoadShedder;
+import com.smaato.switchgear.isolation.SemaphoreBulkhead;
+import com.smaato.switchgear.isolation.ThreadPoolFactory;
+import com.smaato.switchgear.isolation.ThreadPoolSize;
+import com.smaato.switchgear.latency.AdaptiveTimeouts;
+import com.smaato.switchgear.latency.LatencyHistogram;
+import com.smaato.switchgear.latency.LatencyHistogramHolder;
+import com.smaato.switchgear.ratelimit.DummyRateLimiter;
+import com.smaato.switchgear.ratelimit.GcraRateLimiter;
+import com.smaato.switchgear.ratelimit.RateLimit;
+import com.smaato.switchgear.ratelimit.RateLimiter;
+import com.smaato.switchgear.ratelimit.RateLimiterHolder;
+import com.smaato.switchgear.retry.Retrier;
 
 enum SwitchgearFactory {
 
@@ -14,18 +41,107 @@ enum SwitchgearFactory {
 
     Switchgear createFrom(final Configuration configuration) {
         final CircuitBreakerHolder circuitBreakerHolder = new CircuitBreakerHolder(getCircuitBreakerSupplier(configuration));
-        final ExecutorService executorService = new ExecutorService(configuration.getExecutor(), circuitBreakerHolder);
+        final BulkheadHolder bulkheadHolder = new BulkheadHolder(groupName -> getBulkhead(configuration, groupName));
+        final RateLimiterHolder rateLimiterHolder = new RateLimiterHolder(groupName -> getRateLimiter(configuration, groupName));
+        final ExecutorHolder executorHolder = new ExecutorHolder(groupName -> getDedicatedExecutor(configuration, groupName),
+                                                                 groupName -> configuration.getExecutor());
+        final LatencyHistogramHolder latencyHistogramHolder = new LatencyHistogramHolder(groupName -> new LatencyHistogram());
+        final Hedger hedger = new Hedger(latencyHistogramHolder,
+                                         configuration.getHedgeBudgetPercentage(),
+                                         configuration.getTimeoutTimer(),
+                                         configuration.getScheduledExecutor());
+        final Retrier retrier = new Retrier(configuration.getRetryBudgetPercentage());
+        final ExecutorService executorService = new ExecutorService(executorHolder,
+                                                                    circuitBreakerHolder,
+                                                                    bulkheadHolder,
+                                                                    rateLimiterHolder,
+                                                                    getLoadShedder(configuration),
+                                                                    hedger,
+                                                                    retrier,
+                                                                    new Coalescer(CircuitBreakerFactory.newDummyInstance(configuration)),
+                                                                    new Batcher(configuration.getScheduledExecutor()),
+                                                                    new ResultCacheHolder(groupName -> getResultCache(configuration, groupName)),
+                                                                    getAdaptiveTimeouts(configuration));
         final ResultCollector resultCollector = new ResultCollector(ExceptionUnwrapper.INSTANCE);
 
+        final HashedWheelTimer timeoutTimer = configuration.getTimeoutTimer();
+        if (timeoutTimer != null) {
+            timeoutTimer.retain();
+        }
+
         return new Switchgear(executorService,
                               resultCollector,
-                              configuration.getTimeoutInMillis());
+                              configuration.getTimeoutInMillis(),
+                              timeoutTimer);
     }
 
     private static Supplier<CircuitBreaker> getCircuitBreakerSupplier(final Configuration configuration) {
         if (configuration.isCircuitBreakerEnabled()) {
             return () -> CircuitBreakerFactory.newInstance(configuration);
         }
-        return DummyCircuitBreaker::new;
+        return () -> CircuitBreakerFactory.newDummyInstance(configuration);
+    }
+
+    /**
+     * @return thread pool owned by the group, or null if the group shares the executor of the configuration.
+     */
+    private static Executor getDedicatedExecutor(final Configuration configuration,
+                                                 final String groupName) {
+        final ThreadPoolSize threadPoolSize = configuration.getThreadPoolSizesByGroup()
+                                                           .getOrDefault(groupName, configuration.getThreadPoolSizePerGroup());
+        if (threadPoolSize == null) {
+            return null;
+        }
+        if (configuration.isEarliestDeadlineFirst()) {
+            return ThreadPoolFactory.newEarliestDeadlineFirstInstance(groupName, threadPoolSize);
+        }
+        return ThreadPoolFactory.newInstance(groupName, threadPoolSize);
+    }
+
+    private static LoadShedder getLoadShedder(final Configuration configuration) {
+        if (configuration.getMaxInFlightCalls() == null) {
+            return null;
+        }
+        return new LoadShedder(configuration.getMaxInFlightCalls());
+    }
+
+    private static AdaptiveTimeouts getAdaptiveTimeouts(final Configuration configuration) {
+        if (configuration.getAdaptiveTimeoutPolicy() == null) {
+            return null;
+        }
+        return new AdaptiveTimeouts(configuration.getAdaptiveTimeoutPolicy(), CircuitBreakerFactory.newBucketRangeFinder(configuration));
+    }
+
+    private static ResultCache getResultCache(final Configuration configuration,
+                                              final String groupName) {
+        final ResultCacheSize resultCacheSize = configuration.getResultCacheSizesByGroup()
+                                                             .getOrDefault(groupName, configuration.getResultCacheSizePerGroup());
+        if (resultCacheSize == null) {
+            return DummyResultCache.INSTANCE;
+        }
+        return new TtlResultCache(resultCacheSize);
+    }
+
+    private static RateLimiter getRateLimiter(final Configuration configuration,
+                                              final String groupName) {
+        final RateLimit rateLimit = configuration.getRateLimitsByGroup()
+                                                 .getOrDefault(groupName, configuration.getRateLimitPerGroup());
+        if (rateLimit == null) {
+            return DummyRateLimiter.INSTANCE;
+        }
+        return new GcraRateLimiter(rateLimit);
+    }
+
+    private static Bulkhead getBulkhead(final Configuration configuration,
+                                        final String groupName) {
+        final Integer maxConcurrentCalls = configuration.getMaxConcurrentCallsByGroup()
+                                                        .getOrDefault(groupName, configuration.getMaxConcurrentCallsPerGroup());
+        if (maxConcurrentCalls != null) {
+            return new SemaphoreBulkhead(maxConcurrentCalls);
+        }
+        if (configuration.getAdaptiveConcurrencyLimit() != null) {
+            return new AdaptiveBulkhead(configuration.getAdaptiveConcurrencyLimit());
+        }
+        return DummyBulkhead.INSTANCE;
     }
 }
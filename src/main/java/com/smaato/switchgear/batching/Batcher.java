@@ -0,0 +1,214 @@
+package com.smaato.switchgear.batching;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.smaato.switchgear.model.Batching;
+
+/**
+ * <p>Merges the items of a group with the same {@link Batching} into batches executed by one call.</p>
+ * <p>
+ * A batch is open until it is full or its first item waited for the max delay of the batching. Every item has its own
+ * future: items which completed before their batch was executed, for example because they timed out, are left out of the
+ * batch call, and a batch is not executed at all when none of its items is left.
+ * </p>
+ * <p>
+ * The items of an open batch are accumulated per batching, the accumulator is removed once its batch is executed, so that
+ * batchings which are created per call are not retained.
+ * </p>
+ */
+public class Batcher {
+
+    private static final boolean DO_NOT_INTERRUPT = false;
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, Map<Batching<?, ?>, Accumulator<?, ?>>> accumulatorsByGroup = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param scheduler executes the batches which are not full after the max delay.
+     */
+    public Batcher(final ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param executor isolation executor of the group, executes the batch call.
+     * @return future of the item completed with its result of the batch call.
+     * @throws NullPointerException if groupName, batching or key is null.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> CompletableFuture<T> add(final String groupName,
+                                           final Batching<K, T> batching,
+                                           final K key,
+                                           final Executor executor) {
+        Objects.requireNonNull(groupName);
+        Objects.requireNonNull(batching);
+        Objects.requireNonNull(key);
+
+        final Map<Batching<?, ?>, Accumulator<?, ?>> accumulators = accumulatorsByGroup.computeIfAbsent(groupName,
+                                                                                                       group -> new ConcurrentHashMap<>());
+        while (true) {
+            final Accumulator<K, T> accumulator = (Accumulator<K, T>) accumulators.computeIfAbsent(batching,
+                                                                                                   b -> new Accumulator<>(b, accumulators));
+            final CompletableFuture<T> item = accumulator.add(key, executor, scheduler);
+            if (item != null) {
+                return item;
+            }
+            // The batch of the accumulator was executed, removes it on behalf of the executing thread if it did not yet.
+            accumulators.remove(batching, accumulator);
+        }
+    }
+
+    int getAccumulatorCount(final String groupName) {
+        final Map<Batching<?, ?>, Accumulator<?, ?>> accumulators = accumulatorsByGroup.get(groupName);
+        return (accumulators == null) ? 0 : accumulators.size();
+    }
+
+    private static final class Accumulator<K, T> {
+
+        private final Batching<K, T> batching;
+        private final Map<Batching<?, ?>, Accumulator<?, ?>> accumulators;
+        private final Lock lock = new ReentrantLock();
+        private Batch<K, T> openBatch;
+        // Set under the lock once the batch is executed, no item is added to the accumulator afterwards.
+        private boolean retired;
+
+        @SuppressWarnings("unchecked")
+        private Accumulator(final Batching<?, ?> batching,
+                            final Map<Batching<?, ?>, Accumulator<?, ?>> accumulators) {
+            this.batching = (Batching<K, T>) batching;
+            this.accumulators = accumulators;
+        }
+
+        /**
+         * @return future of the item, or null if the accumulator is retired and the item has to be added to a new one.
+         */
+        private CompletableFuture<T> add(final K key,
+                                         final Executor executor,
+                                         final ScheduledExecutorService scheduler) {
+            final CompletableFuture<T> item = new CompletableFuture<>();
+            final Batch<K, T> fullBatch;
+            lock.lock();
+            try {
+                if (retired) {
+                    return null;
+                }
+                if (openBatch == null) {
+                    final Batch<K, T> batch = new Batch<>(batching, executor);
+                    batch.delayedExecution = scheduler.schedule(() -> executeWhenDue(batch), batching.getMaxDelayInMicros(), MICROSECONDS);
+                    openBatch = batch;
+                }
+                openBatch.add(key, item);
+                fullBatch = openBatch.isFull() ? openBatch : null;
+                if (fullBatch != null) {
+                    openBatch = null;
+                    retired = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (fullBatch != null) {
+                accumulators.remove(batching, this);
+                fullBatch.delayedExecution.cancel(DO_NOT_INTERRUPT);
+                fullBatch.execute();
+            }
+            return item;
+        }
+
+        private void executeWhenDue(final Batch<K, T> batch) {
+            lock.lock();
+            try {
+                if (openBatch != batch) {
+                    // The batch was full and executed already.
+                    return;
+                }
+                openBatch = null;
+                retired = true;
+            } finally {
+                lock.unlock();
+            }
+            accumulators.remove(batching, this);
+            batch.execute();
+        }
+    }
+
+    private static final class Batch<K, T> {
+
+        private final Batching<K, T> batching;
+        private final Executor executor;
+        private final Map<K, List<CompletableFuture<T>>> itemsByKey = new LinkedHashMap<>();
+        private int size;
+        // Written under the lock of the accumulator before the batch can be executed.
+        private ScheduledFuture<?> delayedExecution;
+
+        private Batch(final Batching<K, T> batching,
+                      final Executor executor) {
+            this.batching = batching;
+            this.executor = executor;
+        }
+
+        private void add(final K key,
+                         final CompletableFuture<T> item) {
+            itemsByKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(item);
+            size++;
+        }
+
+        private boolean isFull() {
+            return size >= batching.getMaxBatchSize();
+        }
+
+        private void execute() {
+            try {
+                executor.execute(this::call);
+            } catch (final RuntimeException e) {
+                failAll(e);
+            }
+        }
+
+        private void call() {
+            itemsByKey.values().removeIf(items -> {
+                items.removeIf(CompletableFuture::isDone);
+                return items.isEmpty();
+            });
+            if (itemsByKey.isEmpty()) {
+                return;
+            }
+
+            final Map<K, T> results;
+            try {
+                results = batching.getBatchCall().call(new ArrayList<>(itemsByKey.keySet()));
+            } catch (final Exception e) {
+                failAll(e);
+                return;
+            }
+            itemsByKey.forEach((key, items) -> {
+                final boolean resultPresent = (results != null) && results.containsKey(key);
+                for (final CompletableFuture<T> item : items) {
+                    if (resultPresent) {
+                        item.complete(results.get(key));
+                    } else {
+                        item.completeExceptionally(new MissingBatchResultException(key));
+                    }
+                }
+            });
+        }
+
+        private void failAll(final Throwable failure) {
+            itemsByKey.values().forEach(items -> items.forEach(item -> item.completeExceptionally(failure)));
+        }
+    }
+}
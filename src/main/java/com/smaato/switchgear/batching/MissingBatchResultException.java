@@ -0,0 +1,12 @@
+package com.smaato.switchgear.batching;
+
+public class MissingBatchResultException extends RuntimeException {
+
+    private static final long serialVersionUID = 7309825541260937416L;
+
+    private static final String MISSING_RESULT_ERROR = "Batch call returned no result for key '%s'";
+
+    public MissingBatchResultException(final Object key) {
+        super(String.format(MISSING_RESULT_ERROR, key));
+    }
+}
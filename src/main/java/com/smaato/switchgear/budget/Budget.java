@@ -0,0 +1,57 @@
+package com.smaato.switchgear.budget;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Lock-free token bucket limiting extra calls, like hedges or retries, to a percentage of the regular calls.</p>
+ * <p>
+ * Every regular call deposits the percentage of a token, every extra call withdraws a whole token. The balance is capped,
+ * so extra calls saved up during quiet periods cannot burst.
+ * </p>
+ */
+public class Budget {
+
+    private static final long UNITS_PER_TOKEN = 100;
+
+    private final long depositInUnits;
+    private final long maxUnits;
+    private final AtomicLong units = new AtomicLong(0);
+
+    /**
+     * @param percentage of a token deposited by every regular call, in the range of [1, 100].
+     * @param maxTokens max balance of tokens.
+     * @throws IllegalArgumentException if percentage is not in the range of [1, 100] or maxTokens less or equal to zero.
+     */
+    public Budget(final int percentage,
+                  final int maxTokens) {
+        if ((percentage < 1) || (percentage > 100) || (maxTokens <= 0)) {
+            throw new IllegalArgumentException();
+        }
+        depositInUnits = percentage;
+        maxUnits = maxTokens * UNITS_PER_TOKEN;
+    }
+
+    public void deposit() {
+        long current = units.get();
+        while (current < maxUnits) {
+            if (units.compareAndSet(current, Math.min(current + depositInUnits, maxUnits))) {
+                return;
+            }
+            current = units.get();
+        }
+    }
+
+    /**
+     * @return true if a token was withdrawn and the extra call is allowed.
+     */
+    public boolean tryWithdraw() {
+        long current = units.get();
+        while (current >= UNITS_PER_TOKEN) {
+            if (units.compareAndSet(current, current - UNITS_PER_TOKEN)) {
+                return true;
+            }
+            current = units.get();
+        }
+        return false;
+    }
+}
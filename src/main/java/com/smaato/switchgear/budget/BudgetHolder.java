@@ -0,0 +1,24 @@
+package com.smaato.switchgear.budget;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class BudgetHolder {
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final Function<String, Budget> budgetFactory;
+
+    public BudgetHolder(final Function<String, Budget> budgetFactory) {
+        this.budgetFactory = budgetFactory;
+    }
+
+    public Budget getFor(final String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return budgets.computeIfAbsent(groupName, budgetFactory);
+    }
+}
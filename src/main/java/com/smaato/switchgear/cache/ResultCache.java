@@ -0,0 +1,17 @@
+package com.smaato.switchgear.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public interface ResultCache {
+
+    /**
+     * @param key of the cached result.
+     * @param call starts the call behind the circuit breaker with the given circuit breaker fallback.
+     * @param circuitBreakerFallback of the caller.
+     * @return future completed with the cached result or with the result of the call.
+     */
+    <T> CompletableFuture<T> execute(Object key,
+                                     Function<Function<Throwable, T>, CompletableFuture<T>> call,
+                                     Function<Throwable, T> circuitBreakerFallback);
+}
@@ -0,0 +1,24 @@
+package com.smaato.switchgear.cache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class ResultCacheHolder {
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, ResultCache> resultCaches = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final Function<String, ResultCache> resultCacheFactory;
+
+    public ResultCacheHolder(final Function<String, ResultCache> resultCacheFactory) {
+        this.resultCacheFactory = resultCacheFactory;
+    }
+
+    public ResultCache getFor(final String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return resultCaches.computeIfAbsent(groupName, resultCacheFactory);
+    }
+}
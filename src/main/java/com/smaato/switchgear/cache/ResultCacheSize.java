@@ -0,0 +1,29 @@
+package com.smaato.switchgear.cache;
+
+public class ResultCacheSize {
+
+    private final int ttlInMillis;
+    private final int maxEntries;
+
+    /**
+     * @param ttlInMillis time after which a cached result is not served anymore, unless the call fails.
+     * @param maxEntries max number of cached results.
+     * @throws IllegalArgumentException if ttlInMillis or maxEntries is less or equal to zero.
+     */
+    public ResultCacheSize(final int ttlInMillis,
+                           final int maxEntries) {
+        if ((ttlInMillis <= 0) || (maxEntries <= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.ttlInMillis = ttlInMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public int getTtlInMillis() {
+        return ttlInMillis;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
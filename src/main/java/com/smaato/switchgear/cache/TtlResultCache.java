@@ -0,0 +1,138 @@
+package com.smaato.switchgear.cache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
+
+/**
+ * <p>Bounded cache of successful results which expire after a time to live.</p>
+ * <p>
+ * Fresh results are served without starting a call. Once a result reached {@value #REFRESH_AHEAD_PERCENTAGE}% of its time
+ * to live, a single call refreshes it in the background while the result is still served. Expired results are kept until
+ * they are evicted for new ones, and are served instead of the fallback when the circuit is open or the call is rejected,
+ * and instead of the failure when the call times out.
+ * </p>
+ * <p>
+ * When the cache is full, the oldest result is evicted, which is also the first one to expire as all results have the same
+ * time to live. The results are queued in insertion order, so eviction is a single poll of the queue.
+ * </p>
+ */
+public class TtlResultCache implements ResultCache {
+
+    private static final long REFRESH_AHEAD_PERCENTAGE = 80;
+
+    private final long ttlInNanos;
+    private final long refreshAheadInNanos;
+    private final int maxEntries;
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    // Replaced entries stay queued until they are polled, so the queue is bounded by the max entries rather than the map.
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEntries = new AtomicInteger(0);
+
+    public TtlResultCache(final ResultCacheSize resultCacheSize) {
+        ttlInNanos = MILLISECONDS.toNanos(resultCacheSize.getTtlInMillis());
+        refreshAheadInNanos = (ttlInNanos * REFRESH_AHEAD_PERCENTAGE) / 100;
+        maxEntries = resultCacheSize.getMaxEntries();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(final Object key,
+                                            final Function<Function<Throwable, T>, CompletableFuture<T>> call,
+                                            final Function<Throwable, T> circuitBreakerFallback) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return load(key, call, circuitBreakerFallback, null);
+        }
+
+        final long age = System.nanoTime() - entry.createdAt;
+        if (age >= ttlInNanos) {
+            return load(key, call, circuitBreakerFallback, entry);
+        }
+        if ((age >= refreshAheadInNanos) && entry.refreshing.compareAndSet(false, true)) {
+            load(key, call, circuitBreakerFallback, entry).whenComplete((value, failure) -> entry.refreshing.set(false));
+        }
+        return CompletableFuture.completedFuture((T) entry.value);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> load(final Object key,
+                                          final Function<Function<Throwable, T>, CompletableFuture<T>> call,
+                                          final Function<Throwable, T> circuitBreakerFallback,
+                                          final Entry staleEntry) {
+        final AtomicBoolean rejected = new AtomicBoolean(false);
+        final Function<Throwable, T> staleFallback = rejection -> {
+            rejected.set(true);
+            if (staleEntry != null) {
+                return (T) staleEntry.value;
+            }
+            return circuitBreakerFallback.apply(rejection);
+        };
+
+        return call.apply(staleFallback).handle((value, failure) -> {
+            if (failure == null) {
+                if (!rejected.get()) {
+                    put(key, value);
+                }
+                return value;
+            }
+            if ((staleEntry != null) && (ExceptionUnwrapper.INSTANCE.unwrapAsyncExceptions(failure) instanceof TimeoutException)) {
+                return (T) staleEntry.value;
+            }
+            throw (failure instanceof CompletionException) ? (CompletionException) failure : new CompletionException(failure);
+        });
+    }
+
+    private void put(final Object key,
+                     final Object value) {
+        final Entry entry = new Entry(key, value, System.nanoTime());
+        entries.put(key, entry);
+        insertionOrder.add(entry);
+        if (queuedEntries.incrementAndGet() > maxEntries) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * The entry just put is the newest one, so it is not evicted while there is at least one other entry.
+     */
+    private void evictOldest() {
+        final Entry oldest = insertionOrder.poll();
+        if (oldest != null) {
+            queuedEntries.decrementAndGet();
+            // Does nothing if the entry was replaced by a newer one, which is queued on its own.
+            entries.remove(oldest.key, oldest);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object key;
+        private final Object value;
+        private final long createdAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private Entry(final Object key,
+                      final Object value,
+                      final long createdAt) {
+            this.key = key;
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -6,7 +6,20 @@ import java.util.function.Supplier;
 
 public interface CircuitBreaker {
 
-    <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> futureSupplier,
-                                     final Function<Throwable, T> fallback,
-                                     int timeoutInMillis);
+    default <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> futureSupplier,
+                                             final Function<Throwable, T> fallback,
+                                             final int timeoutInMillis) {
+        return execute(futureSupplier, fallback, timeoutInMillis, timeoutInMillis);
+    }
+
+    /**
+     * @param timeoutInMillis after which the call is timed out.
+     * @param requestedTimeoutInMillis timeout requested for the call, which selects the timeout bucket its outcome is counted in.
+     * It differs from timeoutInMillis when the timeout is adapted, so that adapted calls are still counted with the calls
+     * requesting the same timeout.
+     */
+    <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> futureSupplier,
+                                     Function<Throwable, T> fallback,
+                                     int timeoutInMillis,
+                                     int requestedTimeoutInMillis);
 }
@@ -1,6 +1,7 @@
 package com.smaato.switchgear.circuitbreaker;
 
 import com.smaato.switchgear.Configuration;
+import com.smaato.switchgear.circuitbreaker.state.Strategy;
 import com.smaato.switchgear.circuitbreaker.state.bucket.BucketRangeFinder;
 import com.smaato.switchgear.circuitbreaker.state.bucket.BucketedFailureStatesHolder;
 import com.smaato.switchgear.circuitbreaker.state.bucket.BucketedStateManagersHolder;
@@ -13,19 +14,46 @@ public class CircuitBreakerFactory {
         final BucketedStateManagersHolder stateManagersHolder = new BucketedStateManagersHolder(configuration);
         final BucketedFailureStatesHolder failureStatesHolder = new BucketedFailureStatesHolder();
 
-        final BucketRangeFinder bucketRangeFinder = getBucketRangeFinder(configuration.getBucketLengthInMillis());
+        final BucketRangeFinder bucketRangeFinder = newBucketRangeFinder(configuration);
 
         return new CircuitBreakerImpl(stateManagersHolder,
-                                      new TimeoutScheduler(configuration.getScheduledExecutor()),
+                                      newTimeoutScheduler(configuration),
                                       failureStatesHolder,
                                       bucketRangeFinder,
-                                      configuration.getRecognizedExceptions());
+                                      configuration.getRecognizedExceptions(),
+                                      getSlowCallThresholdPercentage(configuration));
     }
 
-    private static BucketRangeFinder getBucketRangeFinder(final Integer bucketLengthInMillis) {
-        if (bucketLengthInMillis == null) {
+    /**
+     * @return percentage of the requested timeout above which a successful call counts as slow, or
+     * {@link CircuitBreakerImpl#SLOW_CALLS_NOT_TRACKED} if the latency of calls is not tracked.
+     */
+    private static int getSlowCallThresholdPercentage(final Configuration configuration) {
+        if (configuration.getStateManagerStrategy() != Strategy.SLOW_CALL_RATE) {
+            return CircuitBreakerImpl.SLOW_CALLS_NOT_TRACKED;
+        }
+        return configuration.getSlowCallThresholdPercentage();
+    }
+
+    /**
+     * Creates a circuit breaker which never opens the circuit, but still completes the executions exceptionally
+     * once their timeout is reached, so that non-blocking consumers get notified.
+     */
+    public static CircuitBreaker newDummyInstance(final Configuration configuration) {
+        return new DummyCircuitBreaker(newTimeoutScheduler(configuration));
+    }
+
+    private static TimeoutScheduler newTimeoutScheduler(final Configuration configuration) {
+        return new TimeoutScheduler(configuration.getTimeoutTimer(), configuration.getScheduledExecutor());
+    }
+
+    /**
+     * @return finder of the timeout bucket of a call, a single bucket unless a bucket length is configured.
+     */
+    public static BucketRangeFinder newBucketRangeFinder(final Configuration configuration) {
+        if (configuration.getBucketLengthInMillis() == null) {
             return SingleBucketRangeFinder.INSTANCE;
         }
-        return new MultiBucketRangeFinder(bucketLengthInMillis);
+        return new MultiBucketRangeFinder(configuration.getBucketLengthInMillis());
     }
 }
\ No newline at end of file
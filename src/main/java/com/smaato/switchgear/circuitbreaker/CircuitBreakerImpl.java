@@ -1,5 +1,7 @@
 package com.smaato.switchgear.circuitbreaker;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -15,30 +17,38 @@ import com.smaato.switchgear.concurrent.CompletedFuture;
 
 class CircuitBreakerImpl implements CircuitBreaker {
 
+    static final int SLOW_CALLS_NOT_TRACKED = 0;
+
+    private static final long HUNDRED_PERCENT = 100;
+
     private final BucketedStateManagersHolder stateManagersHolder;
     private final TimeoutScheduler timeoutScheduler;
     private final BucketedFailureStatesHolder failureStatesHolder;
     private final BucketRangeFinder bucketRangeFinder;
     private final Set<Class<? extends Exception>> recognizedExceptions;
+    private final int slowCallThresholdPercentage;
 
     CircuitBreakerImpl(final BucketedStateManagersHolder stateManagersHolder,
                        final TimeoutScheduler timeoutScheduler,
                        final BucketedFailureStatesHolder failureStatesHolder,
                        final BucketRangeFinder bucketRangeFinder,
-                       final Set<Class<? extends Exception>> recognizedExceptions) {
+                       final Set<Class<? extends Exception>> recognizedExceptions,
+                       final int slowCallThresholdPercentage) {
         this.stateManagersHolder = stateManagersHolder;
         this.timeoutScheduler = timeoutScheduler;
         this.failureStatesHolder = failureStatesHolder;
         this.bucketRangeFinder = bucketRangeFinder;
         this.recognizedExceptions = recognizedExceptions;
+        this.slowCallThresholdPercentage = slowCallThresholdPercentage;
     }
 
     @Override
     public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> futureSupplier,
                                             final Function<Throwable, T> fallback,
-                                            final int timeoutInMillis) {
+                                            final int timeoutInMillis,
+                                            final int requestedTimeoutInMillis) {
 
-        final BucketRange timeoutBucketRange = bucketRangeFinder.find(timeoutInMillis);
+        final BucketRange timeoutBucketRange = bucketRangeFinder.find(requestedTimeoutInMillis);
 
         final Supplier<CompletableFuture<T>> timeoutFutureSupplier = timeoutScheduler.addTimeout(futureSupplier,
                                                                                                  timeoutInMillis,
@@ -51,7 +61,22 @@ class CircuitBreakerImpl implements CircuitBreaker {
             return new CompletedFuture<>(() -> fallback.apply(lastFailure));
         }
 
+        // Created before the call is submitted, as it takes the start time of the call.
+        final ResultConsumer<T> resultConsumer = new ResultConsumer<>(stateManager,
+                                                                      lastFailureCause,
+                                                                      recognizedExceptions,
+                                                                      getSlowCallThresholdInNanos(requestedTimeoutInMillis));
         return timeoutFutureSupplier.get()
-                                    .whenComplete(new ResultConsumer<>(stateManager, lastFailureCause, recognizedExceptions));
+                                    .whenComplete(resultConsumer);
+    }
+
+    /**
+     * The threshold is relative to the requested timeout, so that it means the same for all the timeout buckets.
+     */
+    private long getSlowCallThresholdInNanos(final int requestedTimeoutInMillis) {
+        if (slowCallThresholdPercentage == SLOW_CALLS_NOT_TRACKED) {
+            return ResultConsumer.LATENCY_NOT_TRACKED;
+        }
+        return (MILLISECONDS.toNanos(requestedTimeoutInMillis) * slowCallThresholdPercentage) / HUNDRED_PERCENT;
     }
 }
@@ -1,14 +1,34 @@
 package com.smaato.switchgear.circuitbreaker;
 
+import static com.smaato.switchgear.circuitbreaker.state.bucket.SingleBucketRangeFinder.INCLUDE_ALL_BUCKET;
+
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class DummyCircuitBreaker implements CircuitBreaker {
+
+    private final TimeoutScheduler timeoutScheduler;
+
+    /**
+     * Creates a pass-through circuit breaker which neither tracks failures nor applies timeouts.
+     */
+    public DummyCircuitBreaker() {
+        this(null);
+    }
+
+    DummyCircuitBreaker(final TimeoutScheduler timeoutScheduler) {
+        this.timeoutScheduler = timeoutScheduler;
+    }
+
     @Override
     public <R> CompletableFuture<R> execute(final Supplier<CompletableFuture<R>> completableFutureSupplier,
                                             final Function<Throwable, R> fallback,
-                                            final int timeoutInMillis) {
-        return completableFutureSupplier.get();
+                                            final int timeoutInMillis,
+                                            final int requestedTimeoutInMillis) {
+        if (timeoutScheduler == null) {
+            return completableFutureSupplier.get();
+        }
+        return timeoutScheduler.addTimeout(completableFutureSupplier, timeoutInMillis, INCLUDE_ALL_BUCKET).get();
     }
 }
@@ -0,0 +1,299 @@
+package com.smaato.switchgear.circuitbreaker;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Hashed timing wheel for timeout events.</p>
+ * <p>
+ * Adding and cancelling a timeout are lock-free O(1) operations: new timeouts are handed over to the single worker thread
+ * through a lock-free queue, cancelled timeouts are only marked and dropped by the worker once it visits their bucket, which
+ * happens at least once per wheel rotation. The wheel buckets themselves are only touched by the worker. The worker advances
+ * the wheel once per tick, so a timeout fires no earlier than requested and at most one tick later.
+ * </p>
+ * <p>
+ * The tasks are run by the worker thread, so they must not block. A timer shared by several users is stopped once the last
+ * of them released it, its worker thread still runs the timeouts scheduled so far and ends once none is left.
+ * </p>
+ */
+public class HashedWheelTimer {
+
+    private static final int MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100_000;
+    private static final int STOPPED = -1;
+
+    private final long tickInNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final ThreadFactory threadFactory;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicInteger users = new AtomicInteger(0);
+    // Scheduled timeouts which are neither run nor dropped by the worker yet.
+    private final AtomicInteger activeTimeouts = new AtomicInteger(0);
+    // Deadlines are relative to the creation of the timer, so they are valid before the worker thread is started.
+    private final long startTime;
+
+    // Accessed by the worker thread only.
+    private long tick;
+
+    /**
+     * @param threadFactory creates the worker thread, which is started with the first scheduled timeout.
+     * @param tickInMillis resolution of the timer.
+     * @param ticksPerWheel number of wheel buckets, rounded up to the next power of two.
+     * @throws IllegalArgumentException if tickInMillis or ticksPerWheel is less or equal to zero.
+     */
+    public HashedWheelTimer(final ThreadFactory threadFactory,
+                            final int tickInMillis,
+                            final int ticksPerWheel) {
+        if ((tickInMillis <= 0) || (ticksPerWheel <= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.threadFactory = threadFactory;
+        tickInNanos = MILLISECONDS.toNanos(tickInMillis);
+        wheel = createWheel(ticksPerWheel);
+        mask = wheel.length - 1;
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Schedules the task to be run by the worker thread after the given delay.
+     *
+     * @return handle to cancel the timeout.
+     * @throws RejectedExecutionException if the timer is stopped.
+     */
+    public Timeout newTimeout(final Runnable task,
+                              final long delayInMillis) {
+        // Counted before the check, so that the worker does not end while the timeout is added.
+        activeTimeouts.incrementAndGet();
+        if (users.get() == STOPPED) {
+            activeTimeouts.decrementAndGet();
+            throw new RejectedExecutionException();
+        }
+        start();
+
+        final long deadline = (System.nanoTime() + MILLISECONDS.toNanos(delayInMillis)) - startTime;
+        final Timeout timeout = new Timeout(task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Registers a user of the timer, which has to {@link #release()} it once it does not schedule timeouts anymore.
+     *
+     * @throws IllegalStateException if the timer is stopped.
+     */
+    public void retain() {
+        while (true) {
+            final int currentUsers = users.get();
+            if (currentUsers == STOPPED) {
+                throw new IllegalStateException();
+            }
+            if (users.compareAndSet(currentUsers, currentUsers + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases a user of the timer, the timer is stopped when the last user released it. A timer which was never retained
+     * is never stopped.
+     */
+    public void release() {
+        while (true) {
+            final int currentUsers = users.get();
+            if (currentUsers <= 0) {
+                return;
+            }
+            final int updatedUsers = (currentUsers == 1) ? STOPPED : (currentUsers - 1);
+            if (users.compareAndSet(currentUsers, updatedUsers)) {
+                return;
+            }
+        }
+    }
+
+    public boolean isStopped() {
+        return users.get() == STOPPED;
+    }
+
+    private void start() {
+        if (!started.get() && started.compareAndSet(false, true)) {
+            threadFactory.newThread(this::work).start();
+        }
+    }
+
+    private void work() {
+        // The wheel starts at the current tick, not at the creation of the timer.
+        tick = (System.nanoTime() - startTime) / tickInNanos;
+        while (!isStopped() || (activeTimeouts.get() > 0)) {
+            waitForNextTick();
+            transferTimeoutsToBuckets();
+            activeTimeouts.addAndGet(-wheel[(int) (tick & mask)].expireTimeouts());
+            tick++;
+        }
+    }
+
+    private void waitForNextTick() {
+        final long deadline = tickInNanos * (tick + 1);
+        long sleepTimeInNanos = deadline - (System.nanoTime() - startTime);
+        while (sleepTimeInNanos > 0) {
+            LockSupport.parkNanos(this, sleepTimeInNanos);
+            sleepTimeInNanos = deadline - (System.nanoTime() - startTime);
+        }
+    }
+
+    private void transferTimeoutsToBuckets() {
+        for (int i = 0; i < MAX_TIMEOUTS_TRANSFERRED_PER_TICK; i++) {
+            final Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                activeTimeouts.decrementAndGet();
+                continue;
+            }
+
+            final long calculatedTick = timeout.deadline / tickInNanos;
+            timeout.remainingRounds = (calculatedTick - tick) / wheel.length;
+
+            // Deadlines already in the past are expired with the current tick.
+            final long targetTick = Math.max(calculatedTick, tick);
+            wheel[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private static Bucket[] createWheel(final int ticksPerWheel) {
+        int normalizedTicksPerWheel = 1;
+        while (normalizedTicksPerWheel < ticksPerWheel) {
+            normalizedTicksPerWheel <<= 1;
+        }
+
+        final Bucket[] wheel = new Bucket[normalizedTicksPerWheel];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        return wheel;
+    }
+
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class,
+                                                                                                                    "state");
+
+        private final Runnable task;
+        private final long deadline;
+
+        @SuppressWarnings("unused")
+        private volatile int state = ST_INIT;
+
+        // Accessed by the worker thread only.
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(final Runnable task,
+                        final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, the task will not be run if it was not run yet.
+         *
+         * @return true if this call cancelled the timeout.
+         */
+        public boolean cancel() {
+            return STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                task.run();
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            if (head == null) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * @return number of timeouts removed from the bucket, either run or dropped as cancelled.
+         */
+        private int expireTimeouts() {
+            int removedTimeouts = 0;
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    runSafely(timeout);
+                    removedTimeouts++;
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                    removedTimeouts++;
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            return removedTimeouts;
+        }
+
+        private void remove(final Timeout timeout) {
+            final Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        private static void runSafely(final Timeout timeout) {
+            try {
+                timeout.expire();
+            } catch (final RuntimeException ignored) {
+                // A failing task must not stop the timer for all other timeouts.
+            }
+        }
+    }
+}
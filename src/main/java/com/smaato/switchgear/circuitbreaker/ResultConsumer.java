@@ -1,6 +1,7 @@
 package com.smaato.switchgear.circuitbreaker;
 
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 
@@ -10,29 +11,56 @@ import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
 
 class ResultConsumer<T> implements BiConsumer<T, Throwable> {
 
+    static final long LATENCY_NOT_TRACKED = 0L;
+
+    private static final SlowCallException SLOW_CALL = new SlowCallException();
+
     private final StateManager stateManager;
     private final LastFailureCause lastFailureCause;
     private final Set<Class<? extends Exception>> recognizedExceptions;
+    private final long slowCallThresholdInNanos;
+    private final long startTime;
 
+    /**
+     * @param slowCallThresholdInNanos latency above which a successful call is handled as slow call, or
+     * {@link #LATENCY_NOT_TRACKED} if the clock is not to be read.
+     */
     ResultConsumer(final StateManager stateManager,
                    final LastFailureCause lastFailureCause,
-                   final Set<Class<? extends Exception>> recognizedExceptions) {
+                   final Set<Class<? extends Exception>> recognizedExceptions,
+                   final long slowCallThresholdInNanos) {
         this.stateManager = stateManager;
         this.lastFailureCause = lastFailureCause;
         this.recognizedExceptions = recognizedExceptions;
+        this.slowCallThresholdInNanos = slowCallThresholdInNanos;
+        startTime = (slowCallThresholdInNanos == LATENCY_NOT_TRACKED) ? 0L : System.nanoTime();
     }
 
     @Override
     public void accept(final T t,
                        final Throwable failure) {
-        if (failure == null) {
+        if ((failure == null) && isSlow()) {
+            lastFailureCause.setFailure(SLOW_CALL);
+            stateManager.handleSlowCall();
+        } else if (failure == null) {
             stateManager.handleSuccess();
-        } else if (isRecognized(failure)) {
+        } else if (!isCancelled(failure) && isRecognized(failure)) {
             lastFailureCause.setFailure(failure);
             stateManager.handleFailure();
         }
     }
 
+    private boolean isSlow() {
+        return (slowCallThresholdInNanos != LATENCY_NOT_TRACKED) && ((System.nanoTime() - startTime) > slowCallThresholdInNanos);
+    }
+
+    /**
+     * A cancelled call was abandoned by the caller, it does not tell anything about the health of the service.
+     */
+    private static boolean isCancelled(final Throwable failure) {
+        return ExceptionUnwrapper.INSTANCE.unwrapAsyncExceptions(failure) instanceof CancellationException;
+    }
+
     private boolean isRecognized(final Throwable failure) {
         if (recognizedExceptions.isEmpty()) {
             return true;
@@ -0,0 +1,16 @@
+package com.smaato.switchgear.circuitbreaker;
+
+/**
+ * Cause of an open circuit which was opened by calls slower than the slow call threshold rather than by failed calls. A single
+ * instance is shared by all slow calls, so it does not capture a stack trace.
+ */
+public class SlowCallException extends RuntimeException {
+
+    private static final long serialVersionUID = 2952745093312345106L;
+
+    private static final String SLOW_CALL_ERROR = "Calls are slower than the slow call threshold";
+
+    SlowCallException() {
+        super(SLOW_CALL_ERROR, null, false, false);
+    }
+}
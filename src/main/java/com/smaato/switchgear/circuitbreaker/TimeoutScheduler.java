@@ -1,6 +1,7 @@
 package com.smaato.switchgear.circuitbreaker;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -12,26 +13,51 @@ class TimeoutScheduler {
 
     private static final boolean DO_NOT_INTERRUPT = false;
 
+    private final HashedWheelTimer timer;
     private final ScheduledExecutorService scheduler;
 
     TimeoutScheduler(final ScheduledExecutorService scheduler) {
+        this(null, scheduler);
+    }
+
+    /**
+     * @param timer timing wheel for timeout events, the scheduler is used as a fallback when the timer is null.
+     * @param scheduler fallback for timeout events.
+     */
+    TimeoutScheduler(final HashedWheelTimer timer,
+                     final ScheduledExecutorService scheduler) {
+        this.timer = timer;
         this.scheduler = scheduler;
     }
 
     <T> Supplier<CompletableFuture<T>> addTimeout(final Supplier<CompletableFuture<T>> futureSupplier,
                                                   final int timeoutInMillis,
                                                   final BucketRange timeoutBucketRange) {
-        return () -> scheduleTimeout(futureSupplier.get(), timeoutInMillis, timeoutBucketRange);
+        return () -> {
+            if ((timer != null) && timer.isStopped()) {
+                // The call is not started at all, as its timeout could not be fired anymore.
+                throw new RejectedExecutionException();
+            }
+            return scheduleTimeout(futureSupplier.get(), timeoutInMillis, timeoutBucketRange);
+        };
     }
 
     private <T> CompletableFuture<T> scheduleTimeout(final CompletableFuture<T> future,
                                                      final int timeoutInMillis,
                                                      final BucketRange timeoutBucketRange) {
-        final ScheduledFuture<?> timeoutCheckFuture = scheduler.schedule(() -> {
+        final Runnable timeoutCheck = () -> {
             if (!future.isDone()) {
                 future.completeExceptionally(TimeoutExceptionBuilder.builder().withTimeoutRange(timeoutBucketRange).build());
             }
-        }, timeoutInMillis, TimeUnit.MILLISECONDS);
+        };
+
+        if (timer != null) {
+            final HashedWheelTimer.Timeout timeout = timer.newTimeout(timeoutCheck, timeoutInMillis);
+            future.whenComplete((event, error) -> timeout.cancel());
+            return future;
+        }
+
+        final ScheduledFuture<?> timeoutCheckFuture = scheduler.schedule(timeoutCheck, timeoutInMillis, TimeUnit.MILLISECONDS);
 
         // Configure the event future to delete the timeout check immediately when it finishes.
         future.whenComplete((event, error) -> {
@@ -3,11 +3,21 @@ package com.smaato.switchgear.circuitbreaker.state;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
 
+/**
+ * <p>
+ * The outcomes are counted in striped counters, so that concurrent calls do not contend on a single counter, and are only summed
+ * when the state is updated. The failure and success counters of a window are replaced together by fresh ones before they
+ * are evaluated, so both counts belong to the same window. A call which read the counters just before they were replaced may
+ * still count its outcome in the replaced ones after they were summed, such an outcome is lost. The state is read by every
+ * call but rarely written, it is padded to its own cache line so that it is not invalidated by writes to neighbouring memory.
+ * </p>
+ */
 public class FrequentFailuresStateManager implements StateManager {
 
     private static final double HUNDRED_PERCENT = 100.0;
@@ -18,9 +28,8 @@ public class FrequentFailuresStateManager implements StateManager {
     private final int minWindowSize;
     private final ThrottlingUtil throttlingUtil;
 
-    private final AtomicInteger failureCount = new AtomicInteger(0);
-    private final AtomicInteger successCount = new AtomicInteger(0);
-    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final PaddedState state = new PaddedState();
+    private final AtomicReference<Counts> counts = new AtomicReference<>(new Counts());
 
     private FrequentFailuresStateManager(final int acceptableFailuresPercentage,
                                          final int minWindowSize,
@@ -47,43 +56,92 @@ public class FrequentFailuresStateManager implements StateManager {
 
     @Override
     public boolean isOpen() {
-        if (state.get() == State.THROTTLE) {
+        final State currentState = state.get();
+        if (currentState == State.THROTTLE) {
             return throttlingUtil.throttle();
         }
-        return state.get() == State.OPEN;
+        return currentState == State.OPEN;
     }
 
     @Override
     public void handleSuccess() {
         state.compareAndSet(State.HALF_OPEN, State.CLOSED);
-        successCount.incrementAndGet();
+        counts.get().successes.increment();
     }
 
     @Override
     public void handleFailure() {
         state.compareAndSet(State.HALF_OPEN, State.OPEN);
-        failureCount.incrementAndGet();
+        counts.get().failures.increment();
     }
 
     private void updateState() {
-        final int currentFailureCount = failureCount.get();
-        final int totalCount = currentFailureCount + successCount.get();
-
-        if (totalCount >= minWindowSize) {
-            final double failuresPercentage = (currentFailureCount * HUNDRED_PERCENT) / totalCount;
-
-            if (currentFailureCount == totalCount) {
-                state.set(State.OPEN);
-            } else if (failuresPercentage > acceptableFailuresPercentage) {
-                state.set(State.THROTTLE);
-            } else {
-                state.set(State.CLOSED);
-            }
+        final Counts currentCounts = counts.get();
+        if ((currentCounts.failures.sum() + currentCounts.successes.sum()) < minWindowSize) {
+            // Too few calls to evaluate, they are kept for the next update.
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            return;
+        }
 
-            failureCount.set(0);
-            successCount.set(0);
+        // Only this scheduled task replaces the counts, the outcomes of calls completing from now on count in the next window.
+        counts.set(new Counts());
+        final long currentFailureCount = currentCounts.failures.sum();
+        final long totalCount = currentFailureCount + currentCounts.successes.sum();
+        final double failuresPercentage = (currentFailureCount * HUNDRED_PERCENT) / totalCount;
+
+        if (currentFailureCount == totalCount) {
+            state.set(State.OPEN);
+        } else if (failuresPercentage > acceptableFailuresPercentage) {
+            state.set(State.THROTTLE);
         } else {
-            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            state.set(State.CLOSED);
+        }
+    }
+
+    private static final class Counts {
+
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+    }
+
+    /**
+     * Padding fields around the value, the fields of a super class are laid out before the fields of its sub class.
+     */
+    @SuppressWarnings("unused")
+    private abstract static class LeftPadding {
+        protected long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private abstract static class StateValue extends LeftPadding {
+        protected volatile State value = State.CLOSED;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class PaddedState extends StateValue {
+
+        private static final AtomicReferenceFieldUpdater<StateValue, State> UPDATER = AtomicReferenceFieldUpdater.newUpdater(
+                StateValue.class,
+                State.class,
+                "value");
+
+        protected long p11, p12, p13, p14, p15, p16, p17;
+
+        private State get() {
+            return value;
+        }
+
+        private void set(final State newValue) {
+            value = newValue;
+        }
+
+        /**
+         * Reads before writing, as a failing compare-and-set still takes the cache line exclusively.
+         */
+        private void compareAndSet(final State expect,
+                                   final State update) {
+            if (value == expect) {
+                UPDATER.compareAndSet(this, expect, update);
+            }
         }
     }
 }
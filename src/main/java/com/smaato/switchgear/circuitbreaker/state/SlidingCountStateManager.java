@@ -0,0 +1,200 @@
+package com.smaato.switchgear.circuitbreaker.state;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
+
+/**
+ * <p>Failure rate state manager over the last calls.</p>
+ * <p>
+ * The outcomes of the last calls are kept in a ring of bits packed into longs, a set bit being a failure. Every outcome takes
+ * the next position of the ring and overwrites the oldest outcome with a single compare-and-set, which is skipped if the bit
+ * does not change. The failures are counted on evaluation, so there is no counter to keep in sync with the bits.
+ * </p>
+ * <p>
+ * Slow calls are kept in a second ring at the same positions and judged by a slow call rate of their own. The circuit is
+ * opened when every call of the window either failed or was slow.
+ * </p>
+ */
+public class SlidingCountStateManager implements StateManager {
+
+    private static final int BITS_PER_WORD = Long.SIZE;
+    private static final int HUNDRED_PERCENT = 100;
+    // The slow call rate never exceeds it, so slow calls only count when all calls of the window failed or were slow.
+    private static final int SLOW_CALL_RATE_NOT_JUDGED = HUNDRED_PERCENT;
+
+    private enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final int acceptableFailuresPercentage;
+    private final int acceptableSlowCallsPercentage;
+    private final int windowSize;
+    private final long circuitOpenTimeInNanos;
+    private final ThrottlingUtil throttlingUtil;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLongArray failureBits;
+    private final AtomicLongArray slowCallBits;
+    private final AtomicLong position = new AtomicLong(0);
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long windowStart;
+    private volatile long openedAt;
+
+    SlidingCountStateManager(final int acceptableFailuresPercentage,
+                             final int circuitOpenTimeInMillis,
+                             final int windowSize,
+                             final ThrottlingUtil throttlingUtil,
+                             final LongSupplier nanoClock) {
+        this(acceptableFailuresPercentage, SLOW_CALL_RATE_NOT_JUDGED, circuitOpenTimeInMillis, windowSize, throttlingUtil, nanoClock);
+    }
+
+    SlidingCountStateManager(final int acceptableFailuresPercentage,
+                             final int acceptableSlowCallsPercentage,
+                             final int circuitOpenTimeInMillis,
+                             final int windowSize,
+                             final ThrottlingUtil throttlingUtil,
+                             final LongSupplier nanoClock) {
+        this.acceptableFailuresPercentage = acceptableFailuresPercentage;
+        this.acceptableSlowCallsPercentage = acceptableSlowCallsPercentage;
+        this.windowSize = windowSize;
+        this.throttlingUtil = throttlingUtil;
+        this.nanoClock = nanoClock;
+        circuitOpenTimeInNanos = MILLISECONDS.toNanos(circuitOpenTimeInMillis);
+        failureBits = new AtomicLongArray(((windowSize - 1) / BITS_PER_WORD) + 1);
+        slowCallBits = new AtomicLongArray(failureBits.length());
+    }
+
+    /**
+     * @param acceptableFailuresPercentage failure rate above which calls are throttled.
+     * @param circuitOpenTimeInMillis time the circuit stays open before a trial call.
+     * @param windowSize number of last calls the failure rate is evaluated over.
+     */
+    public static StateManager newInstance(final int acceptableFailuresPercentage,
+                                           final int circuitOpenTimeInMillis,
+                                           final int windowSize,
+                                           final ThrottlingUtil throttlingUtil) {
+        return new SlidingCountStateManager(acceptableFailuresPercentage,
+                                            circuitOpenTimeInMillis,
+                                            windowSize,
+                                            throttlingUtil,
+                                            System::nanoTime);
+    }
+
+    /**
+     * @param acceptableFailuresPercentage failure rate above which calls are throttled.
+     * @param acceptableSlowCallsPercentage slow call rate above which calls are throttled.
+     * @param circuitOpenTimeInMillis time the circuit stays open before a trial call.
+     * @param windowSize number of last calls the failure and slow call rates are evaluated over.
+     */
+    public static StateManager newInstance(final int acceptableFailuresPercentage,
+                                           final int acceptableSlowCallsPercentage,
+                                           final int circuitOpenTimeInMillis,
+                                           final int windowSize,
+                                           final ThrottlingUtil throttlingUtil) {
+        return new SlidingCountStateManager(acceptableFailuresPercentage,
+                                            acceptableSlowCallsPercentage,
+                                            circuitOpenTimeInMillis,
+                                            windowSize,
+                                            throttlingUtil,
+                                            System::nanoTime);
+    }
+
+    @Override
+    public boolean isOpen() {
+        final State currentState = state.get();
+        if (currentState == State.OPEN) {
+            if ((nanoClock.getAsLong() - openedAt) < circuitOpenTimeInNanos) {
+                return true;
+            }
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            return false;
+        }
+        if (currentState == State.HALF_OPEN) {
+            return false;
+        }
+
+        if ((position.get() - windowStart) < windowSize) {
+            return false;
+        }
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < failureBits.length(); i++) {
+            failures += Long.bitCount(failureBits.get(i));
+            slowCalls += Long.bitCount(slowCallBits.get(i));
+        }
+
+        if ((failures + slowCalls) >= windowSize) {
+            open();
+            return true;
+        }
+        if ((((long) failures * HUNDRED_PERCENT) > ((long) acceptableFailuresPercentage * windowSize))
+            || (((long) slowCalls * HUNDRED_PERCENT) > ((long) acceptableSlowCallsPercentage * windowSize))) {
+            return throttlingUtil.throttle();
+        }
+        return false;
+    }
+
+    @Override
+    public void handleSuccess() {
+        record(false, false);
+        state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+    }
+
+    @Override
+    public void handleFailure() {
+        record(true, false);
+        if (state.get() == State.HALF_OPEN) {
+            open();
+        }
+    }
+
+    /**
+     * A slow trial call opens the circuit again, like a failed one.
+     */
+    @Override
+    public void handleSlowCall() {
+        record(false, true);
+        if (state.get() == State.HALF_OPEN) {
+            open();
+        }
+    }
+
+    /**
+     * Starts a new window, so that the outcomes before opening the circuit do not reopen it right after the trial call.
+     */
+    private void open() {
+        openedAt = nanoClock.getAsLong();
+        windowStart = position.get();
+        for (int i = 0; i < failureBits.length(); i++) {
+            failureBits.set(i, 0L);
+            slowCallBits.set(i, 0L);
+        }
+        state.set(State.OPEN);
+    }
+
+    private void record(final boolean failure,
+                        final boolean slowCall) {
+        final int ringPosition = (int) (position.getAndIncrement() % windowSize);
+        final int index = ringPosition / BITS_PER_WORD;
+        final long mask = 1L << (ringPosition % BITS_PER_WORD);
+        setBit(failureBits, index, mask, failure);
+        setBit(slowCallBits, index, mask, slowCall);
+    }
+
+    private static void setBit(final AtomicLongArray bits,
+                               final int index,
+                               final long mask,
+                               final boolean set) {
+        while (true) {
+            final long word = bits.get(index);
+            final long updatedWord = set ? (word | mask) : (word & ~mask);
+            if ((word == updatedWord) || bits.compareAndSet(index, word, updatedWord)) {
+                return;
+            }
+        }
+    }
+}
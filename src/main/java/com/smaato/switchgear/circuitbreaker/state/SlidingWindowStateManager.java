@@ -0,0 +1,255 @@
+package com.smaato.switchgear.circuitbreaker.state;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
+
+/**
+ * <p>Failure rate state manager over a sliding time window.</p>
+ * <p>
+ * The window is a ring of time slices, each packed into a single long holding the slice number and the failure and success
+ * counts of that slice. Recording a call is one compare-and-set on the slot of the current slice, which also resets the slot
+ * if it still holds an older slice, so the ring rolls lazily on access and needs no background task.
+ * </p>
+ * <p>
+ * The clock is read once per call, when its outcome is recorded, so the outcome lands in the slice the call completed in.
+ * The first outcome of a new slice sums the previous slices of the window once, every other outcome adds the counts of the
+ * current slice to these cached totals and publishes the verdict. An outcome recorded in a previous slice while another
+ * thread sums it may be left out of the totals. {@link #isOpen()} only reads the verdict while the circuit is closed, and
+ * reads the clock while it is open or throttling, so that old failures leave the window even if no call completes.
+ * </p>
+ */
+public class SlidingWindowStateManager implements StateManager {
+
+    // A power of two, so that the slot index stays continuous when the slice number wraps around.
+    static final int SLICES = 8;
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int FAILURES_SHIFT = COUNT_BITS;
+    private static final int SLICE_SHIFT = 2 * COUNT_BITS;
+    private static final long SLICE_MASK = (1L << (Long.SIZE - SLICE_SHIFT)) - 1;
+    private static final long ONE_SUCCESS = 1L;
+    private static final long ONE_FAILURE = 1L << FAILURES_SHIFT;
+    private static final int HUNDRED_PERCENT = 100;
+
+    private enum State {CLOSED, THROTTLING, OPEN, HALF_OPEN}
+
+    private static final class Window {
+        private final long slice;
+        private final long failures;
+        private final long successes;
+
+        private Window(final long slice,
+                       final long failures,
+                       final long successes) {
+            this.slice = slice;
+            this.failures = failures;
+            this.successes = successes;
+        }
+    }
+
+    private final int acceptableFailuresPercentage;
+    private final int minWindowSize;
+    private final ThrottlingUtil throttlingUtil;
+    private final long windowInNanos;
+    private final long sliceInNanos;
+    private final LongSupplier nanoClock;
+    private final long startTime;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SLICES);
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window(0, 0, 0));
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openedAt;
+
+    SlidingWindowStateManager(final int acceptableFailuresPercentage,
+                              final int windowInMillis,
+                              final int minWindowSize,
+                              final ThrottlingUtil throttlingUtil,
+                              final LongSupplier nanoClock) {
+        this.acceptableFailuresPercentage = acceptableFailuresPercentage;
+        this.minWindowSize = minWindowSize;
+        this.throttlingUtil = throttlingUtil;
+        this.nanoClock = nanoClock;
+        windowInNanos = MILLISECONDS.toNanos(windowInMillis);
+        sliceInNanos = Math.max(1L, windowInNanos / SLICES);
+        startTime = nanoClock.getAsLong();
+        // Slice number zero is the current one, all slots start as empty slices which are already out of the window.
+        for (int i = 0; i < SLICES; i++) {
+            slots.set(i, ((i - SLICES) & SLICE_MASK) << SLICE_SHIFT);
+        }
+    }
+
+    /**
+     * @param acceptableFailuresPercentage failure rate above which calls are throttled.
+     * @param windowInMillis length of the sliding window, also the time the circuit stays open before a trial call.
+     * @param minWindowSize minimum number of calls within the window to evaluate the failure rate.
+     */
+    public static StateManager newInstance(final int acceptableFailuresPercentage,
+                                           final int windowInMillis,
+                                           final int minWindowSize,
+                                           final ThrottlingUtil throttlingUtil) {
+        return new SlidingWindowStateManager(acceptableFailuresPercentage,
+                                             windowInMillis,
+                                             minWindowSize,
+                                             throttlingUtil,
+                                             System::nanoTime);
+    }
+
+    @Override
+    public boolean isOpen() {
+        final State currentState = state.get();
+        if (currentState == State.OPEN) {
+            if ((nanoClock.getAsLong() - openedAt) < windowInNanos) {
+                return true;
+            }
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            return false;
+        }
+        if (currentState == State.THROTTLING) {
+            final long now = nanoClock.getAsLong();
+            final Window currentWindow = rollTo(getSlice(now));
+            final State verdict = evaluate(currentWindow, slots.get(getIndex(currentWindow.slice)));
+            update(State.THROTTLING, verdict, now);
+            if (verdict == State.THROTTLING) {
+                return throttlingUtil.throttle();
+            }
+            return verdict == State.OPEN;
+        }
+        return false;
+    }
+
+    @Override
+    public void handleSuccess() {
+        record(nanoClock.getAsLong(), ONE_SUCCESS, 0);
+        state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+    }
+
+    @Override
+    public void handleFailure() {
+        final long now = nanoClock.getAsLong();
+        record(now, ONE_FAILURE, FAILURES_SHIFT);
+        if (state.get() == State.HALF_OPEN) {
+            open(now);
+        }
+    }
+
+    private void open(final long now) {
+        openedAt = now;
+        state.set(State.OPEN);
+    }
+
+    private void record(final long now,
+                        final long increment,
+                        final int countShift) {
+        final Window currentWindow = rollTo(getSlice(now));
+        final long slot = add(currentWindow.slice, increment, countShift);
+        final State currentState = state.get();
+        if ((currentState == State.CLOSED) || (currentState == State.THROTTLING)) {
+            update(currentState, evaluate(currentWindow, slot), now);
+        }
+    }
+
+    private long add(final long slice,
+                     final long increment,
+                     final int countShift) {
+        final int index = getIndex(slice);
+        while (true) {
+            final long slot = slots.get(index);
+            final long updatedSlot;
+            if ((slot >>> SLICE_SHIFT) == slice) {
+                if (((slot >>> countShift) & COUNT_MASK) == COUNT_MASK) {
+                    // The count of the slice is saturated.
+                    return slot;
+                }
+                updatedSlot = slot + increment;
+            } else if (isNewer(slot >>> SLICE_SHIFT, slice)) {
+                // The slot holds a newer slice, rolled after this thread read the window.
+                return slot;
+            } else {
+                updatedSlot = (slice << SLICE_SHIFT) | increment;
+            }
+            if (slots.compareAndSet(index, slot, updatedSlot)) {
+                return updatedSlot;
+            }
+        }
+    }
+
+    private Window rollTo(final long slice) {
+        Window currentWindow = window.get();
+        while (isNewer(slice, currentWindow.slice)) {
+            final Window rolledWindow = sumPreviousSlices(slice);
+            if (window.compareAndSet(currentWindow, rolledWindow)) {
+                return rolledWindow;
+            }
+            currentWindow = window.get();
+        }
+        return currentWindow;
+    }
+
+    private Window sumPreviousSlices(final long slice) {
+        long failures = 0;
+        long successes = 0;
+        for (int i = 0; i < SLICES; i++) {
+            final long slot = slots.get(i);
+            final long age = (slice - (slot >>> SLICE_SHIFT)) & SLICE_MASK;
+            if ((age > 0) && (age < SLICES)) {
+                failures += (slot >>> FAILURES_SHIFT) & COUNT_MASK;
+                successes += slot & COUNT_MASK;
+            }
+        }
+        return new Window(slice, failures, successes);
+    }
+
+    private State evaluate(final Window currentWindow,
+                           final long slot) {
+        long failures = currentWindow.failures;
+        long successes = currentWindow.successes;
+        if ((slot >>> SLICE_SHIFT) == currentWindow.slice) {
+            failures += (slot >>> FAILURES_SHIFT) & COUNT_MASK;
+            successes += slot & COUNT_MASK;
+        }
+
+        final long totalCount = failures + successes;
+        if (totalCount < minWindowSize) {
+            return State.CLOSED;
+        }
+        if (failures == totalCount) {
+            return State.OPEN;
+        }
+        if ((failures * HUNDRED_PERCENT) > (acceptableFailuresPercentage * totalCount)) {
+            return State.THROTTLING;
+        }
+        return State.CLOSED;
+    }
+
+    private void update(final State currentState,
+                        final State verdict,
+                        final long now) {
+        if (verdict == currentState) {
+            // Most outcomes do not change the verdict, so they do not write the shared state.
+            return;
+        }
+        if (verdict == State.OPEN) {
+            openedAt = now;
+        }
+        state.compareAndSet(currentState, verdict);
+    }
+
+    private static int getIndex(final long slice) {
+        return (int) (slice & (SLICES - 1));
+    }
+
+    private static boolean isNewer(final long slice,
+                                   final long otherSlice) {
+        return (slice != otherSlice) && (((slice - otherSlice) & SLICE_MASK) < (SLICE_MASK >>> 1));
+    }
+
+    private long getSlice(final long now) {
+        return ((now - startTime) / sliceInNanos) & SLICE_MASK;
+    }
+}
@@ -7,4 +7,12 @@ public interface StateManager {
     void handleSuccess();
 
     void handleFailure();
+
+    /**
+     * Handles a call which succeeded, but later than the slow call threshold. Strategies which do not judge the slow call
+     * rate handle it as a success.
+     */
+    default void handleSlowCall() {
+        handleSuccess();
+    }
 }
@@ -22,5 +22,44 @@ public enum Strategy {
      * Successful trial call will close the circuit.
      * </p>
      */
-    FREQUENT_FAILURES
+    FREQUENT_FAILURES,
+
+    /**
+     * <p>
+     * Same as {@link #FREQUENT_FAILURES}, but the percentage of failed calls is evaluated on every call over a sliding
+     * window of the last period of time instead of a window which is reset at the end of every period. <br>
+     * This way the decision does not jump at the window edges and failures are recognized right after the start of a period.
+     * </p>
+     * <p>
+     * In a case when all calls within the window failed, then Circuit Breaker will open circuit for the length of the window,
+     * after which a trial request will be sent.<br>
+     * Successful trial call will close the circuit.
+     * </p>
+     */
+    SLIDING_WINDOW,
+
+    /**
+     * <p>
+     * Same as {@link #SLIDING_WINDOW}, but the percentage of failed calls is evaluated over the given number of last calls
+     * instead of a period of time, which suits bursty traffic. <br>
+     * The failure rate is not evaluated until the given number of calls is reached.
+     * </p>
+     * <p>
+     * In a case when all of the last calls failed, then Circuit Breaker will open circuit and block following calls.
+     * After the given half open time the trial request will be sent.<br>
+     * Successful trial call will close the circuit.
+     * </p>
+     */
+    SLIDING_COUNT,
+
+    /**
+     * <p>
+     * Same as {@link #SLIDING_COUNT}, but calls which completed successfully later than the slow call threshold, a percentage
+     * of their requested timeout, count as slow calls, so that a partner whose latency creeps up towards the timeout is
+     * throttled before it times out. <br>
+     * The percentage of slow calls among the last calls is judged independently of the percentage of failures. The circuit
+     * is opened when all the last calls either failed or were slow.
+     * </p>
+     */
+    SLOW_CALL_RATE
 }
@@ -7,6 +7,8 @@ import java.util.concurrent.ThreadLocalRandom;
 import com.smaato.switchgear.Configuration;
 import com.smaato.switchgear.circuitbreaker.state.ConsecutiveFailuresStateManager;
 import com.smaato.switchgear.circuitbreaker.state.FrequentFailuresStateManager;
+import com.smaato.switchgear.circuitbreaker.state.SlidingCountStateManager;
+import com.smaato.switchgear.circuitbreaker.state.SlidingWindowStateManager;
 import com.smaato.switchgear.circuitbreaker.state.StateManager;
 import com.smaato.switchgear.circuitbreaker.state.Strategy;
 
@@ -25,8 +27,24 @@ public class BucketedStateManagersHolder {
     }
 
     private StateManager getStateManager() {
-        if (configuration.getStateManagerStrategy() == Strategy.FREQUENT_FAILURES) {
-            final ThrottlingUtil throttlingUtil = new ThrottlingUtil(configuration.getThrottlingPercentage(), ThreadLocalRandom::current);
+        if (configuration.getStateManagerStrategy() == Strategy.SLIDING_WINDOW) {
+            return SlidingWindowStateManager.newInstance(configuration.getAcceptableFailuresPercentage(),
+                                                         configuration.getCircuitOpenTimeInMillis(),
+                                                         configuration.getMinimumWindowSize(),
+                                                         newThrottlingUtil());
+        } else if (configuration.getStateManagerStrategy() == Strategy.SLIDING_COUNT) {
+            return SlidingCountStateManager.newInstance(configuration.getAcceptableFailuresPercentage(),
+                                                        configuration.getCircuitOpenTimeInMillis(),
+                                                        configuration.getMinimumWindowSize(),
+                                                        newThrottlingUtil());
+        } else if (configuration.getStateManagerStrategy() == Strategy.SLOW_CALL_RATE) {
+            return SlidingCountStateManager.newInstance(configuration.getAcceptableFailuresPercentage(),
+                                                        configuration.getAcceptableSlowCallsPercentage(),
+                                                        configuration.getCircuitOpenTimeInMillis(),
+                                                        configuration.getMinimumWindowSize(),
+                                                        newThrottlingUtil());
+        } else if (configuration.getStateManagerStrategy() == Strategy.FREQUENT_FAILURES) {
+            final ThrottlingUtil throttlingUtil = newThrottlingUtil();
             return FrequentFailuresStateManager.newInstance(configuration.getAcceptableFailuresPercentage(),
                                                             configuration.getCircuitOpenTimeInMillis(),
                                                             configuration.getMinimumWindowSize(),
@@ -38,4 +56,8 @@ public class BucketedStateManagersHolder {
                                                                configuration.getScheduledExecutor());
         }
     }
+
+    private ThrottlingUtil newThrottlingUtil() {
+        return new ThrottlingUtil(configuration.getThrottlingPercentage(), ThreadLocalRandom::current);
+    }
 }
@@ -0,0 +1,121 @@
+package com.smaato.switchgear.coalescing;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.smaato.switchgear.circuitbreaker.CircuitBreaker;
+import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
+
+/**
+ * <p>Coalesces concurrent calls with the same key within a group into a single call.</p>
+ * <p>
+ * Only the first caller starts the call, so the circuit breaker of the group sees one call, and later callers wait for it
+ * while it is in flight. Every caller keeps its own timeout and its own circuit breaker fallback, which is applied when the
+ * shared call is rejected. A caller never waits longer than the shared call, which is bound by the timeout of its first
+ * caller.
+ * </p>
+ */
+public class Coalescer {
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, Map<Object, CompletableFuture<?>>> inFlightCallsByGroup = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final CircuitBreaker timeoutCircuitBreaker;
+
+    /**
+     * @param timeoutCircuitBreaker applies the timeouts of the callers without tracking failures.
+     */
+    public Coalescer(final CircuitBreaker timeoutCircuitBreaker) {
+        this.timeoutCircuitBreaker = timeoutCircuitBreaker;
+    }
+
+    /**
+     * @param call starts the call behind the circuit breaker with the given circuit breaker fallback.
+     * @param circuitBreakerFallback of this caller.
+     * @param timeoutInMillis of this caller.
+     * @return future of this caller completed with the result of the shared call.
+     * @throws NullPointerException if groupName or key is null.
+     */
+    public <T> CompletableFuture<T> execute(final String groupName,
+                                            final Object key,
+                                            final Function<Function<Throwable, T>, CompletableFuture<T>> call,
+                                            final Function<Throwable, T> circuitBreakerFallback,
+                                            final int timeoutInMillis) {
+        Objects.requireNonNull(groupName);
+        Objects.requireNonNull(key);
+
+        final CompletableFuture<T> sharedCall = getOrStart(inFlightCallsByGroup.computeIfAbsent(groupName, group -> new ConcurrentHashMap<>()),
+                                                           key,
+                                                           call);
+        return timeoutCircuitBreaker.execute(() -> waitFor(sharedCall, circuitBreakerFallback), circuitBreakerFallback, timeoutInMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> getOrStart(final Map<Object, CompletableFuture<?>> inFlightCalls,
+                                                       final Object key,
+                                                       final Function<Function<Throwable, T>, CompletableFuture<T>> call) {
+        final CompletableFuture<T> sharedCall = new CompletableFuture<>();
+        final CompletableFuture<?> inFlightCall = inFlightCalls.putIfAbsent(key, sharedCall);
+        if (inFlightCall != null) {
+            return (CompletableFuture<T>) inFlightCall;
+        }
+
+        // Starting the call outside of the map, as it may complete right away, for example when the circuit is open.
+        sharedCall.whenComplete((value, failure) -> inFlightCalls.remove(key, sharedCall));
+        call.apply(Coalescer::reject).whenComplete((value, failure) -> {
+            if (failure == null) {
+                sharedCall.complete(value);
+            } else {
+                sharedCall.completeExceptionally(failure);
+            }
+        });
+        return sharedCall;
+    }
+
+    private static <T> CompletableFuture<T> waitFor(final CompletableFuture<T> sharedCall,
+                                                    final Function<Throwable, T> circuitBreakerFallback) {
+        final CompletableFuture<T> waiter = new CompletableFuture<>();
+        sharedCall.whenComplete((value, failure) -> {
+            if (failure == null) {
+                waiter.complete(value);
+                return;
+            }
+            final Throwable unwrappedFailure = ExceptionUnwrapper.INSTANCE.unwrapAsyncExceptions(failure);
+            if (unwrappedFailure instanceof RejectedCallException) {
+                completeWithFallback(waiter, circuitBreakerFallback, unwrappedFailure.getCause());
+            } else {
+                waiter.completeExceptionally(failure);
+            }
+        });
+        return waiter;
+    }
+
+    private static <T> void completeWithFallback(final CompletableFuture<T> waiter,
+                                                 final Function<Throwable, T> circuitBreakerFallback,
+                                                 final Throwable rejection) {
+        try {
+            waiter.complete(circuitBreakerFallback.apply(rejection));
+        } catch (final RuntimeException e) {
+            waiter.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T reject(final Throwable rejection) {
+        throw new RejectedCallException(rejection);
+    }
+
+    /**
+     * Rejection of the shared call, which is handled by the fallback of every caller.
+     */
+    private static final class RejectedCallException extends RuntimeException {
+
+        private static final long serialVersionUID = -2387645514873218405L;
+
+        private RejectedCallException(final Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.smaato.switchgear.concurrent;
+
+/**
+ * <p>Base of the rejections of calls by the components protecting a group.</p>
+ * <p>
+ * Rejections are expected control flow of an overloaded group and are thrown on its hot path, so they neither capture a
+ * stack trace nor format their message before it is asked for.
+ * </p>
+ */
+public abstract class CallRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 3074521369028476125L;
+
+    private final String messageFormat;
+    private final Object[] messageArguments;
+
+    protected CallRejectedException(final String messageFormat,
+                                    final Object... messageArguments) {
+        super(null, null, false, false);
+        this.messageFormat = messageFormat;
+        this.messageArguments = messageArguments;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format(messageFormat, messageArguments);
+    }
+}
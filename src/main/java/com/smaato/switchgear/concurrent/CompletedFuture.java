@@ -1,30 +1,19 @@
 package com.smaato.switchgear.concurrent;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public class CompletedFuture<T> extends CompletableFuture<T> {
 
-    private final Supplier<T> action;
-
+    /**
+     * Creates a future which is already completed with the result of the given action, or completed exceptionally
+     * when the action throws. Being complete right away, the future is safe to compose without blocking.
+     */
     public CompletedFuture(final Supplier<T> action) {
-        this.action = action;
-    }
-
-    @Override
-    public T getNow(final T valueIfAbsent) {
-        return action.get();
-    }
-
-    @Override
-    public T get() {
-        return action.get();
-    }
-
-    @Override
-    public T get(final long timeout,
-                 final TimeUnit unit) {
-        return action.get();
+        try {
+            complete(action.get());
+        } catch (final RuntimeException e) {
+            completeExceptionally(e);
+        }
     }
 }
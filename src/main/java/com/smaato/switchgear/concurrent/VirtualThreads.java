@@ -0,0 +1,85 @@
+package com.smaato.switchgear.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>Access to virtual threads of Java 21 and later while the library itself is built for Java 8.</p>
+ * <p>
+ * The virtual thread API is looked up once, when the class is loaded. Creating a thread goes through method handles only,
+ * no reflection is involved per call.
+ * </p>
+ */
+public class VirtualThreads {
+
+    public static final String UNSUPPORTED_ERROR = "Virtual threads require Java 21 or later";
+    private static final long INITIAL_THREAD_NUMBER = 1L;
+    private static final String THREAD_COUNTER_SEPARATOR = "-";
+
+    private static final MethodHandle THREAD_PER_TASK_EXECUTOR = findThreadPerTaskExecutor();
+    private static final MethodHandle OF_VIRTUAL = findOfVirtual();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return (THREAD_PER_TASK_EXECUTOR != null) && (OF_VIRTUAL != null);
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task. Threads are named with the given prefix and a counter.
+     *
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(final String name) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERROR);
+        }
+        try {
+            final ThreadFactory threadFactory = (ThreadFactory) OF_VIRTUAL.invoke(name + THREAD_COUNTER_SEPARATOR, INITIAL_THREAD_NUMBER);
+            return (ExecutorService) THREAD_PER_TASK_EXECUTOR.invoke(threadFactory);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable throwable) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERROR, throwable);
+        }
+    }
+
+    private static MethodHandle findThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class,
+                                                           "newThreadPerTaskExecutor",
+                                                           MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return handle equivalent to {@code (name, start) -> Thread.ofVirtual().name(name, start).factory()}
+     */
+    private static MethodHandle findOfVirtual() {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            final MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+            final MethodHandle name = lookup.findVirtual(ofVirtualClass,
+                                                         "name",
+                                                         MethodType.methodType(ofVirtualClass, String.class, long.class));
+            final MethodHandle factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+
+            // (name, start) -> ofVirtual().name(name, start)
+            final MethodHandle namedBuilder = MethodHandles.foldArguments(name, ofVirtual);
+            return MethodHandles.filterReturnValue(namedBuilder, factory.asType(MethodType.methodType(ThreadFactory.class,
+                                                                                                       ofVirtualClass)));
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
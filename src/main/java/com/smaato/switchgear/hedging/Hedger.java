@@ -0,0 +1,186 @@
+package com.smaato.switchgear.hedging;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.smaato.switchgear.budget.Budget;
+import com.smaato.switchgear.budget.BudgetHolder;
+import com.smaato.switchgear.circuitbreaker.HashedWheelTimer;
+import com.smaato.switchgear.latency.LatencyHistogram;
+import com.smaato.switchgear.latency.LatencyHistogramHolder;
+import com.smaato.switchgear.model.Hedging;
+
+/**
+ * <p>Fires backup calls when a call did not complete within the given latency percentile of its group.</p>
+ * <p>
+ * The first successful call wins and the others are cancelled, a failure is only reported once all fired calls failed.
+ * Backup calls are limited by a per-group {@link Budget}, so hedging cannot multiply the load of a struggling group.
+ * </p>
+ * <p>
+ * The hedges are fired by the timer or scheduler thread, which only hands the start of the backup call off to the given
+ * executor, so that a slow backup call cannot delay the other events of that thread.
+ * </p>
+ */
+public class Hedger {
+
+    private static final boolean DO_NOT_INTERRUPT = false;
+    private static final int MAX_SAVED_HEDGES = 10;
+    private static final long MICROS_PER_MILLI = 1000;
+
+    private final LatencyHistogramHolder latencyHistogramHolder;
+    private final BudgetHolder budgetHolder;
+    private final HashedWheelTimer timer;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param latencyHistogramHolder latencies of the successful calls per group.
+     * @param budgetPercentage max percentage of backup calls per group.
+     * @param timer timing wheel for hedge events, the scheduler is used as a fallback when the timer is null.
+     * @param scheduler fallback for hedge events.
+     */
+    public Hedger(final LatencyHistogramHolder latencyHistogramHolder,
+                  final int budgetPercentage,
+                  final HashedWheelTimer timer,
+                  final ScheduledExecutorService scheduler) {
+        this.latencyHistogramHolder = latencyHistogramHolder;
+        budgetHolder = new BudgetHolder(groupName -> new Budget(budgetPercentage, MAX_SAVED_HEDGES));
+        this.timer = timer;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param primaryCall starts the call.
+     * @param backupCall starts a backup call, may return a failed future when the backup call is rejected.
+     * @param backupExecutor runs the start of the backup calls, it may run them directly if starting a call does not run
+     * any code of the caller.
+     * @return future completed with the first successful call, or the last failure.
+     */
+    public <T> CompletableFuture<T> execute(final String groupName,
+                                            final Hedging hedging,
+                                            final Supplier<CompletableFuture<T>> primaryCall,
+                                            final Supplier<CompletableFuture<T>> backupCall,
+                                            final Executor backupExecutor) {
+        final LatencyHistogram latencyHistogram = latencyHistogramHolder.getFor(groupName);
+        final Budget budget = budgetHolder.getFor(groupName);
+        budget.deposit();
+
+        final HedgedCall<T> hedgedCall = new HedgedCall<>(latencyHistogram);
+        hedgedCall.start(primaryCall);
+
+        final OptionalLong hedgeDelayInMicros = latencyHistogram.getPercentileInMicros(hedging.getPercentile());
+        if (hedgeDelayInMicros.isPresent()) {
+            final long hedgeDelayInMillis = Math.max(1, ((hedgeDelayInMicros.getAsLong() + MICROS_PER_MILLI) - 1) / MICROS_PER_MILLI);
+            scheduleHedge(hedgedCall, backupCall, backupExecutor, budget, hedgeDelayInMillis, hedging.getMaxHedges());
+        }
+        return hedgedCall.getResult();
+    }
+
+    private <T> void scheduleHedge(final HedgedCall<T> hedgedCall,
+                                   final Supplier<CompletableFuture<T>> backupCall,
+                                   final Executor backupExecutor,
+                                   final Budget budget,
+                                   final long hedgeDelayInMillis,
+                                   final int remainingHedges) {
+        if (hedgedCall.getResult().isDone()) {
+            // Nothing to hedge, for example the primary call was rejected right away.
+            return;
+        }
+        final Runnable hedge = () -> {
+            if (hedgedCall.getResult().isDone()) {
+                return;
+            }
+            if (budget.tryWithdraw()) {
+                hedgedCall.startOn(backupExecutor, backupCall);
+            }
+            if (remainingHedges > 1) {
+                scheduleHedge(hedgedCall, backupCall, backupExecutor, budget, hedgeDelayInMillis, remainingHedges - 1);
+            }
+        };
+        final Runnable cancellation = schedule(hedge, hedgeDelayInMillis);
+        hedgedCall.getResult().whenComplete((value, failure) -> cancellation.run());
+    }
+
+    private Runnable schedule(final Runnable task,
+                              final long delayInMillis) {
+        if (timer != null) {
+            final HashedWheelTimer.Timeout timeout = timer.newTimeout(task, delayInMillis);
+            return timeout::cancel;
+        }
+        final ScheduledFuture<?> scheduledFuture = scheduler.schedule(task, delayInMillis, MILLISECONDS);
+        return () -> scheduledFuture.cancel(DO_NOT_INTERRUPT);
+    }
+
+    private static final class HedgedCall<T> {
+
+        private final LatencyHistogram latencyHistogram;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Queue<CompletableFuture<T>> calls = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCalls = new AtomicInteger(0);
+
+        private HedgedCall(final LatencyHistogram latencyHistogram) {
+            this.latencyHistogram = latencyHistogram;
+            result.whenComplete((value, failure) -> calls.forEach(call -> call.cancel(DO_NOT_INTERRUPT)));
+        }
+
+        private void start(final Supplier<CompletableFuture<T>> callSupplier) {
+            pendingCalls.incrementAndGet();
+            run(callSupplier);
+        }
+
+        /**
+         * The call is pending from the hand off on, so that a failure of the other calls does not complete the result before
+         * the call started.
+         */
+        private void startOn(final Executor executor,
+                             final Supplier<CompletableFuture<T>> callSupplier) {
+            pendingCalls.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    if (!result.isDone()) {
+                        run(callSupplier);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                handleFailure(e);
+            }
+        }
+
+        private void run(final Supplier<CompletableFuture<T>> callSupplier) {
+            final long startTime = System.nanoTime();
+            final CompletableFuture<T> call = callSupplier.get();
+            calls.add(call);
+            if (result.isDone()) {
+                // Lost the race with the completion, which may not have seen this call.
+                call.cancel(DO_NOT_INTERRUPT);
+            }
+
+            call.whenComplete((value, failure) -> {
+                if (failure == null) {
+                    latencyHistogram.record(System.nanoTime() - startTime);
+                    result.complete(value);
+                } else {
+                    handleFailure(failure);
+                }
+            });
+        }
+
+        private void handleFailure(final Throwable failure) {
+            if (pendingCalls.decrementAndGet() == 0) {
+                result.completeExceptionally(failure);
+            }
+        }
+
+        private CompletableFuture<T> getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Bulkhead with a concurrency limit adapting to the latency of the calls, following the gradient algorithm.</p>
+ * <p>
+ * Every latency sample is compared to a long term average latency. While the latency is within
+ * {@value #RTT_TOLERANCE} times the average, the limit grows by its square root, otherwise it shrinks in proportion to the
+ * latency increase, by half at most. Limit changes are smoothed, so a single slow call has little effect, and the limit
+ * only grows while at least half of it is in use. The long term average drifts down when latency recovers, so the limit
+ * does not stay low after a slow period.
+ * </p>
+ * <p>All state is updated with compare-and-set loops, there are no locks on the call path.</p>
+ */
+public class AdaptiveBulkhead implements Bulkhead {
+
+    private static final int MIN_LIMIT = 1;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 1.0 / 600;
+    private static final double LONG_RTT_DRIFT = 0.95;
+    private static final long NO_RTT = Double.doubleToLongBits(0);
+
+    private final int maxLimit;
+    private final AtomicInteger concurrentCalls = new AtomicInteger(0);
+    private final AtomicLong limitBits;
+    private final AtomicLong longRttBits = new AtomicLong(NO_RTT);
+
+    public AdaptiveBulkhead(final ConcurrencyLimit concurrencyLimit) {
+        maxLimit = concurrencyLimit.getMaxLimit();
+        limitBits = new AtomicLong(Double.doubleToLongBits(concurrencyLimit.getInitialLimit()));
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        final int limit = getLimit();
+        int current = concurrentCalls.get();
+        while (current < limit) {
+            if (concurrentCalls.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = concurrentCalls.get();
+        }
+        return false;
+    }
+
+    @Override
+    public void release() {
+        concurrentCalls.decrementAndGet();
+    }
+
+    @Override
+    public void release(final long latencyInNanos) {
+        final int callsInFlight = concurrentCalls.getAndDecrement();
+        if (latencyInNanos > 0) {
+            updateLimit(latencyInNanos, callsInFlight);
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getConcurrentCalls() {
+        return concurrentCalls.get();
+    }
+
+    private void updateLimit(final long rtt,
+                             final int callsInFlight) {
+        final double longRtt = updateLongRtt(rtt);
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, (RTT_TOLERANCE * longRtt) / rtt));
+
+        long currentBits = limitBits.get();
+        while (true) {
+            final double currentLimit = Double.longBitsToDouble(currentBits);
+            if ((gradient == 1.0) && (callsInFlight < (currentLimit / 2))) {
+                // The calls do not use the limit, so there is nothing to learn about a higher one.
+                return;
+            }
+            final double gradientLimit = (currentLimit * gradient) + Math.sqrt(currentLimit);
+            final double smoothedLimit = (currentLimit * (1 - SMOOTHING)) + (gradientLimit * SMOOTHING);
+            final double newLimit = Math.max(MIN_LIMIT, Math.min(maxLimit, smoothedLimit));
+            if (limitBits.compareAndSet(currentBits, Double.doubleToLongBits(newLimit))) {
+                return;
+            }
+            currentBits = limitBits.get();
+        }
+    }
+
+    private double updateLongRtt(final long rtt) {
+        long currentBits = longRttBits.get();
+        while (true) {
+            final double currentLongRtt = Double.longBitsToDouble(currentBits);
+            double newLongRtt = (currentBits == NO_RTT) ? rtt : (currentLongRtt * (1 - LONG_RTT_WEIGHT)) + (rtt * LONG_RTT_WEIGHT);
+            if (newLongRtt > (2.0 * rtt)) {
+                newLongRtt *= LONG_RTT_DRIFT;
+            }
+            if (longRttBits.compareAndSet(currentBits, Double.doubleToLongBits(newLongRtt))) {
+                return newLongRtt;
+            }
+            currentBits = longRttBits.get();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.smaato.switchgear.isolation;
+
+public interface Bulkhead {
+
+    /**
+     * @return true if the call is permitted, every permitted call has to be followed by {@link #release()}.
+     */
+    boolean tryAcquire();
+
+    void release();
+
+    /**
+     * Releases the permit of a call which returned after the given latency.
+     */
+    default void release(final long latencyInNanos) {
+        release();
+    }
+}
@@ -0,0 +1,17 @@
+package com.smaato.switchgear.isolation;
+
+import com.smaato.switchgear.concurrent.CallRejectedException;
+
+/**
+ * Rejection of a call by the bulkhead of its group.
+ */
+public class BulkheadFullException extends CallRejectedException {
+
+    private static final long serialVersionUID = -2937417447385137394L;
+
+    private static final String BULKHEAD_FULL_ERROR = "Max concurrent calls reached for group '%s'";
+
+    public BulkheadFullException(final String groupName) {
+        super(BULKHEAD_FULL_ERROR, groupName);
+    }
+}
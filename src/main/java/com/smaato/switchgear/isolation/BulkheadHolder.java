@@ -0,0 +1,24 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class BulkheadHolder {
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final Function<String, Bulkhead> bulkheadFactory;
+
+    public BulkheadHolder(final Function<String, Bulkhead> bulkheadFactory) {
+        this.bulkheadFactory = bulkheadFactory;
+    }
+
+    public Bulkhead getFor(final String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return bulkheads.computeIfAbsent(groupName, bulkheadFactory);
+    }
+}
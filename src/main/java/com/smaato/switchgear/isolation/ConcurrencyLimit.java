@@ -0,0 +1,29 @@
+package com.smaato.switchgear.isolation;
+
+public class ConcurrencyLimit {
+
+    private final int initialLimit;
+    private final int maxLimit;
+
+    /**
+     * @param initialLimit concurrent calls permitted before any latency has been observed.
+     * @param maxLimit upper bound of the adaptive limit.
+     * @throws IllegalArgumentException if initialLimit less or equal to zero or greater than maxLimit.
+     */
+    public ConcurrencyLimit(final int initialLimit,
+                            final int maxLimit) {
+        if ((initialLimit <= 0) || (initialLimit > maxLimit)) {
+            throw new IllegalArgumentException();
+        }
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
@@ -0,0 +1,16 @@
+package com.smaato.switchgear.isolation;
+
+public enum DummyBulkhead implements Bulkhead {
+
+    INSTANCE;
+
+    @Override
+    public boolean tryAcquire() {
+        return true;
+    }
+
+    @Override
+    public void release() {
+        // Nothing to release, all calls are permitted.
+    }
+}
@@ -0,0 +1,124 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.smaato.switchgear.model.Deadline;
+
+/**
+ * <p>Bounded thread pool which runs the queued calls in the order of their deadlines instead of their arrival.</p>
+ * <p>
+ * A call whose deadline passed while it was waiting in the queue is dropped without running, as it already timed out and
+ * nobody waits for its result. Tasks without a deadline are ordered by the time they were queued and are never dropped.
+ * Ties are broken by arrival order.
+ * </p>
+ */
+public class EarliestDeadlineFirstExecutor implements Executor {
+
+    private final ThreadPoolExecutor threadPool;
+    private final AtomicLong sequence = new AtomicLong(0L);
+    private final AtomicLong droppedTasks = new AtomicLong(0L);
+
+    EarliestDeadlineFirstExecutor(final ThreadPoolSize threadPoolSize,
+                                  final long keepAliveTimeInSeconds,
+                                  final ThreadFactory threadFactory) {
+        threadPool = new ThreadPoolExecutor(threadPoolSize.getThreads(),
+                                            threadPoolSize.getThreads(),
+                                            keepAliveTimeInSeconds,
+                                            TimeUnit.SECONDS,
+                                            new BoundedPriorityBlockingQueue(threadPoolSize.getQueueCapacity()),
+                                            threadFactory);
+        threadPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException if all threads are busy and the queue is full.
+     */
+    @Override
+    public void execute(final Runnable task) {
+        threadPool.execute(new DeadlineTask(task, null, System.nanoTime(), sequence.getAndIncrement()));
+    }
+
+    /**
+     * @param deadline after which the task is dropped if it did not start yet.
+     * @throws java.util.concurrent.RejectedExecutionException if all threads are busy and the queue is full.
+     */
+    public void execute(final Runnable task,
+                        final Deadline deadline) {
+        threadPool.execute(new DeadlineTask(task, deadline, deadline.getNanoTime(), sequence.getAndIncrement()));
+    }
+
+    /**
+     * Stops accepting tasks, the queued ones are still run.
+     */
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    public long getDroppedTasks() {
+        return droppedTasks.get();
+    }
+
+    private final class DeadlineTask implements Runnable, Comparable<DeadlineTask> {
+
+        private final Runnable task;
+        private final Deadline deadline;
+        private final long priorityNanoTime;
+        private final long sequenceNumber;
+
+        private DeadlineTask(final Runnable task,
+                             final Deadline deadline,
+                             final long priorityNanoTime,
+                             final long sequenceNumber) {
+            this.task = task;
+            this.deadline = deadline;
+            this.priorityNanoTime = priorityNanoTime;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public void run() {
+            if ((deadline != null) && deadline.isExpired()) {
+                droppedTasks.incrementAndGet();
+                return;
+            }
+            task.run();
+        }
+
+        @Override
+        public int compareTo(final DeadlineTask other) {
+            // Differences instead of comparisons, the nano time may overflow.
+            final long difference = priorityNanoTime - other.priorityNanoTime;
+            if (difference != 0L) {
+                return (difference < 0L) ? -1 : 1;
+            }
+            return Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+
+    private static final class BoundedPriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = -3517082736193570218L;
+
+        private final int capacity;
+
+        private BoundedPriorityBlockingQueue(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * The size check is not atomic with the insertion, so concurrent calls may exceed the capacity by a few tasks.
+         */
+        @Override
+        public boolean offer(final Runnable task) {
+            if (size() >= capacity) {
+                return false;
+            }
+            return super.offer(task);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+public class ExecutorHolder {
+
+    private static final int INITIAL_CAPACITY = 1;
+    private static final Function<String, Executor> NO_DEDICATED_EXECUTOR = groupName -> null;
+
+    private final Map<String, Executor> executors = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final Queue<Executor> dedicatedExecutors = new ConcurrentLinkedQueue<>();
+    private final Function<String, Executor> dedicatedExecutorFactory;
+    private final Function<String, Executor> sharedExecutorFactory;
+    private volatile boolean shutdown;
+
+    /**
+     * @param executorFactory provides the executors of the groups, which are not owned and never shut down by the holder.
+     */
+    public ExecutorHolder(final Function<String, Executor> executorFactory) {
+        this(NO_DEDICATED_EXECUTOR, executorFactory);
+    }
+
+    /**
+     * @param dedicatedExecutorFactory creates the executor owned by a group, or returns null if the group has none.
+     * @param sharedExecutorFactory provides the executor of a group without an own one, it is never shut down by the holder.
+     */
+    public ExecutorHolder(final Function<String, Executor> dedicatedExecutorFactory,
+                          final Function<String, Executor> sharedExecutorFactory) {
+        this.dedicatedExecutorFactory = dedicatedExecutorFactory;
+        this.sharedExecutorFactory = sharedExecutorFactory;
+    }
+
+    public Executor getFor(final String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return executors.computeIfAbsent(groupName, this::newExecutor);
+    }
+
+    /**
+     * Shuts down the dedicated executors of the groups, including the ones created afterwards. Calls already queued are
+     * still executed, later calls are rejected.
+     */
+    public void shutdown() {
+        shutdown = true;
+        dedicatedExecutors.forEach(ExecutorHolder::shutdown);
+    }
+
+    private Executor newExecutor(final String groupName) {
+        final Executor dedicatedExecutor = dedicatedExecutorFactory.apply(groupName);
+        if (dedicatedExecutor == null) {
+            return sharedExecutorFactory.apply(groupName);
+        }
+        dedicatedExecutors.add(dedicatedExecutor);
+        if (shutdown) {
+            shutdown(dedicatedExecutor);
+        }
+        return dedicatedExecutor;
+    }
+
+    private static void shutdown(final Executor executor) {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        } else if (executor instanceof EarliestDeadlineFirstExecutor) {
+            ((EarliestDeadlineFirstExecutor) executor).shutdown();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.smaato.switchgear.isolation;
+
+import com.smaato.switchgear.concurrent.CallRejectedException;
+import com.smaato.switchgear.model.Priority;
+
+/**
+ * Rejection of a call by the {@link LoadShedder}.
+ */
+public class LoadShedException extends CallRejectedException {
+
+    private static final long serialVersionUID = -6104827364920571325L;
+
+    private static final String LOAD_SHED_ERROR = "Call of group '%s' with priority %s shed under load";
+
+    public LoadShedException(final String groupName,
+                             final Priority priority) {
+        super(LOAD_SHED_ERROR, groupName, priority);
+    }
+}
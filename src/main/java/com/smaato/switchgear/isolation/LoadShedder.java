@@ -0,0 +1,115 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.smaato.switchgear.model.Priority;
+
+/**
+ * <p>Node wide limit of in-flight calls which sheds lower priorities first.</p>
+ * <p>
+ * A call is in flight from the moment it is admitted until its isolation thread returns, so calls waiting in the queue of
+ * an executor count as well. Calls of {@link Priority#LOW} are admitted until half of the limit is in flight, calls of
+ * {@link Priority#NORMAL} until 80% and calls of {@link Priority#HIGH} until the whole limit.
+ * </p>
+ */
+public class LoadShedder {
+
+    private static final int LOW_PRIORITY_PERCENTAGE = 50;
+    private static final int NORMAL_PRIORITY_PERCENTAGE = 80;
+
+    private final int lowPriorityLimit;
+    private final int normalPriorityLimit;
+    private final int highPriorityLimit;
+    private final AtomicInteger inFlightCalls = new AtomicInteger(0);
+
+    /**
+     * @throws IllegalArgumentException if maxInFlightCalls less or equal to zero.
+     */
+    public LoadShedder(final int maxInFlightCalls) {
+        if (maxInFlightCalls <= 0) {
+            throw new IllegalArgumentException();
+        }
+        lowPriorityLimit = Math.max(1, (maxInFlightCalls * LOW_PRIORITY_PERCENTAGE) / 100);
+        normalPriorityLimit = Math.max(1, (maxInFlightCalls * NORMAL_PRIORITY_PERCENTAGE) / 100);
+        highPriorityLimit = maxInFlightCalls;
+    }
+
+    /**
+     * @return true if the call is admitted, every admitted call has to be followed by {@link #release()}.
+     */
+    public boolean tryAcquire(final Priority priority) {
+        final int limit = getLimit(priority);
+        int current = inFlightCalls.get();
+        while (current < limit) {
+            if (inFlightCalls.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = inFlightCalls.get();
+        }
+        return false;
+    }
+
+    public void release() {
+        inFlightCalls.decrementAndGet();
+    }
+
+    /**
+     * @return bulkhead which admits the calls of the given priority to both, this load shedder and the given bulkhead,
+     * and releases both.
+     */
+    public Bulkhead track(final Bulkhead bulkhead,
+                          final Priority priority) {
+        return new SheddingBulkhead(bulkhead, priority);
+    }
+
+    public int getInFlightCalls() {
+        return inFlightCalls.get();
+    }
+
+    private int getLimit(final Priority priority) {
+        switch (priority) {
+            case LOW:
+                return lowPriorityLimit;
+            case NORMAL:
+                return normalPriorityLimit;
+            default:
+                return highPriorityLimit;
+        }
+    }
+
+    private final class SheddingBulkhead implements Bulkhead {
+
+        private final Bulkhead bulkhead;
+        private final Priority priority;
+
+        private SheddingBulkhead(final Bulkhead bulkhead,
+                                 final Priority priority) {
+            this.bulkhead = bulkhead;
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean tryAcquire() {
+            if (!LoadShedder.this.tryAcquire(priority)) {
+                return false;
+            }
+            if (!bulkhead.tryAcquire()) {
+                LoadShedder.this.release();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void release() {
+            bulkhead.release();
+            LoadShedder.this.release();
+        }
+
+        @Override
+        public void release(final long latencyInNanos) {
+            bulkhead.release(latencyInNanos);
+            LoadShedder.this.release();
+        }
+    }
+}
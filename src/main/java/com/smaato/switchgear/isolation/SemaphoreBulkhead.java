@@ -0,0 +1,37 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SemaphoreBulkhead implements Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final AtomicInteger concurrentCalls = new AtomicInteger(0);
+
+    public SemaphoreBulkhead(final int maxConcurrentCalls) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("Max concurrent calls should be greater then zero");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        int current = concurrentCalls.get();
+        while (current < maxConcurrentCalls) {
+            if (concurrentCalls.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = concurrentCalls.get();
+        }
+        return false;
+    }
+
+    @Override
+    public void release() {
+        concurrentCalls.decrementAndGet();
+    }
+
+    public int getConcurrentCalls() {
+        return concurrentCalls.get();
+    }
+}
@@ -0,0 +1,69 @@
+package com.smaato.switchgear.isolation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.smaato.switchgear.concurrent.ThreadFactoryBuilder;
+
+public class ThreadPoolFactory {
+
+    private static final String ISOLATION_THREAD_NAME = "switchgear-isolation";
+    private static final long KEEP_ALIVE_TIME_IN_SECONDS = 60L;
+
+    private ThreadPoolFactory() {
+    }
+
+    /**
+     * Creates a bounded pool dedicated to the given group. The threads are named after the group and are stopped when idle.
+     * When all threads are busy and the queue is full, the pool rejects the call with
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public static ExecutorService newInstance(final String groupName,
+                                              final ThreadPoolSize threadPoolSize) {
+        final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threadPoolSize.getThreads(),
+                                                                     threadPoolSize.getThreads(),
+                                                                     KEEP_ALIVE_TIME_IN_SECONDS,
+                                                                     TimeUnit.SECONDS,
+                                                                     newQueue(threadPoolSize.getQueueCapacity()),
+                                                                     ThreadFactoryBuilder.builder()
+                                                                                         .withName(getThreadName(groupName))
+                                                                                         .isDaemon()
+                                                                                         .build());
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
+    /**
+     * Creates a bounded pool dedicated to the given group like {@link #newInstance(String, ThreadPoolSize)}, which runs the
+     * queued calls in the order of their deadlines and drops the ones whose deadline passed while they were queued. A pool
+     * without a queue has nothing to order, so it is created as a regular pool.
+     */
+    public static Executor newEarliestDeadlineFirstInstance(final String groupName,
+                                                            final ThreadPoolSize threadPoolSize) {
+        if (threadPoolSize.getQueueCapacity() == 0) {
+            return newInstance(groupName, threadPoolSize);
+        }
+        return new EarliestDeadlineFirstExecutor(threadPoolSize,
+                                                 KEEP_ALIVE_TIME_IN_SECONDS,
+                                                 ThreadFactoryBuilder.builder()
+                                                                     .withName(getThreadName(groupName))
+                                                                     .isDaemon()
+                                                                     .build());
+    }
+
+    private static BlockingQueue<Runnable> newQueue(final int queueCapacity) {
+        if (queueCapacity == 0) {
+            return new SynchronousQueue<>();
+        }
+        return new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    private static String getThreadName(final String groupName) {
+        return groupName.isEmpty() ? ISOLATION_THREAD_NAME : (ISOLATION_THREAD_NAME + '-' + groupName);
+    }
+}
@@ -0,0 +1,29 @@
+package com.smaato.switchgear.isolation;
+
+public class ThreadPoolSize {
+
+    private final int threads;
+    private final int queueCapacity;
+
+    /**
+     * @param threads max number of threads of the pool.
+     * @param queueCapacity max number of calls waiting for a thread, zero hands calls over to threads directly.
+     * @throws IllegalArgumentException if threads less or equal to zero or queueCapacity is negative.
+     */
+    public ThreadPoolSize(final int threads,
+                          final int queueCapacity) {
+        if ((threads <= 0) || (queueCapacity < 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+}
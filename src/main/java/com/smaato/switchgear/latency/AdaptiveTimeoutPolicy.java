@@ -0,0 +1,47 @@
+package com.smaato.switchgear.latency;
+
+public class AdaptiveTimeoutPolicy {
+
+    private final double percentile;
+    private final double multiplier;
+    private final int minTimeoutInMillis;
+    private final int maxTimeoutInMillis;
+
+    /**
+     * @param percentile of the observed latency the timeout is derived from, in the range of (0, 100).
+     * @param multiplier applied to the latency percentile, at least 1.
+     * @param minTimeoutInMillis lower bound of the timeout.
+     * @param maxTimeoutInMillis upper bound of the timeout.
+     * @throws IllegalArgumentException if percentile is not in the range of (0, 100), multiplier is less than 1,
+     * minTimeoutInMillis less or equal to zero or greater than maxTimeoutInMillis.
+     */
+    public AdaptiveTimeoutPolicy(final double percentile,
+                                 final double multiplier,
+                                 final int minTimeoutInMillis,
+                                 final int maxTimeoutInMillis) {
+        if (!((percentile > 0) && (percentile < 100)) || !(multiplier >= 1) || (minTimeoutInMillis <= 0) ||
+                (minTimeoutInMillis > maxTimeoutInMillis)) {
+            throw new IllegalArgumentException();
+        }
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.minTimeoutInMillis = minTimeoutInMillis;
+        this.maxTimeoutInMillis = maxTimeoutInMillis;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public int getMinTimeoutInMillis() {
+        return minTimeoutInMillis;
+    }
+
+    public int getMaxTimeoutInMillis() {
+        return maxTimeoutInMillis;
+    }
+}
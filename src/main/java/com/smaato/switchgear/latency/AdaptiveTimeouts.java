@@ -0,0 +1,97 @@
+package com.smaato.switchgear.latency;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.BucketRange;
+import com.smaato.switchgear.circuitbreaker.state.bucket.BucketRangeFinder;
+
+/**
+ * <p>Derives the timeout of the calls of a group from their observed latency.</p>
+ * <p>
+ * Latencies are kept in a {@link LatencyHistogram} per group and timeout bucket, the timeout is the configured percentile
+ * multiplied by the multiplier, clamped between the min and the max timeout. It never exceeds the timeout requested for the
+ * call, which is also used until enough latencies have been observed. Timed out calls are recorded with the time they took,
+ * so a timeout which is too short for the latency percentile grows again. The timeout of a bucket is recomputed at most
+ * every {@value #RECOMPUTE_INTERVAL_IN_MILLIS} milliseconds.
+ * </p>
+ */
+public class AdaptiveTimeouts {
+
+    private static final int INITIAL_CAPACITY = 1;
+    private static final long RECOMPUTE_INTERVAL_IN_MILLIS = 100;
+    private static final long MICROS_PER_MILLI = 1000;
+
+    private final AdaptiveTimeoutPolicy policy;
+    private final BucketRangeFinder bucketRangeFinder;
+    private final Map<String, Map<BucketRange, BucketTimeout>> bucketTimeoutsByGroup = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+    public AdaptiveTimeouts(final AdaptiveTimeoutPolicy policy,
+                            final BucketRangeFinder bucketRangeFinder) {
+        this.policy = policy;
+        this.bucketRangeFinder = bucketRangeFinder;
+    }
+
+    /**
+     * @param timeoutInMillis requested timeout of the call.
+     * @return adaptive timeout, not greater than the requested one.
+     */
+    public int getTimeoutInMillis(final String groupName,
+                                  final int timeoutInMillis) {
+        final int adaptiveTimeoutInMillis = getBucketTimeout(groupName, timeoutInMillis).getTimeoutInMillis();
+        if (adaptiveTimeoutInMillis == BucketTimeout.NOT_COMPUTED) {
+            return timeoutInMillis;
+        }
+        return Math.min(adaptiveTimeoutInMillis, timeoutInMillis);
+    }
+
+    /**
+     * @param timeoutInMillis requested timeout of the call.
+     * @param latencyInNanos time the successful or timed out call took.
+     */
+    public void record(final String groupName,
+                       final int timeoutInMillis,
+                       final long latencyInNanos) {
+        getBucketTimeout(groupName, timeoutInMillis).latencyHistogram.record(latencyInNanos);
+    }
+
+    private BucketTimeout getBucketTimeout(final String groupName,
+                                           final int timeoutInMillis) {
+        Objects.requireNonNull(groupName);
+
+        return bucketTimeoutsByGroup.computeIfAbsent(groupName, group -> new ConcurrentHashMap<>())
+                                    .computeIfAbsent(bucketRangeFinder.find(timeoutInMillis), range -> new BucketTimeout());
+    }
+
+    private final class BucketTimeout {
+
+        private static final int NOT_COMPUTED = -1;
+
+        private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+        private volatile int timeoutInMillis = NOT_COMPUTED;
+        private volatile long computedAt = System.nanoTime() - MILLISECONDS.toNanos(RECOMPUTE_INTERVAL_IN_MILLIS);
+
+        private int getTimeoutInMillis() {
+            final long now = System.nanoTime();
+            if ((now - computedAt) >= MILLISECONDS.toNanos(RECOMPUTE_INTERVAL_IN_MILLIS)) {
+                // Concurrent recomputations are harmless, they come to the same result.
+                computedAt = now;
+                timeoutInMillis = computeTimeoutInMillis();
+            }
+            return timeoutInMillis;
+        }
+
+        private int computeTimeoutInMillis() {
+            final OptionalLong percentileInMicros = latencyHistogram.getPercentileInMicros(policy.getPercentile());
+            if (!percentileInMicros.isPresent()) {
+                return NOT_COMPUTED;
+            }
+            final double timeoutInMillis = (percentileInMicros.getAsLong() * policy.getMultiplier()) / MICROS_PER_MILLI;
+            return (int) Math.max(policy.getMinTimeoutInMillis(), Math.min(policy.getMaxTimeoutInMillis(), Math.ceil(timeoutInMillis)));
+        }
+    }
+}
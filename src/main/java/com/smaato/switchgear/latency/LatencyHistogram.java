@@ -0,0 +1,88 @@
+package com.smaato.switchgear.latency;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Lock-free histogram of call latencies with logarithmic buckets.</p>
+ * <p>
+ * Every power of two is split into four buckets, so a percentile is overestimated by at most 25%. To follow latency
+ * changes, all the counts are halved every {@value #SAMPLES_BEFORE_DECAY} samples. Percentiles are not reported until the
+ * histogram holds {@value #MIN_SAMPLES} samples.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    static final int MIN_SAMPLES = 100;
+    static final long SAMPLES_BEFORE_DECAY = 10_000;
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = MAX_EXPONENT * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong samplesSinceDecay = new AtomicLong();
+
+    public void record(final long latencyInNanos) {
+        counts.incrementAndGet(getIndex(NANOSECONDS.toMicros(latencyInNanos)));
+        if (samplesSinceDecay.incrementAndGet() == SAMPLES_BEFORE_DECAY) {
+            samplesSinceDecay.set(0);
+            decay();
+        }
+    }
+
+    /**
+     * @param percentile in the range of (0, 100).
+     * @return upper bound of the latency percentile in microseconds, or empty if there are not enough samples yet.
+     */
+    public OptionalLong getPercentileInMicros(final double percentile) {
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total < MIN_SAMPLES) {
+            return OptionalLong.empty();
+        }
+
+        final long rank = (long) Math.ceil((percentile / 100) * total);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return OptionalLong.of(getUpperBound(i));
+            }
+        }
+        return OptionalLong.of(getUpperBound(BUCKETS - 1));
+    }
+
+    private void decay() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    static int getIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min((SUB_BUCKETS * (exponent - 1)) + subBucket, BUCKETS - 1);
+    }
+
+    static long getUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = (index / SUB_BUCKETS) + 1;
+        final long subBucket = index % SUB_BUCKETS;
+        final long lowerBound = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return (lowerBound + (1L << (exponent - SUB_BUCKET_BITS))) - 1;
+    }
+}
@@ -0,0 +1,24 @@
+package com.smaato.switchgear.latency;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class LatencyHistogramHolder {
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final Function<String, LatencyHistogram> histogramFactory;
+
+    public LatencyHistogramHolder(final Function<String, LatencyHistogram> histogramFactory) {
+        this.histogramFactory = histogramFactory;
+    }
+
+    public LatencyHistogram getFor(final String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return histograms.computeIfAbsent(groupName, histogramFactory);
+    }
+}
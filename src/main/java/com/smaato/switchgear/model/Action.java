@@ -1,11 +1,16 @@
 package com.smaato.switchgear.model;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import com.smaato.switchgear.batching.MissingBatchResultException;
 import com.smaato.switchgear.circuitbreaker.CircuitBreakerOpenException;
 
 public class Action<T> {
@@ -14,17 +19,47 @@ public class Action<T> {
     private final Function<Throwable, T> circuitBreakerFallback;
     private final Function<Throwable, T> failureFallback;
     private final Integer timeoutInMillis;
+    private final Hedging hedging;
+    private final int maxRetries;
+    private final Object coalescingKey;
+    private final Object cacheKey;
+    private final Priority priority;
+    private final boolean interruptOnTimeout;
+    private final Runnable cancellationHook;
+    private final Batching<Object, T> batching;
+    private final Object batchKey;
+    private final Supplier<CompletionStage<T>> asyncCall;
 
     private Action(final String groupName,
                    final Callable<T> call,
                    final Function<Throwable, T> circuitBreakerFallback,
                    final Function<Throwable, T> failureFallback,
-                   final Integer timeoutInMillis) {
+                   final Integer timeoutInMillis,
+                   final Hedging hedging,
+                   final int maxRetries,
+                   final Object coalescingKey,
+                   final Object cacheKey,
+                   final Priority priority,
+                   final boolean interruptOnTimeout,
+                   final Runnable cancellationHook,
+                   final Batching<Object, T> batching,
+                   final Object batchKey,
+                   final Supplier<CompletionStage<T>> asyncCall) {
         this.groupName = groupName;
         this.call = call;
         this.circuitBreakerFallback = circuitBreakerFallback;
         this.failureFallback = failureFallback;
         this.timeoutInMillis = timeoutInMillis;
+        this.hedging = hedging;
+        this.maxRetries = maxRetries;
+        this.coalescingKey = coalescingKey;
+        this.cacheKey = cacheKey;
+        this.priority = priority;
+        this.interruptOnTimeout = interruptOnTimeout;
+        this.cancellationHook = cancellationHook;
+        this.batching = batching;
+        this.batchKey = batchKey;
+        this.asyncCall = asyncCall;
     }
 
     /**
@@ -53,6 +88,73 @@ public class Action<T> {
         return new Builder<>(call);
     }
 
+    /**
+     * Create action from provided non-blocking call with default values for group name and circuit breaker fallback.
+     *
+     * @param asyncCall see {@link #asyncBuilder(Supplier)}.
+     * @param <T> action result type.
+     * @return action with default group name and default circuit breaker fallback.
+     * @throws NullPointerException if asyncCall is null.
+     */
+    public static <T> Action<T> fromAsync(final Supplier<CompletionStage<T>> asyncCall) {
+        return asyncBuilder(asyncCall).build();
+    }
+
+    /**
+     * Create action builder with provided non-blocking call, for example of an asynchronous HTTP client.
+     * <p>
+     * The call is invoked by the calling thread and runs behind the circuit breaker with timeouts and bulkhead like any
+     * other action, but without an isolation thread. It must not block. Retries do not apply to asynchronous actions. The
+     * call of the action waits for the completion of the asynchronous call.
+     * </p>
+     *
+     * @param asyncCall starts the call and returns its completion stage right away.
+     * @param <T> action result type.
+     * @return action builder to specify non-default values for group name and circuit breaker fallback.
+     * @throws NullPointerException if asyncCall is null.
+     */
+    public static <T> Builder<T> asyncBuilder(final Supplier<CompletionStage<T>> asyncCall) {
+        Objects.requireNonNull(asyncCall);
+        final Builder<T> builder = new Builder<>(() -> asyncCall.get().toCompletableFuture().get());
+        builder.asyncCall = asyncCall;
+        return builder;
+    }
+
+    /**
+     * Create action builder for an item of a batch. Actions of the same group with the same batching are merged into one
+     * batched call, see {@link Batching}.
+     * <p>
+     * Every item keeps its own timeout, circuit breaker accounting and fallbacks. Retries and hedging do not apply to
+     * items of a batch. The call of the action is the batch call with this item only.
+     * </p>
+     *
+     * @param batching shared by the actions to merge.
+     * @param key of the item, passed to the batch call.
+     * @param <K> item key type.
+     * @param <T> action result type.
+     * @return action builder to specify non-default values for group name and circuit breaker fallback.
+     * @throws NullPointerException if batching or key is null.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, T> Builder<T> builder(final Batching<K, T> batching,
+                                            final K key) {
+        Objects.requireNonNull(batching);
+        Objects.requireNonNull(key);
+        final Builder<T> builder = new Builder<>(() -> callSingleItem(batching, key));
+        builder.batching = (Batching<Object, T>) batching;
+        builder.batchKey = key;
+        return builder;
+    }
+
+    private static <K, T> T callSingleItem(final Batching<K, T> batching,
+                                           final K key) throws Exception {
+        final Map<K, T> results = batching.getBatchCall().call(Collections.singletonList(key));
+        if ((results == null) || !results.containsKey(key)) {
+            throw new MissingBatchResultException(key);
+        }
+        return results.get(key);
+    }
+
     public String getGroupName() {
         return groupName;
     }
@@ -73,6 +175,49 @@ public class Action<T> {
         return Optional.ofNullable(timeoutInMillis);
     }
 
+    public Optional<Hedging> getHedging() {
+        return Optional.ofNullable(hedging);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Optional<Object> getCoalescingKey() {
+        return Optional.ofNullable(coalescingKey);
+    }
+
+    public Optional<Object> getCacheKey() {
+        return Optional.ofNullable(cacheKey);
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public boolean isInterruptOnTimeout() {
+        return interruptOnTimeout;
+    }
+
+    public Optional<Runnable> getCancellationHook() {
+        return Optional.ofNullable(cancellationHook);
+    }
+
+    public Optional<Batching<Object, T>> getBatching() {
+        return Optional.ofNullable(batching);
+    }
+
+    /**
+     * @return key of the item of the batch, or null if the action is not batched.
+     */
+    public Object getBatchKey() {
+        return batchKey;
+    }
+
+    public Optional<Supplier<CompletionStage<T>>> getAsyncCall() {
+        return Optional.ofNullable(asyncCall);
+    }
+
     public static class Builder<T> {
         private static final String DEFAULT_GROUP_NAME = "";
 
@@ -85,6 +230,16 @@ public class Action<T> {
         private Function<Throwable, T> circuitBreakerFallback = Builder::defaultCircuitBreakerFallback;
         private Function<Throwable, T> failureFallback;
         private Integer timeoutInMillis;
+        private Hedging hedging;
+        private int maxRetries;
+        private Object coalescingKey;
+        private Object cacheKey;
+        private Priority priority = Priority.NORMAL;
+        private boolean interruptOnTimeout;
+        private Runnable cancellationHook;
+        private Batching<Object, T> batching;
+        private Object batchKey;
+        private Supplier<CompletionStage<T>> asyncCall;
 
         private Builder(final Callable<T> call) {
             this.call = call;
@@ -152,11 +307,156 @@ public class Action<T> {
             return this;
         }
 
+        /**
+         * Enables hedging: when the call did not complete after the given latency percentile of its group, a backup call is
+         * fired and the first successful call wins, the others are cancelled.
+         * <p>
+         * Hedging starts once enough latencies of the group have been observed. Backup calls are limited by the hedge budget
+         * of the group, see {@link com.smaato.switchgear.Configuration.Builder#withHedgeBudgetPercentage(int)}. The circuit
+         * breaker and the timeout apply to the hedged call as a whole. Only use it for idempotent calls.
+         * </p>
+         *
+         * @param percentile of the observed group latency after which a backup call is fired, in the range of (0, 100).
+         * @param maxHedges max number of backup calls, every next one is fired after another percentile latency.
+         * <p>
+         * By default hedging is disabled.
+         * </p>
+         * @throws IllegalArgumentException if percentile is not in the range of (0, 100) or maxHedges less or equal to zero.
+         */
+        public Builder<T> withHedging(final double percentile,
+                                      final int maxHedges) {
+            hedging = new Hedging(percentile, maxHedges);
+            return this;
+        }
+
+        /**
+         * Retries the call right away when it fails, in the same isolation thread.
+         * <p>
+         * The circuit breaker counts the retried call once, with the result of its last attempt. Retries stop when the
+         * timeout of the action is reached and are limited by the retry budget of the group, see
+         * {@link com.smaato.switchgear.Configuration.Builder#withRetryBudgetPercentage(int)}. Only use it for idempotent calls.
+         * </p>
+         *
+         * @param maxRetries max number of retries after the first failure.
+         * <p>
+         * By default the call is not retried.
+         * </p>
+         * @throws IllegalArgumentException if maxRetries is negative.
+         */
+        public Builder<T> withRetries(final int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Coalesces concurrent actions of the group with the same key: while a call with the key is in flight, the action
+         * waits for its result instead of starting another call.
+         * <p>
+         * The circuit breaker counts the shared call once. Every action keeps its own timeout and fallbacks, but never waits
+         * longer than the shared call, which is bound by the timeout of the action which started it. Only use it for calls
+         * whose result does not depend on anything but the key.
+         * </p>
+         *
+         * @param coalescingKey identifies the call within the group, compared by {@link Object#equals(Object)}.
+         * <p>
+         * By default actions are not coalesced.
+         * </p>
+         * @throws NullPointerException if coalescingKey is null.
+         */
+        public Builder<T> withCoalescingKey(final Object coalescingKey) {
+            Objects.requireNonNull(coalescingKey);
+            this.coalescingKey = coalescingKey;
+            return this;
+        }
+
+        /**
+         * Caches the successful results of the action in the result cache of its group, if the group has one, see
+         * {@link com.smaato.switchgear.Configuration.Builder#withResultCachePerGroup(int, int)}.
+         * <p>
+         * Fresh results are returned without a call. Expired results are returned instead of the circuit breaker fallback
+         * when the call is rejected, and instead of the failure when the call times out. Only use it for calls whose result
+         * does not depend on anything but the key.
+         * </p>
+         *
+         * @param cacheKey identifies the result within the group, compared by {@link Object#equals(Object)}.
+         * <p>
+         * By default results are not cached.
+         * </p>
+         * @throws NullPointerException if cacheKey is null.
+         */
+        public Builder<T> withCacheKey(final Object cacheKey) {
+            Objects.requireNonNull(cacheKey);
+            this.cacheKey = cacheKey;
+            return this;
+        }
+
+        /**
+         * Priority of the action when calls are shed under load, see
+         * {@link com.smaato.switchgear.Configuration.Builder#withLoadShedding(int)}. Lower priorities are shed first.
+         *
+         * @param priority of the action.
+         * <p>
+         * By default it is {@link Priority#NORMAL}.
+         * </p>
+         * @throws NullPointerException if priority is null.
+         */
+        public Builder<T> withPriority(final Priority priority) {
+            Objects.requireNonNull(priority);
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Interrupts the isolation thread when the action times out or is cancelled while its call is running, so a call
+         * blocked in interruptible waiting or I/O returns its thread right away instead of holding it until it returns on its
+         * own. Only use it for calls which handle interruption. The future of an asynchronous call is cancelled instead.
+         * <p>
+         * By default the call is not interrupted.
+         * </p>
+         */
+        public Builder<T> withInterruptOnTimeout() {
+            interruptOnTimeout = true;
+            return this;
+        }
+
+        /**
+         * Provide hook to abort the call when the action times out or is cancelled while its call is running, for example to
+         * abort an HTTP exchange which does not react to interruption. The hook is not run for calls which did not start.
+         *
+         * @param cancellationHook run by the thread which times out or cancels the action, hence it should not block.
+         * <p>
+         * By default there is no hook.
+         * </p>
+         * @throws NullPointerException if cancellationHook is null.
+         */
+        public Builder<T> withCancellationHook(final Runnable cancellationHook) {
+            Objects.requireNonNull(cancellationHook);
+            this.cancellationHook = cancellationHook;
+            return this;
+        }
+
         /**
          * @return new action with provided call, group name and fallback functions.
          */
         public Action<T> build() {
-            return new Action<>(groupName, call, circuitBreakerFallback, failureFallback, timeoutInMillis);
+            return new Action<>(groupName,
+                                call,
+                                circuitBreakerFallback,
+                                failureFallback,
+                                timeoutInMillis,
+                                hedging,
+                                maxRetries,
+                                coalescingKey,
+                                cacheKey,
+                                priority,
+                                interruptOnTimeout,
+                                cancellationHook,
+                                batching,
+                                batchKey,
+                                asyncCall);
         }
     }
 }
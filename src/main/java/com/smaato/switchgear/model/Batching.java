@@ -0,0 +1,64 @@
+package com.smaato.switchgear.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>Batching policy shared by the {@link Action}s which are merged into one batched call.</p>
+ * <p>
+ * Actions of the same group with the same batching are collected until the batch is full or the first of them waited for
+ * the max delay, then the batch call is executed once for all of them in an isolation thread of the group.
+ * </p>
+ *
+ * @param <K> key of a single item.
+ * @param <T> result of a single item.
+ */
+public final class Batching<K, T> {
+
+    private final BatchCall<K, T> batchCall;
+    private final int maxBatchSize;
+    private final long maxDelayInMicros;
+
+    /**
+     * @param batchCall executed once for all the items of a batch.
+     * @param maxBatchSize max number of items of a batch, a full batch is executed right away.
+     * @param maxDelayInMicros max time the first item of a batch waits for more items.
+     * @throws NullPointerException if batchCall is null.
+     * @throws IllegalArgumentException if maxBatchSize less or equal to zero or maxDelayInMicros is negative.
+     */
+    public Batching(final BatchCall<K, T> batchCall,
+                    final int maxBatchSize,
+                    final long maxDelayInMicros) {
+        Objects.requireNonNull(batchCall);
+        if ((maxBatchSize <= 0) || (maxDelayInMicros < 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.batchCall = batchCall;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayInMicros = maxDelayInMicros;
+    }
+
+    public BatchCall<K, T> getBatchCall() {
+        return batchCall;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getMaxDelayInMicros() {
+        return maxDelayInMicros;
+    }
+
+    @FunctionalInterface
+    public interface BatchCall<K, T> {
+
+        /**
+         * @param keys distinct keys of the items of the batch.
+         * @return results by key, an item without a result fails.
+         * @throws Exception failing all the items of the batch.
+         */
+        Map<K, T> call(List<K> keys) throws Exception;
+    }
+}
@@ -0,0 +1,71 @@
+package com.smaato.switchgear.model;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Absolute point in time based on {@link System#nanoTime()}, shared by all the executions that have to finish before it.
+ */
+public final class Deadline {
+
+    private final long nanoTime;
+
+    private Deadline(final long nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param duration time from now until the deadline.
+     * @param unit unit of the duration.
+     * @return deadline which expires after the given duration.
+     * @throws NullPointerException if unit is null.
+     */
+    public static Deadline after(final long duration,
+                                 final TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * @param timeoutInMillis time from now until the deadline in milliseconds.
+     * @return deadline which expires after the given timeout.
+     */
+    public static Deadline afterMillis(final long timeoutInMillis) {
+        return after(timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * @return whole milliseconds left until the deadline, zero once it has passed.
+     */
+    public int getRemainingInMillis() {
+        final long remainingInMillis = NANOSECONDS.toMillis(nanoTime - System.nanoTime());
+        return (int) Math.max(0L, Math.min(remainingInMillis, Integer.MAX_VALUE));
+    }
+
+    /**
+     * @return nanoseconds left until the deadline, zero once it has passed.
+     */
+    public long getRemainingInNanos() {
+        return Math.max(0L, nanoTime - System.nanoTime());
+    }
+
+    /**
+     * @return this or the other deadline, whichever expires first.
+     * @throws NullPointerException if other is null.
+     */
+    public Deadline earlierOf(final Deadline other) {
+        return ((other.nanoTime - nanoTime) < 0L) ? other : this;
+    }
+
+    public boolean isExpired() {
+        return (nanoTime - System.nanoTime()) <= 0L;
+    }
+
+    /**
+     * @return the deadline as a {@link System#nanoTime()} value.
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+}
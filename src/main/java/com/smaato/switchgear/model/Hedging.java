@@ -0,0 +1,33 @@
+package com.smaato.switchgear.model;
+
+/**
+ * Hedging policy of an {@link Action}: when the call did not complete after the given latency percentile of its group, a
+ * backup call is fired and the first successful call wins.
+ */
+public final class Hedging {
+
+    private final double percentile;
+    private final int maxHedges;
+
+    /**
+     * @param percentile of the observed group latency after which a backup call is fired, in the range of (0, 100).
+     * @param maxHedges max number of backup calls, every next one is fired after another percentile latency.
+     * @throws IllegalArgumentException if percentile is not in the range of (0, 100) or maxHedges less or equal to zero.
+     */
+    public Hedging(final double percentile,
+                   final int maxHedges) {
+        if (!((percentile > 0) && (percentile < 100)) || (maxHedges <= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.percentile = percentile;
+        this.maxHedges = maxHedges;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public int getMaxHedges() {
+        return maxHedges;
+    }
+}
@@ -0,0 +1,11 @@
+package com.smaato.switchgear.model;
+
+/**
+ * Priority of an {@link Action} when calls are shed under load, lower priorities are shed first.
+ */
+public enum Priority {
+
+    LOW,
+    NORMAL,
+    HIGH
+}
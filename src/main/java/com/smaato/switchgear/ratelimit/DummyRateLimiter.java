@@ -0,0 +1,11 @@
+package com.smaato.switchgear.ratelimit;
+
+public enum DummyRateLimiter implements RateLimiter {
+
+    INSTANCE;
+
+    @Override
+    public boolean tryAcquire() {
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.smaato.switchgear.ratelimit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Lock-free rate limiter based on the generic cell rate algorithm.</p>
+ * <p>
+ * The only state is the theoretical arrival time: the time at which the next call would be permitted if the calls arrived
+ * evenly at the configured rate. A call is permitted if it arrives no earlier than the burst tolerance before that time, and
+ * moves it forward by one emission interval with a single compare-and-set. A rejected call does not write at all, so an
+ * overloaded group does not contend on the state.
+ * </p>
+ */
+public class GcraRateLimiter implements RateLimiter {
+
+    private static final long NANOS_PER_SECOND = SECONDS.toNanos(1);
+
+    private final long emissionIntervalInNanos;
+    private final long toleranceInNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public GcraRateLimiter(final RateLimit rateLimit) {
+        this(rateLimit, System::nanoTime);
+    }
+
+    GcraRateLimiter(final RateLimit rateLimit,
+                    final LongSupplier nanoClock) {
+        emissionIntervalInNanos = Math.max(1L, (long) (NANOS_PER_SECOND / rateLimit.getPermitsPerSecond()));
+        toleranceInNanos = emissionIntervalInNanos * (rateLimit.getBurst() - 1);
+        this.nanoClock = nanoClock;
+        theoreticalArrivalTime = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        final long now = nanoClock.getAsLong();
+        while (true) {
+            final long arrivalTime = theoreticalArrivalTime.get();
+            // Differences instead of comparisons, the nano time may overflow.
+            final long nextArrivalTime = ((arrivalTime - now) > 0) ? arrivalTime : now;
+            if ((nextArrivalTime - now) > toleranceInNanos) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime + emissionIntervalInNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves the theoretical arrival time back by one emission interval, but not before now, as an idle group must not save up
+     * more than its burst.
+     */
+    @Override
+    public void release() {
+        final long now = nanoClock.getAsLong();
+        while (true) {
+            final long arrivalTime = theoreticalArrivalTime.get();
+            if ((arrivalTime - now) <= 0) {
+                return;
+            }
+            final long previousArrivalTime = arrivalTime - emissionIntervalInNanos;
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, ((previousArrivalTime - now) > 0) ? previousArrivalTime : now)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.smaato.switchgear.ratelimit;
+
+public class RateLimit {
+
+    private final double permitsPerSecond;
+    private final int burst;
+
+    /**
+     * @param permitsPerSecond sustained rate of permitted calls.
+     * @param burst max number of calls permitted at once after the group has been idle.
+     * @throws IllegalArgumentException if permitsPerSecond is not a positive number or burst is less or equal to zero.
+     */
+    public RateLimit(final double permitsPerSecond,
+                     final int burst) {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond) || (burst <= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+}
@@ -0,0 +1,17 @@
+package com.smaato.switchgear.ratelimit;
+
+import com.smaato.switchgear.concurrent.CallRejectedException;
+
+/**
+ * Rejection of a call by the rate limiter of its group.
+ */
+public class RateLimitExceededException extends CallRejectedException {
+
+    private static final long serialVersionUID = 4815467295032950413L;
+
+    private static final String RATE_LIMIT_EXCEEDED_ERROR = "Rate limit exceeded for group '%s'";
+
+    public RateLimitExceededException(final String groupName) {
+        super(RATE_LIMIT_EXCEEDED_ERROR, groupName);
+    }
+}
@@ -0,0 +1,15 @@
+package com.smaato.switchgear.ratelimit;
+
+public interface RateLimiter {
+
+    /**
+     * @return true if the call is permitted, false if the group exceeded its rate.
+     */
+    boolean tryAcquire();
+
+    /**
+     * Returns a permit which was acquired but not used, because the call was rejected right after. Does nothing by default.
+     */
+    default void release() {
+    }
+}
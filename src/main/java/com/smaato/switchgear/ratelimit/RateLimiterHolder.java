@@ -0,0 +1,24 @@
+package com.smaato.switchgear.ratelimit;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class RateLimiterHolder {
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private final Function<String, RateLimiter> rateLimiterFactory;
+
+    public RateLimiterHolder(final Function<String, RateLimiter> rateLimiterFactory) {
+        this.rateLimiterFactory = rateLimiterFactory;
+    }
+
+    public RateLimiter getFor(final String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return rateLimiters.computeIfAbsent(groupName, rateLimiterFactory);
+    }
+}
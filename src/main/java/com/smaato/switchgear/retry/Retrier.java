@@ -0,0 +1,81 @@
+package com.smaato.switchgear.retry;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import com.smaato.switchgear.budget.Budget;
+import com.smaato.switchgear.budget.BudgetHolder;
+import com.smaato.switchgear.model.Deadline;
+import com.smaato.switchgear.ratelimit.RateLimiter;
+
+/**
+ * <p>Retries failed calls in the isolation thread, so the circuit breaker and the timeout see a single call.</p>
+ * <p>
+ * Retries are limited by a per-group {@link Budget} filled by all successful calls of the group, so during an outage,
+ * when successful calls are rare, retries stop instead of multiplying the load. Every retry is a request of its own, so it
+ * takes a permit of the rate limiter of the group as well.
+ * </p>
+ */
+public class Retrier {
+
+    private static final int MAX_SAVED_RETRIES = 10;
+
+    private final BudgetHolder budgetHolder;
+
+    /**
+     * @param budgetPercentage max percentage of retries per group, relative to its successful calls.
+     */
+    public Retrier(final int budgetPercentage) {
+        budgetHolder = new BudgetHolder(groupName -> new Budget(budgetPercentage, MAX_SAVED_RETRIES));
+    }
+
+    /**
+     * @param maxRetries max number of retries after the first failure, zero to only fill the budget when the call succeeds.
+     * @param deadline after which the call is not retried anymore.
+     * @param abandoned tells whether the caller gave up on the call, for example because it was cancelled, after which the
+     * call is not retried anymore.
+     * @param rateLimiter of the group, a retry is only made if it permits one more call.
+     * @return result of the first successful call.
+     * @throws RuntimeException the last failure if no call succeeded.
+     */
+    public <T> T call(final String groupName,
+                      final int maxRetries,
+                      final Deadline deadline,
+                      final BooleanSupplier abandoned,
+                      final RateLimiter rateLimiter,
+                      final Supplier<T> call) {
+        final Budget budget = budgetHolder.getFor(groupName);
+        int retries = 0;
+        while (true) {
+            try {
+                final T result = call.get();
+                budget.deposit();
+                return result;
+            } catch (final RuntimeException e) {
+                if ((retries >= maxRetries) || deadline.isExpired() || isAbandoned(abandoned) || !tryAcquireRetry(budget, rateLimiter)) {
+                    throw e;
+                }
+                retries++;
+            }
+        }
+    }
+
+    /**
+     * An interrupted thread is treated as abandoned as well, a retry would start with the interruption still pending.
+     */
+    private static boolean isAbandoned(final BooleanSupplier abandoned) {
+        return abandoned.getAsBoolean() || Thread.currentThread().isInterrupted();
+    }
+
+    private static boolean tryAcquireRetry(final Budget budget,
+                                           final RateLimiter rateLimiter) {
+        if (!rateLimiter.tryAcquire()) {
+            return false;
+        }
+        if (budget.tryWithdraw()) {
+            return true;
+        }
+        rateLimiter.release();
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package com.smaato.switchgear;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.model.Outcome;
+
+@SuppressWarnings("unchecked")
+public class CompletionOrderIteratorTest {
+
+    private final Outcome<Object> firstOutcome = mock(Outcome.class);
+    private final Outcome<Object> secondOutcome = mock(Outcome.class);
+
+    private final CompletionOrderIterator<Object> iterator = new CompletionOrderIterator<>();
+
+    @Test
+    public void whenOutcomesCompleteThenIterateInCompletionOrder() {
+        final CompletableFuture<Outcome<Object>> firstSubmitted = new CompletableFuture<>();
+        final CompletableFuture<Outcome<Object>> secondSubmitted = new CompletableFuture<>();
+        iterator.add(firstSubmitted);
+        iterator.add(secondSubmitted);
+
+        secondSubmitted.complete(secondOutcome);
+        assertThat(iterator.hasNext()).isTrue();
+        assertThat(iterator.next()).isEqualTo(secondOutcome);
+
+        firstSubmitted.complete(firstOutcome);
+        assertThat(iterator.hasNext()).isTrue();
+        assertThat(iterator.next()).isEqualTo(firstOutcome);
+
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void whenNoOutcomesLeftThenThrowException() {
+        iterator.add(CompletableFuture.completedFuture(firstOutcome));
+        iterator.next();
+
+        assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void whenInterruptedThenThrowExceptionAndKeepInterruptFlag() {
+        iterator.add(new CompletableFuture<>());
+        Thread.currentThread().interrupt();
+
+        assertThatThrownBy(iterator::next).isInstanceOf(IllegalStateException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+}
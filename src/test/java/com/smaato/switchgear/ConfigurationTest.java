@@ -0,0 +1,39 @@
+package com.smaato.switchgear;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ConfigurationTest {
+
+    @Test
+    public void whenDefaultConfigurationThenTimingWheelIsEnabled() {
+        assertThat(Configuration.builder().build().getTimeoutTimer()).isNotNull();
+    }
+
+    @Test
+    public void whenTimingWheelDisabledThenNoTimer() {
+        assertThat(Configuration.builder().withTimingWheelEnabled(false).build().getTimeoutTimer()).isNull();
+    }
+
+    @Test
+    public void whenDifferentConfigurationsThenDifferentTimers() {
+        final Configuration configuration = Configuration.builder().build();
+        final Configuration otherConfiguration = Configuration.builder().build();
+
+        assertThat(otherConfiguration.getTimeoutTimer()).isNotSameAs(configuration.getTimeoutTimer());
+    }
+
+    @Test
+    public void whenAllInstancesClosedThenStopTimer() {
+        final Configuration configuration = Configuration.builder().build();
+        final Switchgear switchgear = Switchgear.newInstance(configuration);
+        final Switchgear otherSwitchgear = Switchgear.newInstance(configuration);
+
+        switchgear.close();
+        assertThat(configuration.getTimeoutTimer().isStopped()).isFalse();
+        otherSwitchgear.close();
+
+        assertThat(configuration.getTimeoutTimer().isStopped()).isTrue();
+    }
+}
@@ -4,31 +4,55 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.smaato.switchgear.batching.Batcher;
+import com.smaato.switchgear.cache.DummyResultCache;
+import com.smaato.switchgear.cache.ResultCacheHolder;
 import com.smaato.switchgear.circuitbreaker.CircuitBreaker;
 import com.smaato.switchgear.circuitbreaker.CircuitBreakerHolder;
 import com.smaato.switchgear.circuitbreaker.DummyCircuitBreaker;
+import com.smaato.switchgear.coalescing.Coalescer;
+import com.smaato.switchgear.hedging.Hedger;
+import com.smaato.switchgear.isolation.Bulkhead;
+import com.smaato.switchgear.isolation.BulkheadFullException;
+import com.smaato.switchgear.isolation.BulkheadHolder;
+import com.smaato.switchgear.isolation.DummyBulkhead;
+import com.smaato.switchgear.isolation.ExecutorHolder;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Deadline;
+import com.smaato.switchgear.ratelimit.DummyRateLimiter;
+import com.smaato.switchgear.ratelimit.RateLimitExceededException;
+import com.smaato.switchgear.ratelimit.RateLimiter;
+import com.smaato.switchgear.ratelimit.RateLimiterHolder;
+import com.smaato.switchgear.retry.Retrier;
 
 @SuppressWarnings("unchecked")
 public class ExecutorServiceTest {
 
     private final Executor executorStub = Runnable::run;
     private static final Object SUCCESSFUL_RESULT = new Object();
+    private static final Object FALLBACK_RESULT = new Object();
     private static final Callable<Object> SUCCESSFUL_EXECUTION = () -> SUCCESSFUL_RESULT;
     private static final Callable<Object> FAILING_EXECUTION = () -> {
         throw new Exception();
@@ -38,9 +62,31 @@ public class ExecutorServiceTest {
 
     private final CircuitBreakerHolder circuitBreakerHolderMock = mock(CircuitBreakerHolder.class);
     private final Function<Throwable, Object> fallbackMock = mock(Function.class);
+    private final BulkheadHolder bulkheadHolder = new BulkheadHolder(groupName -> DummyBulkhead.INSTANCE);
+    private final RateLimiterHolder rateLimiterHolder = new RateLimiterHolder(groupName -> DummyRateLimiter.INSTANCE);
 
-    private final ExecutorService executorService = new ExecutorService(executorStub, circuitBreakerHolderMock);
+    private final ExecutorHolder executorHolder = new ExecutorHolder(groupName -> executorStub);
+
+    private final Hedger hedgerMock = mock(Hedger.class);
+
+    private final Retrier retrier = new Retrier(100);
+    private final Coalescer coalescer = new Coalescer(new DummyCircuitBreaker());
+    private final Batcher batcher = new Batcher(mock(ScheduledExecutorService.class));
+    private final ResultCacheHolder resultCacheHolder = new ResultCacheHolder(groupName -> DummyResultCache.INSTANCE);
+
+    private final ExecutorService executorService = new ExecutorService(executorHolder,
+                                                                        circuitBreakerHolderMock,
+                                                                        bulkheadHolder,
+                                                                        rateLimiterHolder,
+                                                                        null,
+                                                                        hedgerMock,
+                                                                        retrier,
+                                                                        coalescer,
+                                                                        batcher,
+                                                                        resultCacheHolder,
+                                                                        null);
     private final CircuitBreaker dummyCircuitBreaker = new DummyCircuitBreaker();
+    private final Deadline deadline = Deadline.afterMillis(TIMEOUT_IN_MILLIS);
 
     @Before
     public void setUp() {
@@ -53,34 +99,87 @@ public class ExecutorServiceTest {
                                                                           .withCircuitBreakerFallback(fallbackMock)
                                                                           .withGroupName(GROUP_NAME)
                                                                           .build(),
-                                                                    TIMEOUT_IN_MILLIS);
+                                                                    TIMEOUT_IN_MILLIS,
+                                                                    deadline);
 
         assertThat(actualFuture.get(), is(SUCCESSFUL_RESULT));
     }
 
+    @Test
+    public void whenExecutedThenCallRunsWithinDeadlineOfEntry() throws ExecutionException, InterruptedException {
+        final Future<Object> actualFuture = executorService.execute(Action.builder(() -> (Object) Switchgear.getCurrentDeadline().orElse(null))
+                                                                          .withGroupName(GROUP_NAME)
+                                                                          .build(),
+                                                                    TIMEOUT_IN_MILLIS,
+                                                                    deadline);
+
+        assertThat(actualFuture.get(), is(deadline));
+    }
+
     @Test
     public void whenFailingExecutionThenReturnWrappedException() {
         final Future<Object> actualFuture = executorService.execute(Action.builder(FAILING_EXECUTION)
                                                                           .withCircuitBreakerFallback(fallbackMock)
                                                                           .withGroupName(GROUP_NAME)
                                                                           .build(),
-                                                                    TIMEOUT_IN_MILLIS);
+                                                                    TIMEOUT_IN_MILLIS,
+                                                                    deadline);
 
         assertThatThrownBy(actualFuture::get).isInstanceOf(ExecutionException.class);
     }
 
+    @Test
+    public void whenAsyncActionThenDoNotUseExecutor() throws ExecutionException, InterruptedException {
+        final Executor executorMock = mock(Executor.class);
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(true);
+
+        final ExecutorService localExecutorService = new ExecutorService(new ExecutorHolder(groupName -> executorMock),
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        final Future<Object> actualFuture = localExecutorService.execute(Action.asyncBuilder(() -> CompletableFuture.completedFuture(SUCCESSFUL_RESULT))
+                                                                               .withGroupName(GROUP_NAME)
+                                                                               .build(),
+                                                                         TIMEOUT_IN_MILLIS,
+                                                                         deadline);
+
+        assertThat(actualFuture.get(), is(SUCCESSFUL_RESULT));
+        verify(executorMock, never()).execute(any());
+        verify(bulkheadMock).release(anyLong());
+    }
+
     @Test
     public void whenRejectedExecutionThenReturnFailingFuture() {
         final Executor executorMock = mock(Executor.class);
         doThrow(RejectedExecutionException.class).when(executorMock).execute(any());
 
-        final ExecutorService localExecutorService = new ExecutorService(executorMock, circuitBreakerHolderMock);
+        final ExecutorService localExecutorService = new ExecutorService(new ExecutorHolder(groupName -> executorMock),
+                                                                         circuitBreakerHolderMock,
+                                                                         bulkheadHolder,
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
 
         final Future<Object> actualFuture = localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION)
                                                                                .withCircuitBreakerFallback(fallbackMock)
                                                                                .withGroupName(GROUP_NAME)
                                                                                .build(),
-                                                                         TIMEOUT_IN_MILLIS);
+                                                                         TIMEOUT_IN_MILLIS,
+                                                                         deadline);
 
         assertThatThrownBy(actualFuture::get).hasCause((new RejectedExecutionException()));
     }
@@ -88,15 +187,218 @@ public class ExecutorServiceTest {
     @Test
     public void whenCircuitBreakerThrowExceptionThenReturnFailingFuture() {
         final CircuitBreaker circuitBreakerMock = mock(CircuitBreaker.class);
-        when(circuitBreakerMock.execute(any(), any(), eq(TIMEOUT_IN_MILLIS))).thenThrow(new RuntimeException());
+        when(circuitBreakerMock.execute(any(), any(), eq(TIMEOUT_IN_MILLIS), eq(TIMEOUT_IN_MILLIS))).thenThrow(new RuntimeException());
         when(circuitBreakerHolderMock.getFor(GROUP_NAME)).thenReturn(circuitBreakerMock);
 
         final Future<Object> actualFuture = executorService.execute(Action.builder(SUCCESSFUL_EXECUTION)
                                                                           .withCircuitBreakerFallback(fallbackMock)
                                                                           .withGroupName(GROUP_NAME)
                                                                           .build(),
-                                                                    TIMEOUT_IN_MILLIS);
+                                                                    TIMEOUT_IN_MILLIS,
+                                                                    deadline);
 
         assertThatThrownBy(actualFuture::get).hasCause(new RuntimeException());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenBulkheadIsFullThenReturnCircuitBreakerFallback() throws ExecutionException, InterruptedException {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(false);
+        when(fallbackMock.apply(any(BulkheadFullException.class))).thenReturn(FALLBACK_RESULT);
+
+        final ExecutorService localExecutorService = new ExecutorService(executorHolder,
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        final Future<Object> actualFuture = localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION)
+                                                                               .withCircuitBreakerFallback(fallbackMock)
+                                                                               .withGroupName(GROUP_NAME)
+                                                                               .build(),
+                                                                         TIMEOUT_IN_MILLIS,
+                                                                         deadline);
+
+        assertThat(actualFuture.get(), is(FALLBACK_RESULT));
+        verify(bulkheadMock, never()).release();
+    }
+
+    @Test
+    public void whenBulkheadIsFullThenReturnRateLimiterPermit() throws ExecutionException, InterruptedException {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        final RateLimiter rateLimiterMock = mock(RateLimiter.class);
+        when(rateLimiterMock.tryAcquire()).thenReturn(true);
+        when(fallbackMock.apply(any(BulkheadFullException.class))).thenReturn(FALLBACK_RESULT);
+
+        final ExecutorService localExecutorService = new ExecutorService(executorHolder,
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         new RateLimiterHolder(groupName -> rateLimiterMock),
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        final Future<Object> actualFuture = localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION)
+                                                                               .withCircuitBreakerFallback(fallbackMock)
+                                                                               .withGroupName(GROUP_NAME)
+                                                                               .build(),
+                                                                         TIMEOUT_IN_MILLIS,
+                                                                         deadline);
+
+        assertThat(actualFuture.get(), is(FALLBACK_RESULT));
+        verify(rateLimiterMock).release();
+    }
+
+    @Test
+    public void whenRateLimitIsExceededThenReturnCircuitBreakerFallbackWithoutAcquiringBulkhead() throws ExecutionException, InterruptedException {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(fallbackMock.apply(any(RateLimitExceededException.class))).thenReturn(FALLBACK_RESULT);
+
+        final ExecutorService localExecutorService = new ExecutorService(executorHolder,
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         new RateLimiterHolder(groupName -> () -> false),
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        final Future<Object> actualFuture = localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION)
+                                                                               .withCircuitBreakerFallback(fallbackMock)
+                                                                               .withGroupName(GROUP_NAME)
+                                                                               .build(),
+                                                                         TIMEOUT_IN_MILLIS,
+                                                                         deadline);
+
+        assertThat(actualFuture.get(), is(FALLBACK_RESULT));
+        verify(bulkheadMock, never()).tryAcquire();
+        verify(circuitBreakerHolderMock, never()).getFor(GROUP_NAME);
+    }
+
+    @Test
+    public void whenExecutionFinishedThenReleaseBulkhead() {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(true);
+
+        final ExecutorService localExecutorService = new ExecutorService(executorHolder,
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        localExecutorService.execute(Action.builder(FAILING_EXECUTION).withGroupName(GROUP_NAME).build(), TIMEOUT_IN_MILLIS, deadline);
+
+        verify(bulkheadMock).release(anyLong());
+    }
+
+    @Test
+    public void whenCircuitBreakerDoesNotStartExecutionThenReleaseBulkhead() {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(true);
+        final CircuitBreaker circuitBreakerMock = mock(CircuitBreaker.class);
+        when(circuitBreakerMock.execute(any(), any(), eq(TIMEOUT_IN_MILLIS), eq(TIMEOUT_IN_MILLIS))).thenReturn(null);
+        when(circuitBreakerHolderMock.getFor(GROUP_NAME)).thenReturn(circuitBreakerMock);
+
+        final ExecutorService localExecutorService = new ExecutorService(executorHolder,
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION).withGroupName(GROUP_NAME).build(), TIMEOUT_IN_MILLIS, deadline);
+
+        verify(bulkheadMock).release();
+    }
+
+    @Test
+    public void whenRejectedExecutionThenReleaseBulkhead() {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(true);
+        final Executor executorMock = mock(Executor.class);
+        doThrow(RejectedExecutionException.class).when(executorMock).execute(any());
+
+        final ExecutorService localExecutorService = new ExecutorService(new ExecutorHolder(groupName -> executorMock),
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION).withGroupName(GROUP_NAME).build(), TIMEOUT_IN_MILLIS, deadline);
+
+        verify(bulkheadMock).release();
+    }
+
+    @Test
+    public void whenCancelledBeforeStartThenReleaseBulkheadOnce() {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(true);
+        final Runnable[] queuedTask = new Runnable[1];
+
+        final ExecutorService localExecutorService = new ExecutorService(new ExecutorHolder(groupName -> task -> queuedTask[0] = task),
+                                                                         circuitBreakerHolderMock,
+                                                                         new BulkheadHolder(groupName -> bulkheadMock),
+                                                                         rateLimiterHolder,
+                                                                         null,
+                                                                         hedgerMock,
+                                                                         retrier,
+                                                                         coalescer,
+                                                                         batcher,
+                                                                         resultCacheHolder,
+                                                                         null);
+
+        final CompletableFuture<Object> actualFuture = localExecutorService.execute(Action.builder(SUCCESSFUL_EXECUTION)
+                                                                                          .withGroupName(GROUP_NAME)
+                                                                                          .build(),
+                                                                                    TIMEOUT_IN_MILLIS,
+                                                                                    deadline);
+        actualFuture.cancel(false);
+        queuedTask[0].run();
+
+        verify(bulkheadMock, times(1)).release();
+    }
+
+    @Test
+    public void whenHedgingEnabledThenExecuteWithHedger() throws ExecutionException, InterruptedException {
+        when(hedgerMock.execute(anyString(), any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(SUCCESSFUL_RESULT));
+
+        final Future<Object> actualFuture = executorService.execute(Action.builder(() -> FALLBACK_RESULT)
+                                                                          .withGroupName(GROUP_NAME)
+                                                                          .withHedging(95, 1)
+                                                                          .build(),
+                                                                    TIMEOUT_IN_MILLIS,
+                                                                    deadline);
+
+        assertThat(actualFuture.get(), is(SUCCESSFUL_RESULT));
+    }
+}
@@ -1,19 +1,23 @@
 package com.smaato.switchgear;
 
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.junit.Test;
 
 import com.smaato.switchgear.concurrent.ExceptionUnwrapper;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Deadline;
 import com.smaato.switchgear.model.Outcome;
 
 @SuppressWarnings("unchecked")
@@ -35,9 +39,9 @@ public class ResultCollectorTest {
 
     @Test
     public void whenGettingOutcomeFromSuccessfulExecutionThenReturnResult() throws Exception {
-        when(futureMock.get(TIMEOUT_IN_MILLIS, MILLISECONDS)).thenReturn(SUCCESSFUL_RESULT);
+        when(futureMock.get(anyLong(), eq(NANOSECONDS))).thenReturn(SUCCESSFUL_RESULT);
 
-        final Outcome<Object> outcome = resultCollector.getOutcome(DEFAULT_ACTION, futureMock, TIMEOUT_IN_MILLIS);
+        final Outcome<Object> outcome = resultCollector.getOutcome(DEFAULT_ACTION, futureMock, Deadline.afterMillis(TIMEOUT_IN_MILLIS));
 
         assertTrue(outcome.getValue().isPresent());
         assertThat(outcome.getValue().get(), is(SUCCESSFUL_RESULT));
@@ -48,9 +52,9 @@ public class ResultCollectorTest {
     public void whenGettingOutcomeFromFailedExecutionThenReturnUnwrappedFailure() throws Exception {
         when(exceptionUnwrapperMock.unwrapAsyncExceptions(wrappingFailure)).thenReturn(causeFailure);
 
-        when(futureMock.get(TIMEOUT_IN_MILLIS, MILLISECONDS)).thenThrow(wrappingFailure);
+        when(futureMock.get(anyLong(), eq(NANOSECONDS))).thenThrow(wrappingFailure);
 
-        final Outcome<Object> outcome = resultCollector.getOutcome(DEFAULT_ACTION, futureMock, TIMEOUT_IN_MILLIS);
+        final Outcome<Object> outcome = resultCollector.getOutcome(DEFAULT_ACTION, futureMock, Deadline.afterMillis(TIMEOUT_IN_MILLIS));
 
         assertFalse(outcome.getValue().isPresent());
         assertTrue(outcome.getFailure().isPresent());
@@ -59,9 +63,9 @@ public class ResultCollectorTest {
 
     @Test
     public void whenGettingNoResultThenResultNotPresentInTheOutcome() throws Exception {
-        when(futureMock.get(TIMEOUT_IN_MILLIS, MILLISECONDS)).thenReturn(null);
+        when(futureMock.get(anyLong(), eq(NANOSECONDS))).thenReturn(null);
 
-        final Outcome<Object> outcome = resultCollector.getOutcome(DEFAULT_ACTION, futureMock, TIMEOUT_IN_MILLIS);
+        final Outcome<Object> outcome = resultCollector.getOutcome(DEFAULT_ACTION, futureMock, Deadline.afterMillis(TIMEOUT_IN_MILLIS));
 
         assertFalse(outcome.getValue().isPresent());
         assertFalse(outcome.getFailure().isPresent());
@@ -72,9 +76,9 @@ public class ResultCollectorTest {
         final Action<Object> fallbackAction = Action.builder(() -> null)
                                                     .withFailureFallback(ex -> FALLBACK_RESULT).build();
         when(exceptionUnwrapperMock.unwrapAsyncExceptions(wrappingFailure)).thenReturn(causeFailure);
-        when(futureMock.get(TIMEOUT_IN_MILLIS, MILLISECONDS)).thenThrow(wrappingFailure);
+        when(futureMock.get(anyLong(), eq(NANOSECONDS))).thenThrow(wrappingFailure);
 
-        final Outcome<Object> outcome = resultCollector.getOutcome(fallbackAction, futureMock, TIMEOUT_IN_MILLIS);
+        final Outcome<Object> outcome = resultCollector.getOutcome(fallbackAction, futureMock, Deadline.afterMillis(TIMEOUT_IN_MILLIS));
 
         assertFalse(outcome.getFailure().isPresent());
         assertTrue(outcome.getValue().isPresent());
@@ -89,12 +93,52 @@ public class ResultCollectorTest {
                                                                throw fallbackException;
                                                            }).build();
         when(exceptionUnwrapperMock.unwrapAsyncExceptions(wrappingFailure)).thenReturn(causeFailure);
-        when(futureMock.get(TIMEOUT_IN_MILLIS, MILLISECONDS)).thenThrow(wrappingFailure);
+        when(futureMock.get(anyLong(), eq(NANOSECONDS))).thenThrow(wrappingFailure);
 
-        final Outcome<Object> outcome = resultCollector.getOutcome(failingFallbackAction, futureMock, TIMEOUT_IN_MILLIS);
+        final Outcome<Object> outcome = resultCollector.getOutcome(failingFallbackAction, futureMock, Deadline.afterMillis(TIMEOUT_IN_MILLIS));
 
         assertFalse(outcome.getValue().isPresent());
         assertTrue(outcome.getFailure().isPresent());
         assertThat(outcome.getFailure().get(), is(fallbackException));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenGettingAsyncOutcomeFromSuccessfulExecutionThenReturnResult() {
+        final CompletableFuture<Outcome<Object>> outcomeFuture = resultCollector.getOutcomeAsync(DEFAULT_ACTION,
+                                                                                                CompletableFuture.completedFuture(
+                                                                                                        SUCCESSFUL_RESULT));
+
+        final Outcome<Object> outcome = outcomeFuture.join();
+        assertTrue(outcome.getValue().isPresent());
+        assertThat(outcome.getValue().get(), is(SUCCESSFUL_RESULT));
+        assertFalse(outcome.getFailure().isPresent());
+    }
+
+    @Test
+    public void whenGettingAsyncOutcomeFromFailedExecutionThenReturnUnwrappedFailure() {
+        when(exceptionUnwrapperMock.unwrapAsyncExceptions(wrappingFailure)).thenReturn(causeFailure);
+        final CompletableFuture<Object> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(wrappingFailure);
+
+        final Outcome<Object> outcome = resultCollector.getOutcomeAsync(DEFAULT_ACTION, failedFuture).join();
+
+        assertFalse(outcome.getValue().isPresent());
+        assertTrue(outcome.getFailure().isPresent());
+        assertThat(outcome.getFailure().get(), is(causeFailure));
+    }
+
+    @Test
+    public void whenAsyncFailedExecutionAndFallbackEnabledThenReturnFallbackResult() {
+        final Action<Object> fallbackAction = Action.builder(() -> null)
+                                                    .withFailureFallback(ex -> FALLBACK_RESULT).build();
+        when(exceptionUnwrapperMock.unwrapAsyncExceptions(wrappingFailure)).thenReturn(causeFailure);
+        final CompletableFuture<Object> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(wrappingFailure);
+
+        final Outcome<Object> outcome = resultCollector.getOutcomeAsync(fallbackAction, failedFuture).join();
+
+        assertFalse(outcome.getFailure().isPresent());
+        assertTrue(outcome.getValue().isPresent());
+        assertThat(outcome.getValue().get(), is(FALLBACK_RESULT));
+    }
+}
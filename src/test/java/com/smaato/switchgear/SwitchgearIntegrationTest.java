@@ -1,18 +1,43 @@
 package com.smaato.switchgear;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
+import com.smaato.switchgear.circuitbreaker.CircuitBreakerOpenException;
+import com.smaato.switchgear.concurrent.VirtualThreads;
+import com.smaato.switchgear.isolation.BulkheadFullException;
+import com.smaato.switchgear.isolation.LoadShedException;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Batching;
+import com.smaato.switchgear.model.Deadline;
 import com.smaato.switchgear.model.Outcome;
+import com.smaato.switchgear.model.Priority;
+import com.smaato.switchgear.ratelimit.RateLimitExceededException;
 
 public class SwitchgearIntegrationTest {
 
@@ -53,4 +78,589 @@ public class SwitchgearIntegrationTest {
         assertTrue(fallbackOutcome.getValue().isPresent());
         assertThat(fallbackOutcome.getValue().get(), is(FALLBACK_OUTCOME));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenExecuteAsyncCalledWithActionWhichCompleteTimelyThenCompleteWithSuccessOutcome() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> action = Action.builder(() -> SUCCESS_OUTCOME).withCircuitBreakerFallback((t) -> FALLBACK_OUTCOME).build();
+        final Outcome<String> outcome = switchgear.executeAsync(action).toCompletableFuture().join();
+
+        assertTrue(outcome.getValue().isPresent());
+        assertThat(outcome.getValue().get(), is(SUCCESS_OUTCOME));
+    }
+
+    @Test
+    public void whenExecuteAsyncTimesOutWithCircuitBreakerDisabledThenCompleteWithTimeoutFailure() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withCircuitBreakerEnabled(false)
+                                                                                         .withDefaultTimeoutInMillis(10)
+                                                                                         .build());
+        final Action<String> action = Action.from(() -> {
+            Thread.sleep(1000L);
+            return SUCCESS_OUTCOME;
+        });
+        final Outcome<String> outcome = switchgear.executeAsync(action).toCompletableFuture().join();
+
+        assertFalse(outcome.getValue().isPresent());
+        assertTrue(outcome.getFailure().isPresent());
+        assertTrue(outcome.getFailure().get() instanceof TimeoutException);
+    }
+
+    @Test
+    public void whenExecuteAsyncOnOpenCircuitThenCompleteWithFallbackOutcome() {
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        // The circuit stays open for the whole test, so that the second call cannot be a half open trial call.
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withMaxConsecutiveFailuresAllowed(1)
+                                                                                         .withCircuitOpenTimeInMillis(60_000)
+                                                                                         .withExecutor(executorService)
+                                                                                         .build());
+
+        executorService.shutdown();
+
+        final Action<String> action = Action.builder(() -> SUCCESS_OUTCOME).withCircuitBreakerFallback((t) -> FALLBACK_OUTCOME).build();
+        switchgear.executeAsync(action).toCompletableFuture().join();
+
+        final Outcome<String> fallbackOutcome = switchgear.executeAsync(action).toCompletableFuture().join();
+
+        assertTrue(fallbackOutcome.getValue().isPresent());
+        assertThat(fallbackOutcome.getValue().get(), is(FALLBACK_OUTCOME));
+    }
+
+    @Test
+    public void whenMaxConcurrentCallsReachedThenRejectWithCircuitBreakerFallback() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withMaxConcurrentCallsPerGroup(1)
+                                                                                         .build());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Action<String> blockingAction = Action.from(() -> {
+            latch.await();
+            return SUCCESS_OUTCOME;
+        });
+
+        final Outcome<String> blockingOutcome = switchgear.executeAsync(blockingAction).toCompletableFuture().getNow(null);
+        final Outcome<String> rejectedOutcome = switchgear.execute(Action.from(() -> SUCCESS_OUTCOME));
+
+        latch.countDown();
+
+        assertThat(blockingOutcome, is(nullValue()));
+        assertTrue(rejectedOutcome.getFailure().isPresent());
+        assertTrue(rejectedOutcome.getFailure().get() instanceof CircuitBreakerOpenException);
+        assertTrue(rejectedOutcome.getFailure().get().getCause() instanceof BulkheadFullException);
+    }
+
+    @Test
+    public void whenMaxConcurrentCallsOverriddenForGroupThenUseOverride() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withMaxConcurrentCallsPerGroup(1)
+                                                                                         .withMaxConcurrentCalls("group", 2)
+                                                                                         .build());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Action<String> blockingAction = Action.builder(() -> {
+            latch.await();
+            return SUCCESS_OUTCOME;
+        }).withGroupName("group").build();
+
+        switchgear.executeAsync(blockingAction);
+        final Outcome<String> outcome = switchgear.executeAsync(blockingAction).toCompletableFuture().getNow(null);
+
+        latch.countDown();
+
+        assertThat(outcome, is(nullValue()));
+    }
+
+    @Test
+    public void whenAdaptiveConcurrencyLimitReachedThenRejectWithCircuitBreakerFallback() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withAdaptiveConcurrencyLimitPerGroup(1, 10)
+                                                                                         .build());
+        final CountDownLatch release = new CountDownLatch(1);
+        final Action<String> blockingAction = Action.from(() -> {
+            release.await();
+            return "done";
+        });
+        final Action<String> rejectedAction = Action.builder(() -> "called")
+                                                    .withCircuitBreakerFallback(throwable -> throwable.getClass().getSimpleName())
+                                                    .build();
+
+        switchgear.executeAsync(blockingAction);
+        final Outcome<String> outcome = switchgear.execute(rejectedAction);
+        release.countDown();
+
+        assertThat(outcome.getValue().get(), is(BulkheadFullException.class.getSimpleName()));
+    }
+
+    @Test
+    public void whenRateLimitExceededThenRejectWithCircuitBreakerFallback() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withRateLimitPerGroup(1, 2)
+                                                                                         .withRateLimit("partner", 1, 1)
+                                                                                         .build());
+        final Action<String> action = Action.builder(() -> "called")
+                                            .withGroupName("partner")
+                                            .withCircuitBreakerFallback(throwable -> throwable.getClass().getSimpleName())
+                                            .build();
+
+        final Outcome<String> permittedOutcome = switchgear.execute(action);
+        final Outcome<String> rejectedOutcome = switchgear.execute(action);
+
+        assertThat(permittedOutcome.getValue().get(), is("called"));
+        assertThat(rejectedOutcome.getValue().get(), is(RateLimitExceededException.class.getSimpleName()));
+    }
+
+    @Test
+    public void whenNodeLoadedThenShedLowPriorityFirst() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withLoadShedding(2)
+                                                                                         .build());
+        final CountDownLatch release = new CountDownLatch(1);
+        final Action<String> blockingAction = Action.from(() -> {
+            release.await();
+            return "done";
+        });
+        final Action<String> lowPriorityAction = Action.builder(() -> "low")
+                                                       .withPriority(Priority.LOW)
+                                                       .withCircuitBreakerFallback(throwable -> throwable.getClass().getSimpleName())
+                                                       .build();
+        final Action<String> highPriorityAction = Action.builder(() -> "high")
+                                                        .withPriority(Priority.HIGH)
+                                                        .build();
+
+        switchgear.executeAsync(blockingAction);
+        final Outcome<String> lowPriorityOutcome = switchgear.execute(lowPriorityAction);
+        final Outcome<String> highPriorityOutcome = switchgear.execute(highPriorityAction);
+        release.countDown();
+
+        assertThat(lowPriorityOutcome.getValue().get(), is(LoadShedException.class.getSimpleName()));
+        assertThat(highPriorityOutcome.getValue().get(), is("high"));
+    }
+
+    @Test
+    public void whenThreadPoolPerGroupThenExecuteInDedicatedThreadPool() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withThreadPoolPerGroup(1, 1)
+                                                                                         .withThreadPool("partner", 2, 0)
+                                                                                         .build());
+        final Outcome<String> defaultGroupOutcome = switchgear.execute(Action.from(() -> Thread.currentThread().getName()));
+        final Outcome<String> partnerOutcome = switchgear.execute(Action.builder(() -> Thread.currentThread().getName())
+                                                                        .withGroupName("partner")
+                                                                        .build());
+
+        assertThat(defaultGroupOutcome.getValue().get(), is("switchgear-isolation-1"));
+        assertThat(partnerOutcome.getValue().get(), is("switchgear-isolation-partner-1"));
+    }
+
+    @Test
+    public void whenClosedThenRejectCallsAndKeepProvidedExecutorRunning() {
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withExecutor(executorService)
+                                                                                         .withThreadPool("partner", 1, 0)
+                                                                                         .build());
+        final Action<String> partnerAction = Action.builder(() -> SUCCESS_OUTCOME).withGroupName("partner").build();
+        assertThat(switchgear.execute(partnerAction).getValue().get(), is(SUCCESS_OUTCOME));
+
+        switchgear.close();
+
+        final Outcome<String> partnerOutcome = switchgear.execute(partnerAction);
+        final Outcome<String> defaultGroupOutcome = switchgear.execute(Action.from(() -> SUCCESS_OUTCOME));
+
+        assertTrue(partnerOutcome.getFailure().get() instanceof RejectedExecutionException);
+        assertTrue(defaultGroupOutcome.getFailure().get() instanceof RejectedExecutionException);
+        assertFalse(executorService.isShutdown());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void givenJava21WhenVirtualThreadsEnabledThenExecuteInVirtualThread() {
+        assumeTrue(VirtualThreads.isSupported());
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().withVirtualThreads().build());
+        final Outcome<String> outcome = switchgear.execute(Action.from(() -> Thread.currentThread().getName()));
+
+        assertThat(outcome.getValue().get(), is("switchgear-isolation-1"));
+    }
+
+    @Test
+    public void whenExecutedInCompletionOrderThenFastOutcomeFirst() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> slowAction = Action.from(() -> {
+            Thread.sleep(100L);
+            return "slow";
+        });
+        final Action<String> fastAction = Action.from(() -> "fast");
+
+        final Iterator<Outcome<String>> outcomes = switchgear.executeInParallelInCompletionOrder(Arrays.asList(slowAction, fastAction));
+
+        assertThat(outcomes.next().getValue().get(), is("fast"));
+        assertThat(outcomes.next().getValue().get(), is("slow"));
+        assertFalse(outcomes.hasNext());
+    }
+
+    @Test
+    public void whenDeadlinePassesThenReturnCompletedOutcomesAndTimeoutTheRest() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> slowAction = Action.from(() -> {
+            Thread.sleep(1000L);
+            return "slow";
+        });
+        final Action<String> fastAction = Action.from(() -> "fast");
+
+        final long start = System.nanoTime();
+        final List<Outcome<String>> outcomes = new ArrayList<>(switchgear.executeInParallel(Arrays.asList(slowAction, fastAction),
+                                                                                            Deadline.afterMillis(50)));
+        final long elapsedInMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedInMillis < 500);
+        assertTrue(outcomes.get(0).getFailure().get() instanceof TimeoutException);
+        assertThat(outcomes.get(1).getValue().get(), is("fast"));
+    }
+
+    @Test
+    public void whenRequiredSuccessesReachedThenReturnWithoutWaitingForTheRest() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> slowAction = Action.from(() -> {
+            Thread.sleep(1000L);
+            return "slow";
+        });
+        final Action<String> fastAction = Action.from(() -> "fast");
+        final Action<String> failingAction = Action.from(() -> {
+            throw new IllegalStateException();
+        });
+
+        final long start = System.nanoTime();
+        final Collection<Outcome<String>> outcomes = switchgear.executeInParallelUntilSuccesses(Arrays.asList(slowAction,
+                                                                                                              failingAction,
+                                                                                                              fastAction),
+                                                                                                1,
+                                                                                                true);
+        final long elapsedInMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedInMillis < 500);
+        assertTrue(outcomes.stream().anyMatch(outcome -> "fast".equals(outcome.getValue().orElse(null))));
+        assertFalse(outcomes.stream().anyMatch(outcome -> "slow".equals(outcome.getValue().orElse(null))));
+    }
+
+    @Test
+    public void whenRemainingExecutionsCancelledThenRunTheirCancellationHook() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final CountDownLatch hookRun = new CountDownLatch(1);
+        final Action<String> slowAction = Action.builder(() -> {
+            Thread.sleep(1000L);
+            return "slow";
+        }).withCancellationHook(hookRun::countDown).build();
+        final Action<String> fastAction = Action.from(() -> "fast");
+
+        switchgear.executeInParallelUntilSuccesses(Arrays.asList(slowAction, fastAction), 1, true);
+
+        assertThat(hookRun.await(500, MILLISECONDS), is(true));
+    }
+
+    @Test
+    public void whenHedgedCallIsSlowThenBackupCallWins() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withHedgeBudgetPercentage(100)
+                                                                                         .build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Action<String> action = Action.builder(() -> {
+            if (calls.incrementAndGet() == 1000) {
+                Thread.sleep(500L);
+                return "slow";
+            }
+            return "fast";
+        }).withHedging(95, 1).build();
+        for (int i = 1; i < 1000; i++) {
+            switchgear.execute(action);
+        }
+
+        final long start = System.nanoTime();
+        final Outcome<String> outcome = switchgear.execute(action);
+        final long elapsedInMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(outcome.getValue().get(), is("fast"));
+        assertTrue(elapsedInMillis < 400);
+    }
+
+    @Test
+    public void whenRetriedCallSucceedsThenReturnSuccessOutcome() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        for (int i = 0; i < 10; i++) {
+            switchgear.execute(Action.from(() -> "warm up"));
+        }
+        final Action<String> action = Action.builder(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return "retried";
+        }).withRetries(1).build();
+
+        final Outcome<String> outcome = switchgear.execute(action);
+
+        assertThat(outcome.getValue().get(), is("retried"));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void whenRetriedCallCancelledThenDoNotRetry() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 10; i++) {
+            switchgear.execute(Action.from(() -> "warm up"));
+        }
+        final Action<String> failingAction = Action.<String>builder(() -> {
+            calls.incrementAndGet();
+            release.await();
+            throw new IllegalStateException();
+        }).withRetries(3).build();
+        final Action<String> fastAction = Action.from(() -> "fast");
+
+        switchgear.executeInParallelUntilSuccesses(Arrays.asList(failingAction, fastAction), 1, true);
+        release.countDown();
+        Thread.sleep(100L);
+
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenActionsWithSameCoalescingKeyInFlightThenCallOnce() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Action<String> action = Action.builder(() -> {
+            calls.incrementAndGet();
+            Thread.sleep(100L);
+            return "shared";
+        }).withCoalescingKey("key").build();
+
+        final Collection<Outcome<String>> outcomes = switchgear.executeInParallel(Arrays.asList(action, action, action));
+
+        assertTrue(outcomes.stream().allMatch(outcome -> "shared".equals(outcome.getValue().orElse(null))));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenCoalescedCallTimesOutForOneCallerThenOtherCallerStillGetsResult() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> longAction = Action.builder(() -> {
+            Thread.sleep(100L);
+            return "shared";
+        }).withCoalescingKey("key").withTimeoutInMillis(1000).build();
+        final Action<String> shortAction = Action.builder(() -> "not called")
+                                                 .withCoalescingKey("key")
+                                                 .withTimeoutInMillis(10)
+                                                 .build();
+
+        final List<Outcome<String>> outcomes = new ArrayList<>(switchgear.executeInParallel(Arrays.asList(longAction, shortAction),
+                                                                                            Deadline.afterMillis(1000)));
+
+        assertThat(outcomes.get(0).getValue().get(), is("shared"));
+        assertTrue(outcomes.get(1).getFailure().get() instanceof TimeoutException);
+    }
+
+    @Test
+    public void whenResultCachedThenDoNotCallAgain() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withResultCache("cached", 60_000, 10)
+                                                                                         .build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Action<Integer> action = Action.builder(calls::incrementAndGet).withGroupName("cached").withCacheKey("key").build();
+
+        switchgear.execute(action);
+        final Outcome<Integer> outcome = switchgear.execute(action);
+
+        assertThat(outcome.getValue().get(), is(1));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenGroupWithoutResultCacheThenCallEveryTime() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Action<Integer> action = Action.builder(calls::incrementAndGet).withCacheKey("key").build();
+
+        switchgear.execute(action);
+        switchgear.execute(action);
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void whenAdaptiveTimeoutsLearnedThenTimeOutSlowCallEarly() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withAdaptiveTimeouts(99, 2, 20, 1000)
+                                                                                         .build());
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Action<String> action = Action.from(() -> {
+            if (calls.incrementAndGet() > 200) {
+                Thread.sleep(500L);
+                return "slow";
+            }
+            return "fast";
+        });
+        for (int i = 0; i < 200; i++) {
+            switchgear.execute(action);
+        }
+        Thread.sleep(150L);
+
+        final long start = System.nanoTime();
+        final Outcome<String> outcome = switchgear.execute(action);
+        final long elapsedInMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(outcome.getFailure().get() instanceof TimeoutException);
+        assertTrue(elapsedInMillis < 400);
+    }
+
+    @Test
+    public void whenExecutedWithinIsolatedCallThenInheritItsDeadline() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> nestedAction = Action.builder(() -> {
+            Thread.sleep(5_000L);
+            return "nested";
+        }).withTimeoutInMillis(5_000).build();
+        final AtomicReference<Outcome<String>> nestedOutcome = new AtomicReference<>();
+        final CountDownLatch nestedCompleted = new CountDownLatch(1);
+        final CountDownLatch outcomeReturned = new CountDownLatch(1);
+        final AtomicBoolean deadlinePresent = new AtomicBoolean(false);
+        final Action<String> action = Action.builder(() -> {
+            deadlinePresent.set(Switchgear.getCurrentDeadline().isPresent());
+            nestedOutcome.set(switchgear.execute(nestedAction));
+            nestedCompleted.countDown();
+            // The nested execution times out at the same deadline, so returning right away would race with the timeout.
+            outcomeReturned.await(1, SECONDS);
+            return "done";
+        }).withTimeoutInMillis(200).build();
+
+        final Outcome<String> outcome = switchgear.execute(action);
+        outcomeReturned.countDown();
+
+        assertThat(nestedCompleted.await(1, SECONDS), is(true));
+        assertTrue(deadlinePresent.get());
+        assertTrue(nestedOutcome.get().getFailure().get() instanceof TimeoutException);
+        assertThat(Switchgear.getCurrentDeadline().isPresent(), is(false));
+        assertTrue(outcome.getFailure().get() instanceof TimeoutException);
+    }
+
+    @Test
+    public void whenTimedOutWithInterruptThenInterruptCallAndRunCancellationHook() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder()
+                                                                                         .withThreadPool("partner", 1, 1)
+                                                                                         .build());
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CountDownLatch hookRun = new CountDownLatch(1);
+        final Action<String> hangingAction = Action.builder(() -> {
+            try {
+                Thread.sleep(10_000L);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "done";
+        })
+                                                   .withGroupName("partner")
+                                                   .withTimeoutInMillis(100)
+                                                   .withInterruptOnTimeout()
+                                                   .withCancellationHook(hookRun::countDown)
+                                                   .build();
+        final Action<Boolean> nextAction = Action.builder(() -> Thread.currentThread().isInterrupted())
+                                                 .withGroupName("partner")
+                                                 .build();
+
+        final Outcome<String> outcome = switchgear.execute(hangingAction);
+
+        assertTrue(outcome.getFailure().get() instanceof TimeoutException);
+        assertThat(interrupted.await(1, SECONDS), is(true));
+        assertThat(hookRun.await(1, SECONDS), is(true));
+        assertThat(switchgear.execute(nextAction).getValue().get(), is(false));
+    }
+
+    @Test
+    public void whenBatchedActionsExecutedInParallelThenCallOnceWithAllKeys() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final AtomicInteger batchCalls = new AtomicInteger(0);
+        final Batching<Integer, String> batching = new Batching<>(keys -> {
+            batchCalls.incrementAndGet();
+            final Map<Integer, String> results = new HashMap<>();
+            keys.forEach(key -> results.put(key, "value " + key));
+            return results;
+        }, 3, 1_000_000L);
+        final List<Action<String>> actions = Arrays.asList(Action.builder(batching, 1).build(),
+                                                           Action.builder(batching, 2).build(),
+                                                           Action.builder(batching, 3).build());
+
+        final List<Outcome<String>> outcomes = new ArrayList<>(switchgear.executeInParallel(actions));
+
+        assertThat(batchCalls.get(), is(1));
+        assertThat(outcomes.get(0).getValue().get(), is("value 1"));
+        assertThat(outcomes.get(1).getValue().get(), is("value 2"));
+        assertThat(outcomes.get(2).getValue().get(), is("value 3"));
+    }
+
+    @Test
+    public void whenAsyncActionExecutedThenCallWithoutIsolationThread() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Thread callingThread = Thread.currentThread();
+        final Action<Boolean> action = Action.fromAsync(() -> CompletableFuture.completedFuture(Thread.currentThread() == callingThread));
+
+        final Outcome<Boolean> outcome = switchgear.execute(action);
+
+        assertThat(outcome.getValue().get(), is(true));
+    }
+
+    @Test
+    public void whenAsyncActionTimedOutThenAbandonItsStage() throws InterruptedException {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final CompletableFuture<String> stage = new CompletableFuture<>();
+        final CountDownLatch hookRun = new CountDownLatch(1);
+        final Action<String> action = Action.asyncBuilder(() -> stage)
+                                            .withTimeoutInMillis(50)
+                                            .withCancellationHook(hookRun::countDown)
+                                            .build();
+
+        final Outcome<String> outcome = switchgear.execute(action);
+
+        assertTrue(outcome.getFailure().get() instanceof TimeoutException);
+        assertThat(hookRun.await(1, SECONDS), is(true));
+        assertFalse(stage.isDone());
+    }
+
+    @Test
+    public void whenCompletionConditionNeverMetThenReturnAllOutcomes() {
+
+        final Switchgear switchgear = SwitchgearFactory.INSTANCE.createFrom(Configuration.builder().build());
+        final Action<String> action = Action.from(() -> "value");
+
+        final Collection<Outcome<String>> outcomes = switchgear.executeInParallelUntil(Arrays.asList(action, action, action),
+                                                                                       completed -> false,
+                                                                                       false);
+
+        assertThat(outcomes.size(), is(3));
+    }
+}
@@ -3,7 +3,12 @@ package com.smaato.switchgear;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -11,10 +16,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.junit.Test;
 
+import com.smaato.switchgear.circuitbreaker.HashedWheelTimer;
 import com.smaato.switchgear.model.Action;
+import com.smaato.switchgear.model.Deadline;
 import com.smaato.switchgear.model.Outcome;
 
 @SuppressWarnings("unchecked")
@@ -24,11 +32,13 @@ public class SwitchgearTest {
     private static final int TIMEOUT_IN_MILLIS = 50;
 
     private final ExecutorService executorServiceMock = mock(ExecutorService.class);
+    private final HashedWheelTimer timeoutTimerMock = mock(HashedWheelTimer.class);
     private final ResultCollector resultCollectorMock = mock(ResultCollector.class);
 
     private final Switchgear switchgear = new Switchgear(executorServiceMock,
                                                          resultCollectorMock,
-                                                         DEFAULT_TIMEOUT_IN_MILLIS);
+                                                         DEFAULT_TIMEOUT_IN_MILLIS,
+                                                         timeoutTimerMock);
 
     private final Action<Object> actionMock = mock(Action.class);
     private final Collection<Action<Object>> actionMocks = Collections.singleton(actionMock);
@@ -37,8 +47,8 @@ public class SwitchgearTest {
 
     @Test
     public void whenRequestedWithTimeoutThenUseIt() {
-        when(executorServiceMock.execute(actionMock, TIMEOUT_IN_MILLIS)).thenReturn(futureMock);
-        when(resultCollectorMock.getOutcome(actionMock, futureMock, TIMEOUT_IN_MILLIS)).thenReturn(expectedOutcome);
+        when(executorServiceMock.execute(eq(actionMock), eq(TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(futureMock);
+        when(resultCollectorMock.getOutcome(eq(actionMock), eq(futureMock), any(Deadline.class))).thenReturn(expectedOutcome);
         when(actionMock.getTimeoutInMillis()).thenReturn(Optional.of(TIMEOUT_IN_MILLIS));
 
         final Outcome<Object> actualOutcome = switchgear.execute(actionMock);
@@ -48,8 +58,8 @@ public class SwitchgearTest {
 
     @Test
     public void whenRequestedWithoutTimeoutThenUseDefault() {
-        when(executorServiceMock.execute(actionMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(futureMock);
-        when(resultCollectorMock.getOutcome(actionMock, futureMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(expectedOutcome);
+        when(executorServiceMock.execute(eq(actionMock), eq(DEFAULT_TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(futureMock);
+        when(resultCollectorMock.getOutcome(eq(actionMock), eq(futureMock), any(Deadline.class))).thenReturn(expectedOutcome);
 
         final Outcome<Object> actualOutcome = switchgear.execute(actionMock);
 
@@ -58,8 +68,8 @@ public class SwitchgearTest {
 
     @Test
     public void whenParallelExecutionRequestedWithTimeoutThenUseIt() {
-        when(executorServiceMock.execute(actionMock, TIMEOUT_IN_MILLIS)).thenReturn(futureMock);
-        when(resultCollectorMock.getOutcome(actionMock, futureMock, TIMEOUT_IN_MILLIS)).thenReturn(expectedOutcome);
+        when(executorServiceMock.execute(eq(actionMock), eq(TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(futureMock);
+        when(resultCollectorMock.getOutcome(eq(actionMock), eq(futureMock), any(Deadline.class))).thenReturn(expectedOutcome);
         when(actionMock.getTimeoutInMillis()).thenReturn(Optional.of(TIMEOUT_IN_MILLIS));
 
         final Collection<Outcome<Object>> actualOutcomes = switchgear.executeInParallel(actionMocks);
@@ -69,8 +79,8 @@ public class SwitchgearTest {
 
     @Test
     public void whenParallelExecutionRequestedWithoutTimeoutThenUseDefault() {
-        when(executorServiceMock.execute(actionMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(futureMock);
-        when(resultCollectorMock.getOutcome(actionMock, futureMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(expectedOutcome);
+        when(executorServiceMock.execute(eq(actionMock), eq(DEFAULT_TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(futureMock);
+        when(resultCollectorMock.getOutcome(eq(actionMock), eq(futureMock), any(Deadline.class))).thenReturn(expectedOutcome);
 
         final Collection<Outcome<Object>> actualOutcomes = switchgear.executeInParallel(actionMocks);
 
@@ -84,23 +94,64 @@ public class SwitchgearTest {
         final CompletableFuture<Object> firstFutureMock = mock(CompletableFuture.class);
         final Outcome<Object> firstExpectedOutcome = mock(Outcome.class);
 
-        when(executorServiceMock.execute(firstActionMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(firstFutureMock);
-        when(resultCollectorMock.getOutcome(firstActionMock, firstFutureMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(firstExpectedOutcome);
+        when(executorServiceMock.execute(eq(firstActionMock), eq(DEFAULT_TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(firstFutureMock);
+        when(resultCollectorMock.getOutcome(eq(firstActionMock), eq(firstFutureMock), any(Deadline.class))).thenReturn(firstExpectedOutcome);
 
         final Action<Object> secondActionMock = mock(Action.class);
         final CompletableFuture<Object> secondFutureMock = mock(CompletableFuture.class);
         final Outcome<Object> secondExpectedOutcome = mock(Outcome.class);
 
-        when(executorServiceMock.execute(secondActionMock, DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(secondFutureMock);
-        when(resultCollectorMock.getOutcome(secondActionMock,
-                                            secondFutureMock,
-                                            DEFAULT_TIMEOUT_IN_MILLIS)).thenReturn(secondExpectedOutcome);
+        when(executorServiceMock.execute(eq(secondActionMock), eq(DEFAULT_TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(secondFutureMock);
+        when(resultCollectorMock.getOutcome(eq(secondActionMock),
+                                            eq(secondFutureMock),
+                                            any(Deadline.class))).thenReturn(secondExpectedOutcome);
 
         final Collection<Outcome<Object>> actualOutcomes = switchgear.executeInParallel(Arrays.asList(firstActionMock, secondActionMock));
 
         assertThat(actualOutcomes, containsInAnyOrder(firstExpectedOutcome, secondExpectedOutcome));
     }
 
+    @Test
+    public void whenAsyncExecutionRequestedThenReturnOutcomeStage() {
+        final CompletableFuture<Outcome<Object>> expectedOutcomeFuture = CompletableFuture.completedFuture(expectedOutcome);
+        when(executorServiceMock.execute(eq(actionMock), eq(TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(futureMock);
+        when(resultCollectorMock.getOutcomeAsync(actionMock, futureMock)).thenReturn(expectedOutcomeFuture);
+        when(actionMock.getTimeoutInMillis()).thenReturn(Optional.of(TIMEOUT_IN_MILLIS));
+
+        final CompletionStage<Outcome<Object>> actualOutcome = switchgear.executeAsync(actionMock);
+
+        assertThat(actualOutcome.toCompletableFuture().join(), is(expectedOutcome));
+    }
+
+    @Test
+    public void whenParallelAsyncExecutionRequestedThenReturnAllOutcomes() {
+        final Action<Object> firstActionMock = mock(Action.class);
+        final CompletableFuture<Object> firstFutureMock = mock(CompletableFuture.class);
+        final Outcome<Object> firstExpectedOutcome = mock(Outcome.class);
+
+        when(executorServiceMock.execute(eq(firstActionMock), eq(DEFAULT_TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(firstFutureMock);
+        when(resultCollectorMock.getOutcomeAsync(firstActionMock, firstFutureMock)).thenReturn(CompletableFuture.completedFuture(
+                firstExpectedOutcome));
+
+        final Action<Object> secondActionMock = mock(Action.class);
+        final CompletableFuture<Object> secondFutureMock = mock(CompletableFuture.class);
+        final Outcome<Object> secondExpectedOutcome = mock(Outcome.class);
+
+        when(executorServiceMock.execute(eq(secondActionMock), eq(DEFAULT_TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(secondFutureMock);
+        when(resultCollectorMock.getOutcomeAsync(secondActionMock, secondFutureMock)).thenReturn(CompletableFuture.completedFuture(
+                secondExpectedOutcome));
+
+        final CompletionStage<Collection<Outcome<Object>>> actualOutcomes =
+                switchgear.executeInParallelAsync(Arrays.asList(firstActionMock, secondActionMock));
+
+        assertThat(actualOutcomes.toCompletableFuture().join(), containsInAnyOrder(firstExpectedOutcome, secondExpectedOutcome));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenExecutedAsyncNullActionThenThrowException() {
+        switchgear.executeAsync(null);
+    }
+
     @Test(expected = NullPointerException.class)
     public void whenRequestedNewSwitchgearInstanceWithNullConfigurationThenThrowException() {
         Switchgear.newInstance(null);
@@ -115,4 +166,61 @@ public class SwitchgearTest {
     public void whenExecutedParallelNullActionThenThrowException() {
         switchgear.executeInParallel(null);
     }
-}
\ No newline at end of file
+
+    @Test(expected = NullPointerException.class)
+    public void whenExecutedInCompletionOrderNullActionsThenThrowException() {
+        switchgear.executeInParallelInCompletionOrder(null);
+    }
+
+    @Test
+    public void whenParallelExecutionWithDeadlineThenUseActionTimeoutIfShorter() {
+        when(executorServiceMock.execute(eq(actionMock), eq(TIMEOUT_IN_MILLIS), any(Deadline.class))).thenReturn(futureMock);
+        when(resultCollectorMock.getOutcome(eq(actionMock), eq(futureMock), any(Deadline.class))).thenReturn(expectedOutcome);
+        when(actionMock.getTimeoutInMillis()).thenReturn(Optional.of(TIMEOUT_IN_MILLIS));
+
+        final Collection<Outcome<Object>> actualOutcomes = switchgear.executeInParallel(actionMocks, Deadline.afterMillis(60_000));
+
+        assertThat(actualOutcomes, containsInAnyOrder(expectedOutcome));
+    }
+
+    @Test
+    public void whenParallelExecutionWithExpiredDeadlineThenDoNotExecute() {
+        when(resultCollectorMock.getOutcome(eq(actionMock), any(), any(Deadline.class))).thenReturn(expectedOutcome);
+
+        final Collection<Outcome<Object>> actualOutcomes = switchgear.executeInParallel(actionMocks, Deadline.afterMillis(0));
+
+        assertThat(actualOutcomes, containsInAnyOrder(expectedOutcome));
+        verify(executorServiceMock, never()).execute(any(), anyInt(), any());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenExecutedUntilNullConditionThenThrowException() {
+        switchgear.executeInParallelUntil(actionMocks, null, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenExecutedUntilNoSuccessesThenThrowException() {
+        switchgear.executeInParallelUntilSuccesses(actionMocks, 0, false);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenExecutedParallelWithNullDeadlineThenThrowException() {
+        switchgear.executeInParallel(actionMocks, null);
+    }
+
+    @Test
+    public void whenClosedThenShutdownExecutorServiceAndReleaseTimeoutTimer() {
+        switchgear.close();
+
+        verify(executorServiceMock).shutdown();
+        verify(timeoutTimerMock).release();
+    }
+
+    @Test
+    public void whenClosedTwiceThenReleaseTimeoutTimerOnce() {
+        switchgear.close();
+        switchgear.close();
+
+        verify(timeoutTimerMock).release();
+    }
+}
@@ -0,0 +1,150 @@
+package com.smaato.switchgear.batching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.smaato.switchgear.model.Batching;
+
+public class BatcherTest {
+
+    private static final String GROUP_NAME = "group";
+    private static final long LONG_DELAY_IN_MICROS = 60_000_000L;
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Batcher batcher = new Batcher(scheduler);
+    private final List<List<Integer>> batchCalls = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void whenBatchIsFullThenCallOnceForAllItems() {
+        final Batching<Integer, String> batching = new Batching<>(this::recordAndReturnKeys, 3, LONG_DELAY_IN_MICROS);
+
+        final CompletableFuture<String> first = batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+        final CompletableFuture<String> second = batcher.add(GROUP_NAME, batching, 2, DIRECT_EXECUTOR);
+        assertThat(batchCalls).isEmpty();
+        final CompletableFuture<String> third = batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+
+        assertThat(batchCalls).containsExactly(listOf(1, 2));
+        assertThat(first.join()).isEqualTo("1");
+        assertThat(second.join()).isEqualTo("2");
+        assertThat(third.join()).isEqualTo("1");
+    }
+
+    @Test
+    public void whenMaxDelayPassedThenCallWithItemsSoFar() {
+        final Batching<Integer, String> batching = new Batching<>(this::recordAndReturnKeys, 100, 1_000L);
+
+        final CompletableFuture<String> item = batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+
+        assertThat(item.join()).isEqualTo("1");
+        assertThat(batchCalls).containsExactly(listOf(1));
+    }
+
+    @Test
+    public void whenItemCompletedBeforeBatchCallThenLeaveItOut() {
+        final Batching<Integer, String> batching = new Batching<>(this::recordAndReturnKeys, 2, LONG_DELAY_IN_MICROS);
+
+        final CompletableFuture<String> timedOutItem = batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+        timedOutItem.cancel(false);
+        batcher.add(GROUP_NAME, batching, 2, DIRECT_EXECUTOR);
+
+        assertThat(batchCalls).containsExactly(listOf(2));
+    }
+
+    @Test
+    public void whenBatchCallFailsThenFailAllItems() {
+        final Batching<Integer, String> batching = new Batching<>(keys -> {
+            throw new IllegalStateException();
+        }, 2, LONG_DELAY_IN_MICROS);
+
+        final CompletableFuture<String> first = batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+        final CompletableFuture<String> second = batcher.add(GROUP_NAME, batching, 2, DIRECT_EXECUTOR);
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void whenResultMissingThenFailItem() {
+        final Batching<Integer, String> batching = new Batching<>(keys -> {
+            final Map<Integer, String> results = recordAndReturnKeys(keys);
+            results.remove(2);
+            return results;
+        }, 2, LONG_DELAY_IN_MICROS);
+
+        final CompletableFuture<String> first = batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+        final CompletableFuture<String> second = batcher.add(GROUP_NAME, batching, 2, DIRECT_EXECUTOR);
+
+        assertThat(first.join()).isEqualTo("1");
+        assertThatThrownBy(second::join).hasCauseInstanceOf(MissingBatchResultException.class);
+    }
+
+    @Test
+    public void whenDifferentGroupsThenDoNotMerge() {
+        final Batching<Integer, String> batching = new Batching<>(this::recordAndReturnKeys, 2, LONG_DELAY_IN_MICROS);
+
+        batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+        batcher.add("other group", batching, 2, DIRECT_EXECUTOR);
+
+        assertThat(batchCalls).isEmpty();
+    }
+
+    @Test
+    public void whenBatchExecutedThenRemoveItsAccumulator() {
+        for (int i = 0; i < 10; i++) {
+            final Batching<Integer, String> batching = new Batching<>(this::recordAndReturnKeys, 1, LONG_DELAY_IN_MICROS);
+
+            batcher.add(GROUP_NAME, batching, i, DIRECT_EXECUTOR);
+        }
+        final Batching<Integer, String> delayedBatching = new Batching<>(this::recordAndReturnKeys, 100, 1_000L);
+        batcher.add(GROUP_NAME, delayedBatching, 1, DIRECT_EXECUTOR).join();
+
+        assertThat(batchCalls).hasSize(11);
+        assertThat(batcher.getAccumulatorCount(GROUP_NAME)).isZero();
+    }
+
+    @Test
+    public void whenItemsAddedAfterBatchExecutedThenMergeThemIntoNextBatch() {
+        final Batching<Integer, String> batching = new Batching<>(this::recordAndReturnKeys, 2, LONG_DELAY_IN_MICROS);
+
+        batcher.add(GROUP_NAME, batching, 1, DIRECT_EXECUTOR);
+        batcher.add(GROUP_NAME, batching, 2, DIRECT_EXECUTOR);
+        batcher.add(GROUP_NAME, batching, 3, DIRECT_EXECUTOR);
+        assertThat(batcher.getAccumulatorCount(GROUP_NAME)).isEqualTo(1);
+        batcher.add(GROUP_NAME, batching, 4, DIRECT_EXECUTOR);
+
+        assertThat(batchCalls).containsExactly(listOf(1, 2), listOf(3, 4));
+        assertThat(batcher.getAccumulatorCount(GROUP_NAME)).isZero();
+    }
+
+    private Map<Integer, String> recordAndReturnKeys(final List<Integer> keys) {
+        batchCalls.add(keys);
+        return keys.stream().collect(Collectors.toMap(Function.identity(), String::valueOf));
+    }
+
+    private static List<Integer> listOf(final Integer... keys) {
+        final List<Integer> list = new ArrayList<>();
+        for (final Integer key : keys) {
+            list.add(key);
+        }
+        return list;
+    }
+}
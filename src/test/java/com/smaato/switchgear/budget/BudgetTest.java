@@ -0,0 +1,42 @@
+package com.smaato.switchgear.budget;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BudgetTest {
+
+    @Test
+    public void whenNothingDepositedThenWithdrawDenied() {
+        assertFalse(new Budget(5, 10).tryWithdraw());
+    }
+
+    @Test
+    public void whenWholeTokenDepositedThenWithdrawAllowedOnce() {
+        final Budget budget = new Budget(5, 10);
+        for (int i = 0; i < 20; i++) {
+            budget.deposit();
+        }
+
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void whenDepositedOverMaxThenBalanceCapped() {
+        final Budget budget = new Budget(100, 2);
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenPercentageOutOfRangeThenThrowException() {
+        new Budget(0, 10);
+    }
+}
@@ -0,0 +1,124 @@
+package com.smaato.switchgear.cache;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class TtlResultCacheTest {
+
+    private static final String KEY = "key";
+    private static final Function<Throwable, String> FALLBACK = throwable -> "fallback";
+
+    private final TtlResultCache resultCache = new TtlResultCache(new ResultCacheSize(500, 2));
+    private final AtomicInteger calls = new AtomicInteger(0);
+
+    @Test
+    public void whenFreshResultCachedThenDoNotCall() {
+        execute(KEY, succeeding("first")).join();
+
+        assertThat(execute(KEY, succeeding("second")).join(), is("first"));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenResultExpiredThenCallAgain() throws InterruptedException {
+        execute(KEY, succeeding("first")).join();
+        Thread.sleep(550L);
+
+        assertThat(execute(KEY, succeeding("second")).join(), is("second"));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void whenResultAboutToExpireThenRefreshInBackground() throws InterruptedException {
+        execute(KEY, succeeding("first")).join();
+        Thread.sleep(420L);
+
+        assertThat(execute(KEY, succeeding("second")).join(), is("first"));
+        assertThat(execute(KEY, succeeding("third")).join(), is("second"));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void whenExpiredAndCallRejectedThenServeStaleResult() throws InterruptedException {
+        execute(KEY, succeeding("first")).join();
+        Thread.sleep(550L);
+
+        assertThat(execute(KEY, rejected()).join(), is("first"));
+    }
+
+    @Test
+    public void whenExpiredAndCallTimesOutThenServeStaleResult() throws InterruptedException {
+        execute(KEY, succeeding("first")).join();
+        Thread.sleep(550L);
+
+        assertThat(execute(KEY, failing(new TimeoutException())).join(), is("first"));
+    }
+
+    @Test
+    public void whenExpiredAndCallFailsThenFail() throws InterruptedException {
+        execute(KEY, succeeding("first")).join();
+        Thread.sleep(550L);
+
+        assertThatThrownBy(() -> execute(KEY, failing(new IllegalStateException())).join()).isInstanceOf(CompletionException.class)
+                                                                                          .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void whenNothingCachedAndCallRejectedThenUseFallbackAndDoNotCache() {
+        assertThat(execute(KEY, rejected()).join(), is("fallback"));
+        assertThat(resultCache.size(), is(0));
+    }
+
+    @Test
+    public void whenFullThenEvict() {
+        execute("key1", succeeding("1")).join();
+        execute("key2", succeeding("2")).join();
+        execute("key3", succeeding("3")).join();
+
+        assertThat(resultCache.size(), is(2));
+    }
+
+    @Test
+    public void whenFullThenEvictOldest() {
+        execute("key1", succeeding("1")).join();
+        execute("key2", succeeding("2")).join();
+        execute("key3", succeeding("3")).join();
+
+        assertThat(execute("key2", succeeding("second")).join(), is("2"));
+        assertThat(execute("key3", succeeding("third")).join(), is("3"));
+        assertThat(execute("key1", succeeding("first")).join(), is("first"));
+    }
+
+    private CompletableFuture<String> execute(final Object key,
+                                              final Function<Function<Throwable, String>, CompletableFuture<String>> call) {
+        return resultCache.execute(key, call, FALLBACK);
+    }
+
+    private Function<Function<Throwable, String>, CompletableFuture<String>> succeeding(final String result) {
+        return fallback -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(result);
+        };
+    }
+
+    private static Function<Function<Throwable, String>, CompletableFuture<String>> rejected() {
+        return fallback -> CompletableFuture.completedFuture(fallback.apply(new IllegalStateException()));
+    }
+
+    private static Function<Function<Throwable, String>, CompletableFuture<String>> failing(final Exception failure) {
+        return fallback -> {
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(failure);
+            return future;
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.smaato.switchgear.circuitbreaker;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -48,7 +49,8 @@ public class CircuitBreakerImplTest {
                                                                              timeoutSchedulerMock,
                                                                              bucketedFailureStatesHolderMock,
                                                                              bucketRangeFinderMock,
-                                                                             recognizedExceptionsMock);
+                                                                             recognizedExceptionsMock,
+                                                                             CircuitBreakerImpl.SLOW_CALLS_NOT_TRACKED);
     private final Throwable lastFailErrorMock = mock(Throwable.class);
 
     @Before
@@ -85,4 +87,17 @@ public class CircuitBreakerImplTest {
 
         verify(fallbackFunctionMock).apply(lastFailErrorMock);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenTimeoutIsAdaptedThenCountInBucketOfRequestedTimeout() {
+        final int adaptedTimeout = 200;
+        when(stateManagerMock.isOpen()).thenReturn(false);
+        when(timeoutSchedulerMock.addTimeout(futureSupplier, adaptedTimeout, TIMEOUT_BUCKET_RANGE)).thenReturn(() -> timeoutFuture);
+
+        final Future<String> actualFuture = circuitBreaker.execute(futureSupplier, fallbackFunctionMock, adaptedTimeout, TIMEOUT);
+
+        assertThat(actualFuture).isEqualTo(enhancedFuture);
+        verify(bucketRangeFinderMock, never()).find(adaptedTimeout);
+        verify(timeoutSchedulerMock).addTimeout(futureSupplier, adaptedTimeout, TIMEOUT_BUCKET_RANGE);
+    }
+}
@@ -1,11 +1,15 @@
 package com.smaato.switchgear.circuitbreaker;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -28,4 +32,14 @@ public class DummyCircuitBreakerTest {
 
         verifyZeroInteractions(fallbackMock);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenTimeoutSchedulerWhenTimeoutReachedThenCompleteExceptionally() {
+        final CircuitBreaker timingOutCircuitBreaker = new DummyCircuitBreaker(new TimeoutScheduler(Executors.newSingleThreadScheduledExecutor()));
+
+        final CompletableFuture future = timingOutCircuitBreaker.execute(CompletableFuture::new, fallbackMock, TIMEOUT_IN_MILLIS);
+
+        assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TimeoutException.class);
+        verifyZeroInteractions(fallbackMock);
+    }
+}
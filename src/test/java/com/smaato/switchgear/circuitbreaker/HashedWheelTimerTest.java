@@ -0,0 +1,132 @@
+package com.smaato.switchgear.circuitbreaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+    private static final int TICK_IN_MILLIS = 1;
+    private static final int TICKS_PER_WHEEL = 8;
+    private static final int DELAY_IN_MILLIS = 20;
+    private static final int DELAY_LONGER_THAN_WHEEL_IN_MILLIS = 50;
+    private static final int EXTRA_TIME = 200;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(Executors.defaultThreadFactory(), TICK_IN_MILLIS, TICKS_PER_WHEEL);
+
+    @Test
+    public void whenTimeoutAddedThenRunTaskAfterDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, DELAY_IN_MILLIS);
+
+        assertThat(latch.await(DELAY_IN_MILLIS + EXTRA_TIME, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(DELAY_IN_MILLIS);
+        assertThat(timeout.isExpired()).isTrue();
+    }
+
+    @Test
+    public void whenDelayLongerThanWheelThenRunTaskAfterDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        timer.newTimeout(latch::countDown, DELAY_LONGER_THAN_WHEEL_IN_MILLIS);
+
+        assertThat(latch.await(DELAY_LONGER_THAN_WHEEL_IN_MILLIS + EXTRA_TIME, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(DELAY_LONGER_THAN_WHEEL_IN_MILLIS);
+    }
+
+    @Test
+    public void whenFirstTimeoutAddedLongAfterCreationThenRunTaskAfterDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread.sleep(DELAY_LONGER_THAN_WHEEL_IN_MILLIS);
+        final long start = System.nanoTime();
+
+        timer.newTimeout(latch::countDown, DELAY_IN_MILLIS);
+
+        assertThat(latch.await(DELAY_IN_MILLIS + EXTRA_TIME, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(DELAY_IN_MILLIS);
+    }
+
+    @Test
+    public void whenTimeoutCancelledThenDoNotRunTask() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(runs::incrementAndGet, DELAY_IN_MILLIS);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+
+        Thread.sleep(DELAY_IN_MILLIS + EXTRA_TIME);
+
+        assertThat(runs.get()).isZero();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(timeout.isExpired()).isFalse();
+    }
+
+    @Test
+    public void whenTaskFailsThenKeepRunningOtherTasks() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        timer.newTimeout(() -> {
+            throw new RuntimeException();
+        }, DELAY_IN_MILLIS);
+        timer.newTimeout(latch::countDown, DELAY_IN_MILLIS);
+
+        assertThat(latch.await(DELAY_IN_MILLIS + EXTRA_TIME, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @Test
+    public void whenReleasedByLastUserThenRunScheduledTasksAndEndWorker() throws InterruptedException {
+        final AtomicReference<Thread> worker = new AtomicReference<>();
+        final HashedWheelTimer stoppableTimer = new HashedWheelTimer(task -> {
+            worker.set(new Thread(task));
+            return worker.get();
+        }, TICK_IN_MILLIS, TICKS_PER_WHEEL);
+        final CountDownLatch latch = new CountDownLatch(1);
+        stoppableTimer.retain();
+        stoppableTimer.retain();
+
+        stoppableTimer.newTimeout(latch::countDown, DELAY_IN_MILLIS);
+        stoppableTimer.release();
+        assertThat(stoppableTimer.isStopped()).isFalse();
+        stoppableTimer.release();
+
+        assertThat(stoppableTimer.isStopped()).isTrue();
+        assertThat(latch.await(DELAY_IN_MILLIS + EXTRA_TIME, TimeUnit.MILLISECONDS)).isTrue();
+        worker.get().join(EXTRA_TIME);
+        assertThat(worker.get().isAlive()).isFalse();
+    }
+
+    @Test
+    public void whenStoppedThenRejectNewTimeouts() {
+        timer.retain();
+        timer.release();
+
+        assertThatThrownBy(() -> timer.newTimeout(() -> {
+        }, DELAY_IN_MILLIS)).isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(timer::retain).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void whenNeverRetainedThenReleaseDoesNotStopTimer() {
+        timer.release();
+
+        assertThat(timer.isStopped()).isFalse();
+    }
+
+    @Test
+    public void whenTickIsNotPositiveThenThrowException() {
+        assertThatThrownBy(() -> new HashedWheelTimer(Executors.defaultThreadFactory(), 0, TICKS_PER_WHEEL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
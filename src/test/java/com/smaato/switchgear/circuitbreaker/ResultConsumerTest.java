@@ -1,11 +1,13 @@
 package com.smaato.switchgear.circuitbreaker;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 import org.junit.Test;
@@ -24,7 +26,10 @@ public class ResultConsumerTest {
     private final LastFailureCause lastFailureCauseMock = mock(LastFailureCause.class);
     private final Set<Class<? extends Exception>> whiteListedExceptions = new HashSet<>();
 
-    private final BiConsumer resultConsumer = new ResultConsumer(stateManagerMock, lastFailureCauseMock, whiteListedExceptions);
+    private final BiConsumer resultConsumer = new ResultConsumer(stateManagerMock,
+                                                                  lastFailureCauseMock,
+                                                                  whiteListedExceptions,
+                                                                  ResultConsumer.LATENCY_NOT_TRACKED);
 
     @Test
     public void whenNoFailureThenHandleSuccess() {
@@ -41,4 +46,28 @@ public class ResultConsumerTest {
         verify(stateManagerMock).handleFailure();
         verify(lastFailureCauseMock).setFailure(failureMock);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenSuccessSlowerThanThresholdThenHandleSlowCall() throws InterruptedException {
+        final BiConsumer slowCallResultConsumer = new ResultConsumer(stateManagerMock, lastFailureCauseMock, whiteListedExceptions, 1L);
+        Thread.sleep(1L);
+
+        slowCallResultConsumer.accept(VALUE, null);
+
+        verify(stateManagerMock).handleSlowCall();
+        verify(lastFailureCauseMock).setFailure(any(SlowCallException.class));
+    }
+
+    @Test
+    public void whenSuccessFasterThanThresholdThenHandleSuccess() {
+        final BiConsumer slowCallResultConsumer = new ResultConsumer(stateManagerMock,
+                                                                     lastFailureCauseMock,
+                                                                     whiteListedExceptions,
+                                                                     TimeUnit.HOURS.toNanos(1L));
+
+        slowCallResultConsumer.accept(VALUE, null);
+
+        verify(stateManagerMock).handleSuccess();
+        verifyZeroInteractions(lastFailureCauseMock);
+    }
+}
@@ -27,7 +27,10 @@ public class ResultConsumerWithRecognizedExceptionsTest {
     private final Set<Class<? extends Exception>> recognizedExceptions = Stream.of(recognizedException.getClass())
                                                                                .collect(Collectors.toSet());
 
-    private final BiConsumer resultConsumer = new ResultConsumer(stateManagerMock, lastFailureCauseMock, recognizedExceptions);
+    private final BiConsumer resultConsumer = new ResultConsumer(stateManagerMock,
+                                                                  lastFailureCauseMock,
+                                                                  recognizedExceptions,
+                                                                  ResultConsumer.LATENCY_NOT_TRACKED);
 
     @Test
     public void whenNoFailureThenHandleSuccess() {
@@ -0,0 +1,70 @@
+package com.smaato.switchgear.circuitbreaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.Configuration;
+import com.smaato.switchgear.circuitbreaker.state.Strategy;
+
+public class SlowCallRateCircuitBreakerIntegrationTest {
+    private static final String RESULT = "RESULT";
+    private static final String FALLBACK_RESULT = "FALLBACK_RESULT";
+    private static final int TIMEOUT = 200;
+    private static final int LONGER_TIMEOUT = 2000;
+    private static final int SLOW_CALL_THRESHOLD_PERCENTAGE = 5;
+    private static final long SLOW_CALL_THRESHOLD_IN_MILLIS = (TIMEOUT * SLOW_CALL_THRESHOLD_PERCENTAGE) / 100;
+    private static final int WINDOW_SIZE = 5;
+
+    private final Supplier<CompletableFuture<String>> slowSupplier = () -> CompletableFuture.supplyAsync(() -> {
+        try {
+            Thread.sleep(2L * SLOW_CALL_THRESHOLD_IN_MILLIS);
+        } catch (InterruptedException ignore) {
+        }
+        return RESULT;
+    });
+    private final Supplier<CompletableFuture<String>> fastSupplier = () -> CompletableFuture.completedFuture(RESULT);
+
+    private final AtomicReference<Throwable> fallbackCause = new AtomicReference<>();
+    private final Function<Throwable, String> fallbackFunction = (throwable) -> {
+        fallbackCause.set(throwable);
+        return FALLBACK_RESULT;
+    };
+
+    private final CircuitBreaker circuitBreaker = CircuitBreakerFactory.newInstance(
+            Configuration.builder()
+                         .withStateManagerStrategy(Strategy.SLOW_CALL_RATE)
+                         .withSlowCallThresholdPercentage(SLOW_CALL_THRESHOLD_PERCENTAGE)
+                         .withMinimumWindowSize(WINDOW_SIZE)
+                         .build()
+    );
+
+    @Test
+    public void whenAllCallsSlowThenCircuitIsOpen() throws Exception {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            assertThat(circuitBreaker.execute(slowSupplier, fallbackFunction, TIMEOUT).get()).isEqualTo(RESULT);
+        }
+
+        assertThat(circuitBreaker.execute(fastSupplier, fallbackFunction, TIMEOUT).get()).isEqualTo(FALLBACK_RESULT);
+        assertThat(fallbackCause.get()).isInstanceOf(SlowCallException.class);
+    }
+
+    @Test
+    public void whenCallsFastRelativeToTheirTimeoutThenCircuitIsClosed() throws Exception {
+        for (int i = 0; i < (2 * WINDOW_SIZE); i++) {
+            assertThat(circuitBreaker.execute(slowSupplier, fallbackFunction, LONGER_TIMEOUT).get()).isEqualTo(RESULT);
+        }
+    }
+
+    @Test
+    public void whenCallsFastThenCircuitIsClosed() throws Exception {
+        for (int i = 0; i < (2 * WINDOW_SIZE); i++) {
+            assertThat(circuitBreaker.execute(fastSupplier, fallbackFunction, TIMEOUT).get()).isEqualTo(RESULT);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.smaato.switchgear.circuitbreaker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.BucketRange;
+
+/**
+ * Measures schedule and cancel throughput of a timeout for a call completing before its timeout.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Threads(10)
+public class TimeoutSchedulerBenchmark {
+
+    private static final int TIMEOUT_IN_MILLIS = 200;
+    private static final BucketRange TIMEOUT_BUCKET_RANGE = new BucketRange(0, TIMEOUT_IN_MILLIS);
+    private static final String RESULT = "result";
+    private static final Supplier<CompletableFuture<String>> FUTURE_SUPPLIER = CompletableFuture::new;
+
+    private ScheduledExecutorService scheduledExecutor;
+    private ScheduledThreadPoolExecutor removeOnCancelScheduledExecutor;
+    private TimeoutScheduler scheduledExecutorTimeoutScheduler;
+    private TimeoutScheduler removeOnCancelTimeoutScheduler;
+    private TimeoutScheduler timingWheelTimeoutScheduler;
+
+    @Setup
+    public void setup() {
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        removeOnCancelScheduledExecutor = new ScheduledThreadPoolExecutor(1);
+        removeOnCancelScheduledExecutor.setRemoveOnCancelPolicy(true);
+
+        scheduledExecutorTimeoutScheduler = new TimeoutScheduler(scheduledExecutor);
+        removeOnCancelTimeoutScheduler = new TimeoutScheduler(removeOnCancelScheduledExecutor);
+        timingWheelTimeoutScheduler = new TimeoutScheduler(new HashedWheelTimer(Executors.defaultThreadFactory(), 1, 512),
+                                                           scheduledExecutor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduledExecutor.shutdownNow();
+        removeOnCancelScheduledExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor(final TimeoutSchedulerBenchmark benchmark) {
+        return scheduleAndComplete(benchmark.scheduledExecutorTimeoutScheduler);
+    }
+
+    @Benchmark
+    public boolean removeOnCancelScheduledExecutor(final TimeoutSchedulerBenchmark benchmark) {
+        return scheduleAndComplete(benchmark.removeOnCancelTimeoutScheduler);
+    }
+
+    @Benchmark
+    public boolean timingWheel(final TimeoutSchedulerBenchmark benchmark) {
+        return scheduleAndComplete(benchmark.timingWheelTimeoutScheduler);
+    }
+
+    private static boolean scheduleAndComplete(final TimeoutScheduler timeoutScheduler) {
+        return timeoutScheduler.addTimeout(FUTURE_SUPPLIER, TIMEOUT_IN_MILLIS, TIMEOUT_BUCKET_RANGE)
+                               .get()
+                               .complete(RESULT);
+    }
+}
@@ -1,12 +1,16 @@
 package com.smaato.switchgear.circuitbreaker;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -45,4 +49,15 @@ public class TimeoutSchedulerTest {
 
         assertThat(exceptionCaptor.getValue()).isInstanceOf(TimeoutException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenTimingWheelWhenTimeoutAddedThenCompleteExceptionallyAfterTimeout() {
+        final HashedWheelTimer timer = new HashedWheelTimer(Executors.defaultThreadFactory(), 1, 8);
+        final TimeoutScheduler wheelTimeoutScheduler = new TimeoutScheduler(timer, schedulerMock);
+
+        final CompletableFuture<String> future = wheelTimeoutScheduler.<String>addTimeout(CompletableFuture::new, 10, TIMEOUT_BUCKET_RANGE).get();
+
+        assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TimeoutException.class);
+        verifyZeroInteractions(schedulerMock);
+    }
+}
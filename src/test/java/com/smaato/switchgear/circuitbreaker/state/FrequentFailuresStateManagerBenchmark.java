@@ -0,0 +1,68 @@
+package com.smaato.switchgear.circuitbreaker.state;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
+
+/**
+ * Measures how the throughput of a single shared state manager scales with the number of threads, against a single shared
+ * counter as baseline, both alone and behind a volatile state read like the state manager counted its outcomes before. Runs
+ * single threaded by default, the scaling is measured by running it once per thread count with the
+ * -t option of JMH, e.g. with 1, 2, 4, 8, 16, 32 and 64 threads.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class FrequentFailuresStateManagerBenchmark {
+
+    private static final int ONE_SECOND = 1000;
+    private static final int FAILURES_PERCENTAGE = 50;
+    private static final int MIN_WINDOW_SIZE = 100;
+
+    private final ScheduledExecutorService scheduledExecutorMock = mock(ScheduledExecutorService.class);
+    private final ThrottlingUtil throttlingUtilMock = mock(ThrottlingUtil.class);
+    private final AtomicInteger sharedCounter = new AtomicInteger(0);
+    private volatile boolean sharedState;
+
+    private StateManager stateManager;
+
+    @Setup
+    public void setup() {
+        stateManager = FrequentFailuresStateManager.newInstance(FAILURES_PERCENTAGE,
+                                                                ONE_SECOND,
+                                                                MIN_WINDOW_SIZE,
+                                                                throttlingUtilMock,
+                                                                scheduledExecutorMock);
+    }
+
+    @Benchmark
+    public boolean mixedSuccess(final FrequentFailuresStateManagerBenchmark benchmark) {
+        final boolean open = benchmark.stateManager.isOpen();
+        benchmark.stateManager.handleSuccess();
+        return open;
+    }
+
+    @Benchmark
+    public boolean sharedCounterMixedSuccess(final FrequentFailuresStateManagerBenchmark benchmark) {
+        final boolean open = benchmark.sharedState;
+        benchmark.sharedCounter.incrementAndGet();
+        return open;
+    }
+
+    @Benchmark
+    public int sharedCounter(final FrequentFailuresStateManagerBenchmark benchmark) {
+        return benchmark.sharedCounter.incrementAndGet();
+    }
+}
@@ -88,6 +88,27 @@ public class FrequentFailuresStateManagerTest {
         verify(throttlingUtilMock, never()).throttle();
     }
 
+    @Test
+    public void whenTooFewCallsToEvaluateThenCountThemInNextUpdate() throws InterruptedException {
+        final int half = WINDOW_SIZE / 2;
+        for (int i = 0; i < half; i++) {
+            stateManager.handleFailure();
+        }
+
+        Thread.sleep(CIRCUIT_OPEN_TIME_IN_MILLIS + EXTRA_TIME);
+
+        assertThat(stateManager.isOpen()).isFalse();
+        for (int i = 0; i < half; i++) {
+            stateManager.handleFailure();
+        }
+
+        // Wakes up between the next two updates, as the circuit is half open again after an update without calls.
+        Thread.sleep(CIRCUIT_OPEN_TIME_IN_MILLIS);
+
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
     @Test
     public void whenSuccessAfterThrottlingThenCloseCircuit() throws InterruptedException {
         failMostOfRequests();
@@ -0,0 +1,220 @@
+package com.smaato.switchgear.circuitbreaker.state;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
+
+public class SlidingCountStateManagerTest {
+    private static final int FAILURES_PERCENTAGE = 50;
+    private static final int SLOW_CALLS_PERCENTAGE = 20;
+    private static final int WINDOW_SIZE = 100;
+    private static final int CIRCUIT_OPEN_TIME_IN_MILLIS = 100;
+
+    private final AtomicLong nanoTime = new AtomicLong(0);
+
+    private final ThrottlingUtil throttlingUtilMock = mock(ThrottlingUtil.class);
+
+    private final StateManager stateManager = new SlidingCountStateManager(FAILURES_PERCENTAGE,
+                                                                           CIRCUIT_OPEN_TIME_IN_MILLIS,
+                                                                           WINDOW_SIZE,
+                                                                           throttlingUtilMock,
+                                                                           nanoTime::get);
+
+    @Before
+    public void setUp() {
+        when(throttlingUtilMock.throttle()).thenReturn(true);
+    }
+
+    @Test
+    public void givenInitialStateThenCircuitIsClosed() {
+        assertThat(stateManager.isOpen()).isFalse();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    @Test
+    public void whenWindowNotFilledThenCircuitIsClosed() {
+        for (int i = 0; i < (WINDOW_SIZE - 1); i++) {
+            stateManager.handleFailure();
+        }
+
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenTooManyFailuresThenThrottle() {
+        failMostOfRequests();
+
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock).throttle();
+    }
+
+    @Test
+    public void whenEnoughSuccessThenCircuitRemainsClosed() {
+        for (int i = 0; i < (WINDOW_SIZE / 2); i++) {
+            stateManager.handleFailure();
+            stateManager.handleSuccess();
+        }
+
+        assertThat(stateManager.isOpen()).isFalse();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    @Test
+    public void whenFailuresOverwrittenBySuccessThenCloseCircuit() {
+        failMostOfRequests();
+        assertThat(stateManager.isOpen()).isTrue();
+
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            stateManager.handleSuccess();
+        }
+
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenAllFailedThenOpenCircuitUntilOpenTimePassed() {
+        failAllRequests();
+
+        assertThat(stateManager.isOpen()).isTrue();
+        advance(CIRCUIT_OPEN_TIME_IN_MILLIS - 1);
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock, never()).throttle();
+
+        advance(1);
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenSuccessAfterCircuitWasOpenThenCloseCircuit() {
+        failAllRequests();
+        assertThat(stateManager.isOpen()).isTrue();
+        advance(CIRCUIT_OPEN_TIME_IN_MILLIS);
+        assertThat(stateManager.isOpen()).isFalse();
+
+        stateManager.handleSuccess();
+
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenFailureAfterCircuitWasOpenThenOpenAgain() {
+        failAllRequests();
+        assertThat(stateManager.isOpen()).isTrue();
+        advance(CIRCUIT_OPEN_TIME_IN_MILLIS);
+        assertThat(stateManager.isOpen()).isFalse();
+
+        stateManager.handleFailure();
+
+        assertThat(stateManager.isOpen()).isTrue();
+    }
+
+    @Test
+    public void whenWindowIsNotMultipleOfWordSizeThenCountOnlyLastCalls() {
+        final StateManager smallStateManager = new SlidingCountStateManager(FAILURES_PERCENTAGE,
+                                                                            CIRCUIT_OPEN_TIME_IN_MILLIS,
+                                                                            3,
+                                                                            throttlingUtilMock,
+                                                                            nanoTime::get);
+        smallStateManager.handleFailure();
+        smallStateManager.handleFailure();
+        smallStateManager.handleSuccess();
+        smallStateManager.handleSuccess();
+        smallStateManager.handleSuccess();
+
+        assertThat(smallStateManager.isOpen()).isFalse();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    @Test
+    public void whenTooManySlowCallsThenThrottleRegardlessOfFailures() {
+        final StateManager slowCallStateManager = new SlidingCountStateManager(FAILURES_PERCENTAGE,
+                                                                               SLOW_CALLS_PERCENTAGE,
+                                                                               CIRCUIT_OPEN_TIME_IN_MILLIS,
+                                                                               WINDOW_SIZE,
+                                                                               throttlingUtilMock,
+                                                                               nanoTime::get);
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            if (i < (SLOW_CALLS_PERCENTAGE + 1)) {
+                slowCallStateManager.handleSlowCall();
+            } else {
+                slowCallStateManager.handleSuccess();
+            }
+        }
+
+        assertThat(slowCallStateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock).throttle();
+    }
+
+    @Test
+    public void whenSlowCallsWithinPercentageThenCircuitRemainsClosed() {
+        final StateManager slowCallStateManager = new SlidingCountStateManager(FAILURES_PERCENTAGE,
+                                                                               SLOW_CALLS_PERCENTAGE,
+                                                                               CIRCUIT_OPEN_TIME_IN_MILLIS,
+                                                                               WINDOW_SIZE,
+                                                                               throttlingUtilMock,
+                                                                               nanoTime::get);
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            if (i < SLOW_CALLS_PERCENTAGE) {
+                slowCallStateManager.handleSlowCall();
+            } else if (i < (2 * SLOW_CALLS_PERCENTAGE)) {
+                slowCallStateManager.handleFailure();
+            } else {
+                slowCallStateManager.handleSuccess();
+            }
+        }
+
+        assertThat(slowCallStateManager.isOpen()).isFalse();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    @Test
+    public void whenAllCallsFailedOrSlowThenOpenCircuit() {
+        final StateManager slowCallStateManager = new SlidingCountStateManager(FAILURES_PERCENTAGE,
+                                                                               SLOW_CALLS_PERCENTAGE,
+                                                                               CIRCUIT_OPEN_TIME_IN_MILLIS,
+                                                                               WINDOW_SIZE,
+                                                                               throttlingUtilMock,
+                                                                               nanoTime::get);
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            if ((i % 2) == 0) {
+                slowCallStateManager.handleSlowCall();
+            } else {
+                slowCallStateManager.handleFailure();
+            }
+        }
+
+        assertThat(slowCallStateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    private void advance(final int millis) {
+        nanoTime.addAndGet(MILLISECONDS.toNanos(millis));
+    }
+
+    private void failMostOfRequests() {
+        for (int i = 0; i < ((WINDOW_SIZE / 2) + 1); i++) {
+            assertThat(stateManager.isOpen()).isFalse();
+            stateManager.handleFailure();
+        }
+        for (int i = 0; i < ((WINDOW_SIZE / 2) - 1); i++) {
+            stateManager.handleSuccess();
+        }
+    }
+
+    private void failAllRequests() {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            assertThat(stateManager.isOpen()).isFalse();
+            stateManager.handleFailure();
+        }
+    }
+}
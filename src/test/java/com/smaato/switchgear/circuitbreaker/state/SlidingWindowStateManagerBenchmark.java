@@ -0,0 +1,81 @@
+package com.smaato.switchgear.circuitbreaker.state;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
+
+/**
+ * Compares the sliding window state manager with the periodically reset counters of the frequent failures state manager.
+ * The sliding window reads the clock once per call in isOpen, which is measured separately as a baseline. Runs single
+ * threaded by default, the number of threads is set with the -t option of JMH.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class SlidingWindowStateManagerBenchmark {
+
+    private static final int ONE_SECOND = 1000;
+    private static final int FAILURES_PERCENTAGE = 50;
+    private static final int MIN_WINDOW_SIZE = 100;
+
+    private final ScheduledExecutorService scheduledExecutorMock = mock(ScheduledExecutorService.class);
+    private final ThrottlingUtil throttlingUtilMock = mock(ThrottlingUtil.class);
+
+    private StateManager frequentFailuresStateManager;
+    private StateManager slidingWindowStateManager;
+
+    @Setup
+    public void setup() {
+        frequentFailuresStateManager = FrequentFailuresStateManager.newInstance(FAILURES_PERCENTAGE,
+                                                                                ONE_SECOND,
+                                                                                MIN_WINDOW_SIZE,
+                                                                                throttlingUtilMock,
+                                                                                scheduledExecutorMock);
+        slidingWindowStateManager = SlidingWindowStateManager.newInstance(FAILURES_PERCENTAGE,
+                                                                          ONE_SECOND,
+                                                                          MIN_WINDOW_SIZE,
+                                                                          throttlingUtilMock);
+    }
+
+    @Benchmark
+    public boolean frequentFailuresMixedSuccess(final SlidingWindowStateManagerBenchmark benchmark) {
+        return isOpenAndSucceed(benchmark.frequentFailuresStateManager);
+    }
+
+    @Benchmark
+    public boolean slidingWindowMixedSuccess(final SlidingWindowStateManagerBenchmark benchmark) {
+        return isOpenAndSucceed(benchmark.slidingWindowStateManager);
+    }
+
+    @Benchmark
+    public void frequentFailuresFailureRuns(final SlidingWindowStateManagerBenchmark benchmark) {
+        benchmark.frequentFailuresStateManager.handleFailure();
+    }
+
+    @Benchmark
+    public void slidingWindowFailureRuns(final SlidingWindowStateManagerBenchmark benchmark) {
+        benchmark.slidingWindowStateManager.handleFailure();
+    }
+
+    @Benchmark
+    public long clockBaseline() {
+        return System.nanoTime();
+    }
+
+    private static boolean isOpenAndSucceed(final StateManager stateManager) {
+        final boolean open = stateManager.isOpen();
+        stateManager.handleSuccess();
+        return open;
+    }
+}
@@ -0,0 +1,168 @@
+package com.smaato.switchgear.circuitbreaker.state;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.ThrottlingUtil;
+
+public class SlidingWindowStateManagerTest {
+    private static final int FAILURES_PERCENTAGE = 50;
+    private static final int WINDOW_SIZE = 100;
+    private static final int WINDOW_IN_MILLIS = 800;
+    private static final int SLICE_IN_MILLIS = WINDOW_IN_MILLIS / SlidingWindowStateManager.SLICES;
+
+    private final AtomicLong nanoTime = new AtomicLong(Long.MAX_VALUE - MILLISECONDS.toNanos(WINDOW_IN_MILLIS));
+
+    private final ThrottlingUtil throttlingUtilMock = mock(ThrottlingUtil.class);
+
+    private final StateManager stateManager = new SlidingWindowStateManager(FAILURES_PERCENTAGE,
+                                                                            WINDOW_IN_MILLIS,
+                                                                            WINDOW_SIZE,
+                                                                            throttlingUtilMock,
+                                                                            nanoTime::get);
+
+    @Before
+    public void setUp() {
+        when(throttlingUtilMock.throttle()).thenReturn(true);
+    }
+
+    @Test
+    public void givenInitialStateThenCircuitIsClosed() {
+        assertThat(stateManager.isOpen()).isFalse();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    @Test
+    public void whenTooManyFailuresThenThrottleWithoutWaitingForWindowEnd() {
+        failMostOfRequests();
+
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock).throttle();
+    }
+
+    @Test
+    public void whenNotEnoughCallsThenCircuitIsClosed() {
+        for (int i = 0; i < (WINDOW_SIZE - 1); i++) {
+            stateManager.handleFailure();
+        }
+
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenEnoughSuccessThenCircuitRemainsClosed() {
+        for (int i = 0; i < (WINDOW_SIZE / 2); i++) {
+            stateManager.handleFailure();
+            stateManager.handleSuccess();
+        }
+
+        assertThat(stateManager.isOpen()).isFalse();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    @Test
+    public void whenFailuresSpreadOverWindowThenCountAllOfThem() {
+        final int callsPerSlice = WINDOW_SIZE / 4;
+        for (int slice = 0; slice < 4; slice++) {
+            assertThat(stateManager.isOpen()).isFalse();
+            for (int i = 0; i < callsPerSlice; i++) {
+                stateManager.handleFailure();
+            }
+            stateManager.handleSuccess();
+            advance(SLICE_IN_MILLIS);
+        }
+
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock).throttle();
+    }
+
+    @Test
+    public void whenFailuresSlideOutOfWindowThenCloseCircuit() {
+        failMostOfRequests();
+        assertThat(stateManager.isOpen()).isTrue();
+
+        advance(WINDOW_IN_MILLIS);
+
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenAllFailedThenOpenCircuitUntilWindowPassed() {
+        failAllRequests();
+
+        assertThat(stateManager.isOpen()).isTrue();
+        advance(WINDOW_IN_MILLIS - 1);
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock, never()).throttle();
+
+        advance(1);
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenSuccessAfterCircuitWasOpenThenCloseCircuit() {
+        failAllRequests();
+        assertThat(stateManager.isOpen()).isTrue();
+        advance(WINDOW_IN_MILLIS);
+        assertThat(stateManager.isOpen()).isFalse();
+
+        stateManager.handleSuccess();
+
+        assertThat(stateManager.isOpen()).isFalse();
+    }
+
+    @Test
+    public void whenFailureAfterCircuitWasOpenThenOpenAgain() {
+        failAllRequests();
+        assertThat(stateManager.isOpen()).isTrue();
+        advance(WINDOW_IN_MILLIS);
+        assertThat(stateManager.isOpen()).isFalse();
+
+        stateManager.handleFailure();
+
+        assertThat(stateManager.isOpen()).isTrue();
+    }
+
+    @Test
+    public void whenOutcomesRecordedAfterIdleGapThenCountThemInCompletionSlice() {
+        stateManager.handleSuccess();
+        advance(2 * WINDOW_IN_MILLIS);
+
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            stateManager.handleFailure();
+        }
+
+        assertThat(stateManager.isOpen()).isTrue();
+        verify(throttlingUtilMock, never()).throttle();
+    }
+
+    private void advance(final int millis) {
+        nanoTime.addAndGet(MILLISECONDS.toNanos(millis));
+    }
+
+    private void failMostOfRequests() {
+        for (int i = 0; i < ((WINDOW_SIZE / 2) + 1); i++) {
+            assertThat(stateManager.isOpen()).isFalse();
+            stateManager.handleFailure();
+        }
+        for (int i = 0; i < ((WINDOW_SIZE / 2) - 1); i++) {
+            stateManager.handleSuccess();
+        }
+    }
+
+    private void failAllRequests() {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            assertThat(stateManager.isOpen()).isFalse();
+            stateManager.handleFailure();
+        }
+    }
+}
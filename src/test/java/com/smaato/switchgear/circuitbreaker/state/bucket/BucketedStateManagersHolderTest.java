@@ -10,6 +10,8 @@ import org.junit.Test;
 import com.smaato.switchgear.Configuration;
 import com.smaato.switchgear.circuitbreaker.state.ConsecutiveFailuresStateManager;
 import com.smaato.switchgear.circuitbreaker.state.FrequentFailuresStateManager;
+import com.smaato.switchgear.circuitbreaker.state.SlidingCountStateManager;
+import com.smaato.switchgear.circuitbreaker.state.SlidingWindowStateManager;
 import com.smaato.switchgear.circuitbreaker.state.StateManager;
 import com.smaato.switchgear.circuitbreaker.state.Strategy;
 
@@ -62,6 +64,39 @@ public class BucketedStateManagersHolderTest {
         assertTrue(stateManager instanceof FrequentFailuresStateManager);
     }
 
+    @Test
+    public void whenSlidingWindowStrategyThenReturnSlidingWindowStateManager() {
+        final BucketedStateManagersHolder defaultStateManagerHolder = new BucketedStateManagersHolder(
+                Configuration.builder()
+                             .withStateManagerStrategy(Strategy.SLIDING_WINDOW)
+                             .build()
+        );
+        final StateManager stateManager = defaultStateManagerHolder.getStateManager(RANGE);
+        assertTrue(stateManager instanceof SlidingWindowStateManager);
+    }
+
+    @Test
+    public void whenSlidingCountStrategyThenReturnSlidingCountStateManager() {
+        final BucketedStateManagersHolder defaultStateManagerHolder = new BucketedStateManagersHolder(
+                Configuration.builder()
+                             .withStateManagerStrategy(Strategy.SLIDING_COUNT)
+                             .build()
+        );
+        final StateManager stateManager = defaultStateManagerHolder.getStateManager(RANGE);
+        assertTrue(stateManager instanceof SlidingCountStateManager);
+    }
+
+    @Test
+    public void whenSlowCallRateStrategyThenReturnSlidingCountStateManager() {
+        final BucketedStateManagersHolder defaultStateManagerHolder = new BucketedStateManagersHolder(
+                Configuration.builder()
+                             .withStateManagerStrategy(Strategy.SLOW_CALL_RATE)
+                             .build()
+        );
+        final StateManager stateManager = defaultStateManagerHolder.getStateManager(RANGE);
+        assertTrue(stateManager instanceof SlidingCountStateManager);
+    }
+
     @Test
     public void whenConsecutiveFailuresStrategyThenReturnConsecutiveFailuresStateManager() {
         final BucketedStateManagersHolder defaultStateManagerHolder = new BucketedStateManagersHolder(
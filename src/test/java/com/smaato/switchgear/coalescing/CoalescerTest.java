@@ -0,0 +1,95 @@
+package com.smaato.switchgear.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.circuitbreaker.DummyCircuitBreaker;
+
+public class CoalescerTest {
+
+    private static final String GROUP_NAME = "group";
+    private static final String KEY = "key";
+    private static final int TIMEOUT_IN_MILLIS = 100;
+
+    private final Coalescer coalescer = new Coalescer(new DummyCircuitBreaker());
+    private final AtomicInteger calls = new AtomicInteger(0);
+    private final CompletableFuture<String> inFlightCall = new CompletableFuture<>();
+
+    @Test
+    public void whenSameKeyInFlightThenStartCallOnce() {
+        final CompletableFuture<String> first = execute(KEY, throwable -> "fallback");
+        final CompletableFuture<String> second = execute(KEY, throwable -> "fallback");
+        inFlightCall.complete("result");
+
+        assertThat(first.join(), is("result"));
+        assertThat(second.join(), is("result"));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenDifferentKeysThenStartCallPerKey() {
+        execute(KEY, throwable -> "fallback");
+        execute("other key", throwable -> "fallback");
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void whenCallCompletedThenNextCallStartsAgain() {
+        execute(KEY, throwable -> "fallback");
+        inFlightCall.complete("result");
+        execute(KEY, throwable -> "fallback");
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void whenCallRejectedThenEveryCallerUsesOwnFallback() {
+        final CompletableFuture<String> first = coalescer.execute(GROUP_NAME, KEY, this::reject, throwable -> "first", TIMEOUT_IN_MILLIS);
+        final CompletableFuture<String> second = coalescer.execute(GROUP_NAME, KEY, this::reject, throwable -> "second", TIMEOUT_IN_MILLIS);
+
+        assertThat(first.join(), is("first"));
+        assertThat(second.join(), is("second"));
+    }
+
+    @Test
+    public void whenCallFailsThenEveryCallerFails() {
+        final CompletableFuture<String> first = execute(KEY, throwable -> "fallback");
+        final CompletableFuture<String> second = execute(KEY, throwable -> "fallback");
+        inFlightCall.completeExceptionally(new IllegalStateException());
+
+        assertThatThrownBy(first::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenKeyIsNullThenThrowException() {
+        execute(null, throwable -> "fallback");
+    }
+
+    private CompletableFuture<String> execute(final Object key,
+                                              final Function<Throwable, String> circuitBreakerFallback) {
+        return coalescer.execute(GROUP_NAME, key, fallback -> {
+            calls.incrementAndGet();
+            return key.equals(KEY) ? inFlightCall : new CompletableFuture<>();
+        }, circuitBreakerFallback, TIMEOUT_IN_MILLIS);
+    }
+
+    private CompletableFuture<String> reject(final Function<Throwable, String> circuitBreakerFallback) {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            future.complete(circuitBreakerFallback.apply(new IllegalStateException()));
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
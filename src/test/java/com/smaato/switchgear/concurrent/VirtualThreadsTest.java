@@ -0,0 +1,39 @@
+package com.smaato.switchgear.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.Configuration;
+
+public class VirtualThreadsTest {
+
+    private static final String THREAD_NAME = "virtual";
+
+    @Test
+    public void givenJava21WhenExecutedThenRunInNamedVirtualThread() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor(THREAD_NAME);
+        final Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+
+        assertThat(thread.getName()).isEqualTo("virtual-1");
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+    }
+
+    @Test
+    public void givenJavaBefore21WhenVirtualThreadsRequestedThenThrowException() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        assertThatThrownBy(() -> VirtualThreads.newVirtualThreadPerTaskExecutor(THREAD_NAME))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> Configuration.builder().withVirtualThreads())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,164 @@
+package com.smaato.switchgear.hedging;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.smaato.switchgear.latency.LatencyHistogram;
+import com.smaato.switchgear.latency.LatencyHistogramHolder;
+import com.smaato.switchgear.model.Hedging;
+
+public class HedgerTest {
+
+    private static final String GROUP_NAME = "group";
+    private static final Hedging HEDGING = new Hedging(95, 1);
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+    private static final String BACKUP_THREAD_NAME = "backup";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService backupExecutor = Executors.newSingleThreadExecutor(task -> new Thread(task, BACKUP_THREAD_NAME));
+    private final LatencyHistogramHolder latencyHistogramHolder = new LatencyHistogramHolder(groupName -> new LatencyHistogram());
+    private final Hedger hedger = new Hedger(latencyHistogramHolder, 100, null, scheduler);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        backupExecutor.shutdownNow();
+    }
+
+    @Test
+    public void whenNoLatenciesObservedThenDoNotHedge() {
+        final AtomicInteger backupCalls = new AtomicInteger(0);
+
+        hedger.execute(GROUP_NAME, HEDGING, CompletableFuture::new, () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("backup");
+        }, DIRECT_EXECUTOR);
+
+        sleep(50);
+        assertThat(backupCalls.get(), is(0));
+    }
+
+    @Test
+    public void whenPrimaryIsSlowThenBackupWinsAndPrimaryIsCancelled() throws Exception {
+        warmUp();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+
+        final CompletableFuture<String> result = hedger.execute(GROUP_NAME,
+                                                                HEDGING,
+                                                                () -> primary,
+                                                                () -> CompletableFuture.completedFuture("backup"),
+                                                                DIRECT_EXECUTOR);
+
+        final CompletableFuture<Throwable> primaryFailure = primary.handle((value, failure) -> failure);
+
+        assertThat(result.join(), is("backup"));
+        // The losers are cancelled by a dependent of the result, which may still be running when join returns.
+        assertTrue(primaryFailure.get(1, SECONDS) instanceof CancellationException);
+        assertTrue(primary.isCancelled());
+    }
+
+    @Test
+    public void whenPrimaryFailsBeforeHedgeThenFail() {
+        warmUp();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        primary.completeExceptionally(new IllegalStateException());
+
+        final CompletableFuture<String> result = hedger.execute(GROUP_NAME,
+                                                                HEDGING,
+                                                                () -> primary,
+                                                                () -> CompletableFuture.completedFuture("backup"),
+                                                                DIRECT_EXECUTOR);
+
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    public void whenBackupFailsThenWaitForPrimary() {
+        warmUp();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        final CompletableFuture<String> backup = new CompletableFuture<>();
+        backup.completeExceptionally(new IllegalStateException());
+
+        final CompletableFuture<String> result = hedger.execute(GROUP_NAME, HEDGING, () -> primary, () -> backup, DIRECT_EXECUTOR);
+        sleep(50);
+        assertFalse(result.isDone());
+
+        primary.complete("primary");
+        assertThat(result.join(), is("primary"));
+    }
+
+    @Test
+    public void whenBudgetExhaustedThenDoNotHedge() {
+        final Hedger lowBudgetHedger = new Hedger(latencyHistogramHolder, 1, null, scheduler);
+        warmUp();
+        final AtomicInteger backupCalls = new AtomicInteger(0);
+
+        lowBudgetHedger.execute(GROUP_NAME, HEDGING, CompletableFuture::new, () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("backup");
+        }, DIRECT_EXECUTOR);
+
+        sleep(50);
+        assertThat(backupCalls.get(), is(0));
+    }
+
+    @Test
+    public void whenHedgeFiredThenStartBackupOnBackupExecutor() {
+        warmUp();
+
+        final CompletableFuture<String> result = hedger.execute(GROUP_NAME,
+                                                                HEDGING,
+                                                                CompletableFuture::new,
+                                                                () -> CompletableFuture.completedFuture(Thread.currentThread().getName()),
+                                                                backupExecutor);
+
+        assertThat(result.join(), is(BACKUP_THREAD_NAME));
+    }
+
+    @Test
+    public void whenBackupRejectedByExecutorThenWaitForPrimary() {
+        warmUp();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+
+        final CompletableFuture<String> result = hedger.execute(GROUP_NAME, HEDGING, () -> primary, () -> {
+            throw new IllegalStateException();
+        }, task -> {
+            throw new RejectedExecutionException();
+        });
+        sleep(50);
+        assertFalse(result.isDone());
+
+        primary.completeExceptionally(new IllegalStateException());
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 1000; i++) {
+            latencyHistogramHolder.getFor(GROUP_NAME).record(MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.smaato.switchgear.isolation;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class AdaptiveBulkheadTest {
+
+    private static final int INITIAL_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+    private static final long FAST_CALL = MILLISECONDS.toNanos(10);
+    private static final long SLOW_CALL = MILLISECONDS.toNanos(100);
+
+    private final AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(new ConcurrencyLimit(INITIAL_LIMIT, MAX_LIMIT));
+
+    @Test
+    public void whenLimitReachedThenRejectCalls() {
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            assertThat(bulkhead.tryAcquire()).isTrue();
+        }
+
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(bulkhead.getConcurrentCalls()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    @Test
+    public void whenLatencyStableAndLimitUsedThenGrowLimit() {
+        saturateAndRelease(FAST_CALL, 50);
+
+        assertThat(bulkhead.getLimit()).isGreaterThan(INITIAL_LIMIT);
+        assertThat(bulkhead.getLimit()).isLessThanOrEqualTo(MAX_LIMIT);
+    }
+
+    @Test
+    public void whenLatencyStableAndLimitNotUsedThenKeepLimit() {
+        for (int i = 0; i < 50; i++) {
+            bulkhead.tryAcquire();
+            bulkhead.release(FAST_CALL);
+        }
+
+        assertThat(bulkhead.getLimit()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    @Test
+    public void whenLatencyRisesThenShrinkLimit() {
+        saturateAndRelease(FAST_CALL, 50);
+        final int limitBeforeSlowCalls = bulkhead.getLimit();
+
+        saturateAndRelease(SLOW_CALL, 20);
+
+        assertThat(bulkhead.getLimit()).isLessThan(limitBeforeSlowCalls);
+        assertThat(bulkhead.getLimit()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void whenReleasedWithoutLatencyThenKeepLimit() {
+        bulkhead.tryAcquire();
+        bulkhead.release();
+
+        assertThat(bulkhead.getLimit()).isEqualTo(INITIAL_LIMIT);
+        assertThat(bulkhead.getConcurrentCalls()).isZero();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenInitialLimitGreaterThanMaxLimitThenThrowException() {
+        new ConcurrencyLimit(MAX_LIMIT + 1, MAX_LIMIT);
+    }
+
+    private void saturateAndRelease(final long latencyInNanos,
+                                    final int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (bulkhead.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                bulkhead.release(latencyInNanos);
+            }
+        }
+    }
+}
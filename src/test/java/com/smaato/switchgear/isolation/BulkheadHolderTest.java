@@ -0,0 +1,31 @@
+package com.smaato.switchgear.isolation;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+public class BulkheadHolderTest {
+
+    private static final String GROUP_1 = "group1";
+    private static final String GROUP_2 = "group2";
+
+    private final BulkheadHolder bulkheadHolder = new BulkheadHolder(groupName -> mock(Bulkhead.class));
+
+    @Test
+    public void whenSameGroupThenSameBulkhead() {
+        assertThat(bulkheadHolder.getFor(GROUP_1), is(bulkheadHolder.getFor(GROUP_1)));
+    }
+
+    @Test
+    public void whenDifferentGroupsThenDifferentBulkheads() {
+        assertThat(bulkheadHolder.getFor(GROUP_1), is(not(bulkheadHolder.getFor(GROUP_2))));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenRequestedWithNullThenThrowException() {
+        bulkheadHolder.getFor(null);
+    }
+}
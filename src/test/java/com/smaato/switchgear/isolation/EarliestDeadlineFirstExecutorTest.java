@@ -0,0 +1,88 @@
+package com.smaato.switchgear.isolation;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.smaato.switchgear.model.Deadline;
+
+public class EarliestDeadlineFirstExecutorTest {
+
+    private static final String GROUP_NAME = "partner";
+
+    private final EarliestDeadlineFirstExecutor executor = (EarliestDeadlineFirstExecutor) ThreadPoolFactory.newEarliestDeadlineFirstInstance(
+            GROUP_NAME,
+            new ThreadPoolSize(1, 3));
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void whenTasksQueuedThenRunEarliestDeadlineFirst() throws InterruptedException {
+        final CountDownLatch completed = blockWorker(2);
+
+        executor.execute(record("late", completed), Deadline.after(20, SECONDS));
+        executor.execute(record("early", completed), Deadline.after(10, SECONDS));
+        release.countDown();
+
+        assertThat(completed.await(1, SECONDS)).isTrue();
+        assertThat(executed).containsExactly("early", "late");
+    }
+
+    @Test
+    public void whenDeadlinePassedWhileQueuedThenDropTask() throws InterruptedException {
+        final CountDownLatch completed = blockWorker(1);
+
+        executor.execute(record("expired", completed), Deadline.afterMillis(1));
+        executor.execute(record("no deadline", completed));
+        Thread.sleep(10L);
+        release.countDown();
+
+        assertThat(completed.await(1, SECONDS)).isTrue();
+        assertThat(executed).containsExactly("no deadline");
+        assertThat(executor.getDroppedTasks()).isEqualTo(1L);
+    }
+
+    @Test
+    public void whenQueueIsFullThenReject() {
+        blockWorker(0);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+            }, Deadline.after(10, SECONDS));
+        }
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+        }, Deadline.after(10, SECONDS))).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private CountDownLatch blockWorker(final int tasksToComplete) {
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (final InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return new CountDownLatch(tasksToComplete);
+    }
+
+    private Runnable record(final String name,
+                            final CountDownLatch completed) {
+        return () -> {
+            executed.add(name);
+            completed.countDown();
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.smaato.switchgear.isolation;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+public class ExecutorHolderTest {
+
+    private static final String GROUP_1 = "group1";
+    private static final String GROUP_2 = "group2";
+    private static final String SHARED_GROUP = "shared";
+
+    private final ExecutorService sharedExecutorMock = mock(ExecutorService.class);
+    private final ExecutorHolder executorHolder = new ExecutorHolder(groupName -> SHARED_GROUP.equals(groupName) ? null : mock(ExecutorService.class),
+                                                                     groupName -> sharedExecutorMock);
+
+    @Test
+    public void whenSameGroupThenSameExecutor() {
+        assertThat(executorHolder.getFor(GROUP_1), is(executorHolder.getFor(GROUP_1)));
+    }
+
+    @Test
+    public void whenDifferentGroupsThenDifferentExecutors() {
+        assertThat(executorHolder.getFor(GROUP_1), is(not(executorHolder.getFor(GROUP_2))));
+    }
+
+    @Test
+    public void whenNoDedicatedExecutorThenSharedExecutor() {
+        assertThat(executorHolder.getFor(SHARED_GROUP), is(sharedExecutorMock));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenRequestedWithNullThenThrowException() {
+        executorHolder.getFor(null);
+    }
+
+    @Test
+    public void whenShutdownThenShutdownDedicatedExecutorsOnly() {
+        final Executor dedicatedExecutor = executorHolder.getFor(GROUP_1);
+        executorHolder.getFor(SHARED_GROUP);
+
+        executorHolder.shutdown();
+
+        verify((ExecutorService) dedicatedExecutor).shutdown();
+        verify(sharedExecutorMock, never()).shutdown();
+    }
+
+    @Test
+    public void whenGroupRequestedAfterShutdownThenShutdownItsDedicatedExecutor() {
+        executorHolder.shutdown();
+
+        final Executor dedicatedExecutor = executorHolder.getFor(GROUP_1);
+
+        verify((ExecutorService) dedicatedExecutor).shutdown();
+    }
+
+    @Test
+    public void whenExecutorsProvidedByFactoryThenDoNotShutdownThem() {
+        final ExecutorHolder providedExecutorHolder = new ExecutorHolder(groupName -> sharedExecutorMock);
+        providedExecutorHolder.getFor(GROUP_1);
+
+        providedExecutorHolder.shutdown();
+
+        verify(sharedExecutorMock, never()).shutdown();
+    }
+}
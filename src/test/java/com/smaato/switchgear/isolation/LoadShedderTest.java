@@ -0,0 +1,85 @@
+package com.smaato.switchgear.isolation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.model.Priority;
+
+public class LoadShedderTest {
+
+    private static final int MAX_IN_FLIGHT_CALLS = 10;
+
+    private final LoadShedder loadShedder = new LoadShedder(MAX_IN_FLIGHT_CALLS);
+
+    @Test
+    public void whenHalfOfLimitInFlightThenShedLowPriorityOnly() {
+        acquire(Priority.LOW, 5);
+
+        assertThat(loadShedder.tryAcquire(Priority.LOW)).isFalse();
+        assertThat(loadShedder.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(loadShedder.tryAcquire(Priority.HIGH)).isTrue();
+    }
+
+    @Test
+    public void whenEightyPercentOfLimitInFlightThenShedNormalPriority() {
+        acquire(Priority.NORMAL, 8);
+
+        assertThat(loadShedder.tryAcquire(Priority.NORMAL)).isFalse();
+        assertThat(loadShedder.tryAcquire(Priority.HIGH)).isTrue();
+    }
+
+    @Test
+    public void whenLimitInFlightThenShedHighPriority() {
+        acquire(Priority.HIGH, MAX_IN_FLIGHT_CALLS);
+
+        assertThat(loadShedder.tryAcquire(Priority.HIGH)).isFalse();
+        assertThat(loadShedder.getInFlightCalls()).isEqualTo(MAX_IN_FLIGHT_CALLS);
+    }
+
+    @Test
+    public void whenCallReleasedThenAdmitAgain() {
+        acquire(Priority.LOW, 5);
+
+        loadShedder.release();
+
+        assertThat(loadShedder.tryAcquire(Priority.LOW)).isTrue();
+    }
+
+    @Test
+    public void whenTrackedBulkheadIsFullThenReleaseLoadShedder() {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(false);
+
+        assertThat(loadShedder.track(bulkheadMock, Priority.HIGH).tryAcquire()).isFalse();
+        assertThat(loadShedder.getInFlightCalls()).isZero();
+    }
+
+    @Test
+    public void whenTrackedBulkheadReleasedThenReleaseBoth() {
+        final Bulkhead bulkheadMock = mock(Bulkhead.class);
+        when(bulkheadMock.tryAcquire()).thenReturn(true);
+        final Bulkhead bulkhead = loadShedder.track(bulkheadMock, Priority.HIGH);
+
+        bulkhead.tryAcquire();
+        bulkhead.release(1L);
+
+        verify(bulkheadMock).release(1L);
+        assertThat(loadShedder.getInFlightCalls()).isZero();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMaxInFlightCallsNotPositiveThenThrowException() {
+        new LoadShedder(0);
+    }
+
+    private void acquire(final Priority priority,
+                         final int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(loadShedder.tryAcquire(priority)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.smaato.switchgear.isolation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class SemaphoreBulkheadTest {
+
+    private static final int MAX_CONCURRENT_CALLS = 2;
+
+    private final SemaphoreBulkhead bulkhead = new SemaphoreBulkhead(MAX_CONCURRENT_CALLS);
+
+    @Test
+    public void whenBelowLimitThenPermitCalls() {
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.getConcurrentCalls()).isEqualTo(MAX_CONCURRENT_CALLS);
+    }
+
+    @Test
+    public void whenLimitReachedThenRejectCalls() {
+        bulkhead.tryAcquire();
+        bulkhead.tryAcquire();
+
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(bulkhead.getConcurrentCalls()).isEqualTo(MAX_CONCURRENT_CALLS);
+    }
+
+    @Test
+    public void whenReleasedThenPermitCallsAgain() {
+        bulkhead.tryAcquire();
+        bulkhead.tryAcquire();
+
+        bulkhead.release();
+
+        assertThat(bulkhead.tryAcquire()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMaxConcurrentCallsIsNotPositiveThenThrowException() {
+        new SemaphoreBulkhead(0);
+    }
+}
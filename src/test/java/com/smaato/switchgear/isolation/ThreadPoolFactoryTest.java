@@ -0,0 +1,56 @@
+package com.smaato.switchgear.isolation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+public class ThreadPoolFactoryTest {
+
+    private static final String GROUP_NAME = "partner";
+
+    @Test
+    public void whenExecutedThenRunInThreadNamedAfterGroup() {
+        final ExecutorService threadPool = ThreadPoolFactory.newInstance(GROUP_NAME, new ThreadPoolSize(1, 1));
+
+        final String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), threadPool).join();
+
+        assertThat(threadName).isEqualTo("switchgear-isolation-partner-1");
+    }
+
+    @Test
+    public void whenThreadsAndQueueAreFullThenReject() {
+        final ExecutorService threadPool = ThreadPoolFactory.newInstance(GROUP_NAME, new ThreadPoolSize(1, 1));
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Runnable blockingTask = () -> {
+            try {
+                latch.await();
+            } catch (final InterruptedException ignored) {
+            }
+        };
+
+        threadPool.execute(blockingTask);
+        threadPool.execute(blockingTask);
+
+        assertThatThrownBy(() -> threadPool.execute(blockingTask)).isInstanceOf(RejectedExecutionException.class);
+
+        latch.countDown();
+    }
+
+    @Test
+    public void whenEarliestDeadlineFirstWithoutQueueThenCreateRegularPool() {
+        assertThat(ThreadPoolFactory.newEarliestDeadlineFirstInstance(GROUP_NAME, new ThreadPoolSize(1, 0))).isInstanceOf(ExecutorService.class);
+        assertThat(ThreadPoolFactory.newEarliestDeadlineFirstInstance(GROUP_NAME, new ThreadPoolSize(1, 1))).isInstanceOf(
+                EarliestDeadlineFirstExecutor.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenThreadsAreNotPositiveThenThrowException() {
+        new ThreadPoolSize(0, 1);
+    }
+}
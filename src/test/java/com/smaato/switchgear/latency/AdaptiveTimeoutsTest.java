@@ -0,0 +1,79 @@
+package com.smaato.switchgear.latency;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.circuitbreaker.state.bucket.MultiBucketRangeFinder;
+import com.smaato.switchgear.circuitbreaker.state.bucket.SingleBucketRangeFinder;
+
+public class AdaptiveTimeoutsTest {
+
+    private static final String GROUP_NAME = "group";
+    private static final int REQUESTED_TIMEOUT_IN_MILLIS = 1000;
+
+    private final AdaptiveTimeouts adaptiveTimeouts = new AdaptiveTimeouts(new AdaptiveTimeoutPolicy(99, 2, 5, 500),
+                                                                           SingleBucketRangeFinder.INSTANCE);
+
+    @Test
+    public void whenNotEnoughLatenciesThenUseRequestedTimeout() {
+        assertThat(adaptiveTimeouts.getTimeoutInMillis(GROUP_NAME, REQUESTED_TIMEOUT_IN_MILLIS), is(REQUESTED_TIMEOUT_IN_MILLIS));
+    }
+
+    @Test
+    public void whenEnoughLatenciesThenUseMultipliedPercentile() {
+        record(GROUP_NAME, 20, 1000);
+
+        final int timeoutInMillis = adaptiveTimeouts.getTimeoutInMillis(GROUP_NAME, REQUESTED_TIMEOUT_IN_MILLIS);
+        assertThat((timeoutInMillis >= 40) && (timeoutInMillis <= 50), is(true));
+    }
+
+    @Test
+    public void whenLatenciesAreTinyThenClampToMinTimeout() {
+        record(GROUP_NAME, 0, 1000);
+
+        assertThat(adaptiveTimeouts.getTimeoutInMillis(GROUP_NAME, REQUESTED_TIMEOUT_IN_MILLIS), is(5));
+    }
+
+    @Test
+    public void whenLatenciesAreHugeThenClampToMaxTimeout() {
+        record(GROUP_NAME, 800, 1000);
+
+        assertThat(adaptiveTimeouts.getTimeoutInMillis(GROUP_NAME, REQUESTED_TIMEOUT_IN_MILLIS), is(500));
+    }
+
+    @Test
+    public void whenRequestedTimeoutIsShorterThenUseRequestedTimeout() {
+        record(GROUP_NAME, 20, 1000);
+
+        assertThat(adaptiveTimeouts.getTimeoutInMillis(GROUP_NAME, 10), is(10));
+    }
+
+    @Test
+    public void whenDifferentGroupThenUseRequestedTimeout() {
+        record(GROUP_NAME, 20, 1000);
+
+        assertThat(adaptiveTimeouts.getTimeoutInMillis("other group", REQUESTED_TIMEOUT_IN_MILLIS), is(REQUESTED_TIMEOUT_IN_MILLIS));
+    }
+
+    @Test
+    public void whenDifferentTimeoutBucketThenUseRequestedTimeout() {
+        final AdaptiveTimeouts bucketedTimeouts = new AdaptiveTimeouts(new AdaptiveTimeoutPolicy(99, 2, 5, 500),
+                                                                       new MultiBucketRangeFinder(100));
+        for (int i = 0; i < 1000; i++) {
+            bucketedTimeouts.record(GROUP_NAME, 150, MILLISECONDS.toNanos(20));
+        }
+
+        assertThat(bucketedTimeouts.getTimeoutInMillis(GROUP_NAME, 300), is(300));
+    }
+
+    private void record(final String groupName,
+                        final long latencyInMillis,
+                        final int samples) {
+        for (int i = 0; i < samples; i++) {
+            adaptiveTimeouts.record(groupName, REQUESTED_TIMEOUT_IN_MILLIS, MILLISECONDS.toNanos(latencyInMillis));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.smaato.switchgear.latency;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    @Test
+    public void whenNotEnoughSamplesThenNoPercentile() {
+        for (int i = 1; i < LatencyHistogram.MIN_SAMPLES; i++) {
+            latencyHistogram.record(MICROSECONDS.toNanos(100));
+        }
+
+        assertFalse(latencyHistogram.getPercentileInMicros(95).isPresent());
+    }
+
+    @Test
+    public void whenEnoughSamplesThenPercentileUpperBound() {
+        for (int i = 1; i <= 1000; i++) {
+            latencyHistogram.record(MICROSECONDS.toNanos(i));
+        }
+
+        final long p95 = latencyHistogram.getPercentileInMicros(95).getAsLong();
+        assertTrue((p95 >= 950) && (p95 <= 950 * 1.25));
+        assertThat(latencyHistogram.getPercentileInMicros(1).getAsLong(), is(11L));
+    }
+
+    @Test
+    public void whenLatencyChangesThenPercentileFollowsAfterDecay() {
+        for (int i = 0; i < LatencyHistogram.SAMPLES_BEFORE_DECAY; i++) {
+            latencyHistogram.record(MICROSECONDS.toNanos(10_000));
+        }
+        for (int i = 0; i < LatencyHistogram.SAMPLES_BEFORE_DECAY; i++) {
+            latencyHistogram.record(MICROSECONDS.toNanos(10));
+        }
+
+        assertThat(latencyHistogram.getPercentileInMicros(50).getAsLong(), is(11L));
+    }
+
+    @Test
+    public void whenValueInBucketThenUpperBoundNotBelowValue() {
+        for (long value = 0; value < 100_000; value++) {
+            final int index = LatencyHistogram.getIndex(value);
+            assertTrue(LatencyHistogram.getUpperBound(index) >= value);
+            assertTrue((index == 0) || (LatencyHistogram.getUpperBound(index - 1) < value));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.smaato.switchgear.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class DeadlineTest {
+
+    @Test
+    public void whenDeadlineInFutureThenNotExpired() {
+        final Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.getRemainingInMillis()).isBetween(59_000, 60_000);
+    }
+
+    @Test
+    public void whenDeadlinePassedThenExpiredWithNoRemainingTime() throws InterruptedException {
+        final Deadline deadline = Deadline.afterMillis(1);
+
+        Thread.sleep(5L);
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.getRemainingInMillis()).isZero();
+    }
+
+    @Test
+    public void whenDeadlineIsFarAwayThenRemainingTimeIsCapped() {
+        assertThat(Deadline.after(365, TimeUnit.DAYS).getRemainingInMillis()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void whenComparedThenReturnEarlierDeadline() {
+        final Deadline earlier = Deadline.afterMillis(100);
+        final Deadline later = Deadline.afterMillis(200);
+
+        assertThat(earlier.earlierOf(later)).isSameAs(earlier);
+        assertThat(later.earlierOf(earlier)).isSameAs(earlier);
+    }
+
+    @Test
+    public void whenDeadlinePassedThenNoRemainingNanos() throws InterruptedException {
+        final Deadline deadline = Deadline.afterMillis(1);
+
+        Thread.sleep(5L);
+
+        assertThat(deadline.getRemainingInNanos()).isZero();
+    }
+}
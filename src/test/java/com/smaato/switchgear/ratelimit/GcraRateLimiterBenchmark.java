@@ -0,0 +1,41 @@
+package com.smaato.switchgear.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Threads(10)
+public class GcraRateLimiterBenchmark {
+
+    private static final int BURST = 100;
+
+    private RateLimiter permittingRateLimiter;
+    private RateLimiter rejectingRateLimiter;
+
+    @Setup
+    public void setup() {
+        permittingRateLimiter = new GcraRateLimiter(new RateLimit(Integer.MAX_VALUE, BURST));
+        rejectingRateLimiter = new GcraRateLimiter(new RateLimit(0.001, 1));
+        rejectingRateLimiter.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean measurePermittedCalls(final GcraRateLimiterBenchmark benchmark) {
+        return benchmark.permittingRateLimiter.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean measureRejectedCalls(final GcraRateLimiterBenchmark benchmark) {
+        return benchmark.rejectingRateLimiter.tryAcquire();
+    }
+}
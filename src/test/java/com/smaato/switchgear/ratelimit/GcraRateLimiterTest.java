@@ -0,0 +1,95 @@
+package com.smaato.switchgear.ratelimit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class GcraRateLimiterTest {
+
+    private static final int PERMITS_PER_SECOND = 100;
+    private static final int BURST = 5;
+    private static final long EMISSION_INTERVAL = MILLISECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong(Long.MAX_VALUE - MILLISECONDS.toNanos(25));
+    private final GcraRateLimiter rateLimiter = new GcraRateLimiter(new RateLimit(PERMITS_PER_SECOND, BURST), clock::get);
+
+    @Test
+    public void whenIdleThenPermitBurst() {
+        for (int i = 0; i < BURST; i++) {
+            assertThat(rateLimiter.tryAcquire()).isTrue();
+        }
+
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void whenBurstUsedThenPermitOneCallPerEmissionInterval() {
+        exhaustBurst();
+
+        clock.addAndGet(EMISSION_INTERVAL - 1);
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+
+        clock.addAndGet(1);
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void whenIdleLongerThanBurstThenPermitBurstOnly() {
+        exhaustBurst();
+
+        clock.addAndGet(EMISSION_INTERVAL * BURST * 10);
+
+        exhaustBurst();
+    }
+
+    @Test
+    public void whenRejectedThenDoNotDelayNextPermit() {
+        exhaustBurst();
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.tryAcquire();
+        }
+
+        clock.addAndGet(EMISSION_INTERVAL);
+
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void whenPermitReleasedThenPermitAnotherCall() {
+        exhaustBurst();
+
+        rateLimiter.release();
+
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void whenIdleThenReleaseDoesNotExceedBurst() {
+        clock.addAndGet(EMISSION_INTERVAL * BURST);
+        rateLimiter.release();
+
+        exhaustBurst();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenPermitsPerSecondNotPositiveThenThrowException() {
+        new RateLimit(0, BURST);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenBurstNotPositiveThenThrowException() {
+        new RateLimit(PERMITS_PER_SECOND, 0);
+    }
+
+    private void exhaustBurst() {
+        for (int i = 0; i < BURST; i++) {
+            assertThat(rateLimiter.tryAcquire()).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+    }
+}
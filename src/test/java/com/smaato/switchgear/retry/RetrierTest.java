@@ -0,0 +1,107 @@
+package com.smaato.switchgear.retry;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.smaato.switchgear.model.Deadline;
+import com.smaato.switchgear.ratelimit.DummyRateLimiter;
+
+public class RetrierTest {
+
+    private static final String GROUP_NAME = "group";
+    private static final String RESULT = "result";
+    private static final BooleanSupplier NOT_ABANDONED = () -> false;
+
+    private final Retrier retrier = new Retrier(100);
+    private final AtomicInteger calls = new AtomicInteger(0);
+
+    @Test
+    public void whenNoBudgetThenDoNotRetry() {
+        assertThatThrownBy(() -> retrier.call(GROUP_NAME, 3, Deadline.afterMillis(60_000), NOT_ABANDONED, DummyRateLimiter.INSTANCE, failingTimes(1))).isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenBudgetAvailableThenRetryUntilSuccess() {
+        fillBudget();
+        calls.set(0);
+
+        assertThat(retrier.call(GROUP_NAME, 3, Deadline.afterMillis(60_000), NOT_ABANDONED, DummyRateLimiter.INSTANCE, failingTimes(2)), is(RESULT));
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void whenMaxRetriesReachedThenThrowLastFailure() {
+        fillBudget();
+        calls.set(0);
+
+        assertThatThrownBy(() -> retrier.call(GROUP_NAME, 2, Deadline.afterMillis(60_000), NOT_ABANDONED, DummyRateLimiter.INSTANCE, failingTimes(5))).isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void whenDeadlineExpiredThenDoNotRetry() {
+        fillBudget();
+        calls.set(0);
+
+        assertThatThrownBy(() -> retrier.call(GROUP_NAME, 3, Deadline.afterMillis(0), NOT_ABANDONED, DummyRateLimiter.INSTANCE, failingTimes(1))).isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenRateLimitExceededThenDoNotRetry() {
+        fillBudget();
+        calls.set(0);
+
+        assertThatThrownBy(() -> retrier.call(GROUP_NAME, 3, Deadline.afterMillis(60_000), NOT_ABANDONED, () -> false, failingTimes(1))).isInstanceOf(
+                IllegalStateException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenAbandonedThenDoNotRetry() {
+        fillBudget();
+        calls.set(0);
+
+        assertThatThrownBy(() -> retrier.call(GROUP_NAME, 3, Deadline.afterMillis(60_000), () -> true, DummyRateLimiter.INSTANCE, failingTimes(1)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void whenInterruptedThenDoNotRetry() {
+        fillBudget();
+        calls.set(0);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> retrier.call(GROUP_NAME, 3, Deadline.afterMillis(60_000), NOT_ABANDONED, DummyRateLimiter.INSTANCE, failingTimes(1)))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(calls.get(), is(1));
+    }
+
+    private void fillBudget() {
+        for (int i = 0; i < 10; i++) {
+            retrier.call(GROUP_NAME, 0, Deadline.afterMillis(60_000), NOT_ABANDONED, DummyRateLimiter.INSTANCE, () -> RESULT);
+        }
+    }
+
+    private Supplier<String> failingTimes(final int failures) {
+        return () -> {
+            if (calls.incrementAndGet() <= failures) {
+                throw new IllegalStateException();
+            }
+            return RESULT;
+        };
+    }
+}